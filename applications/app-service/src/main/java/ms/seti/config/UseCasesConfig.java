@@ -1,8 +1,14 @@
 package ms.seti.config;
 
+import ms.seti.model.franquicia.gateways.ArbolFranquiciaQueryRepository;
 import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.model.franquicia.gateways.InventarioQueryRepository;
+import ms.seti.model.producto.gateways.AlertaStockBajoPublisher;
+import ms.seti.model.producto.gateways.AlertasStockBajoFeed;
+import ms.seti.model.producto.gateways.CambiosStockFeed;
 import ms.seti.model.producto.gateways.ProductoRepository;
 import ms.seti.model.producto.gateways.ProductoTopPorSucursalQueryRepository;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
 import ms.seti.model.sucursal.gateways.SucursalRepository;
 import ms.seti.usecase.*;
 import org.springframework.context.annotation.Bean;
@@ -16,13 +22,18 @@ public class UseCasesConfig {
     }
 
     @Bean
-    public CrearSucursalUseCase crearSucursalUseCase(SucursalRepository sucRepo, FranquiciaRepository franRepo) {
-        return new CrearSucursalUseCase(sucRepo, franRepo);
+    public CrearSucursalUseCase crearSucursalUseCase(SucursalRepository sucRepo) {
+        return new CrearSucursalUseCase(sucRepo);
     }
 
     @Bean
-    public CrearProductoUseCase crearProductoUseCase(ProductoRepository productoRepository, SucursalRepository sucursalRepository) {
-        return new CrearProductoUseCase(productoRepository, sucursalRepository);
+    public CrearProductoUseCase crearProductoUseCase(ProductoRepository productoRepository) {
+        return new CrearProductoUseCase(productoRepository);
+    }
+
+    @Bean
+    public ImportarProductosUseCase importarProductosUseCase(ProductoRepository productoRepository, SucursalRepository sucursalRepository) {
+        return new ImportarProductosUseCase(productoRepository, sucursalRepository);
     }
 
     @Bean
@@ -31,8 +42,50 @@ public class UseCasesConfig {
     }
 
     @Bean
-    public ModificarStockProductoUseCase modificarStockProductoUseCase(ProductoRepository productoRepository) {
-        return new ModificarStockProductoUseCase(productoRepository);
+    public ModificarStockProductoUseCase modificarStockProductoUseCase(
+            ProductoRepository productoRepository,
+            UmbralStockRepository umbralStockRepository,
+            AlertaStockBajoPublisher alertaStockBajoPublisher
+    ) {
+        return new ModificarStockProductoUseCase(productoRepository, umbralStockRepository, alertaStockBajoPublisher);
+    }
+
+    @Bean
+    public ConfigurarUmbralStockSucursalUseCase configurarUmbralStockSucursalUseCase(
+            UmbralStockRepository umbralStockRepository) {
+        return new ConfigurarUmbralStockSucursalUseCase(umbralStockRepository);
+    }
+
+    @Bean
+    public ConfigurarUmbralStockFranquiciaUseCase configurarUmbralStockFranquiciaUseCase(
+            UmbralStockRepository umbralStockRepository) {
+        return new ConfigurarUmbralStockFranquiciaUseCase(umbralStockRepository);
+    }
+
+    @Bean
+    public ListarProductosStockBajoUseCase listarProductosStockBajoUseCase(
+            FranquiciaRepository franquiciaRepository,
+            UmbralStockRepository umbralStockRepository
+    ) {
+        return new ListarProductosStockBajoUseCase(franquiciaRepository, umbralStockRepository);
+    }
+
+    @Bean
+    public RegistrarMovimientoStockUseCase registrarMovimientoStockUseCase(
+            ProductoRepository productoRepository,
+            UmbralStockRepository umbralStockRepository,
+            AlertaStockBajoPublisher alertaStockBajoPublisher
+    ) {
+        return new RegistrarMovimientoStockUseCase(productoRepository, umbralStockRepository, alertaStockBajoPublisher);
+    }
+
+    @Bean
+    public ActualizarStockMasivoUseCase actualizarStockMasivoUseCase(
+            ProductoRepository productoRepository,
+            UmbralStockRepository umbralStockRepository,
+            AlertaStockBajoPublisher alertaStockBajoPublisher
+    ) {
+        return new ActualizarStockMasivoUseCase(productoRepository, umbralStockRepository, alertaStockBajoPublisher);
     }
 
     @Bean
@@ -42,6 +95,59 @@ public class UseCasesConfig {
     ) {
         return new ObtenerTopProductoPorSucursalUseCase(franquiciaRepository, queryRepository);
     }
+    @Bean
+    public ObtenerInventarioFranquiciaUseCase obtenerInventarioFranquiciaUseCase(
+            FranquiciaRepository franquiciaRepository,
+            InventarioQueryRepository inventarioRepository
+    ) {
+        return new ObtenerInventarioFranquiciaUseCase(franquiciaRepository, inventarioRepository);
+    }
+
+    @Bean
+    public SuscribirCambiosStockUseCase suscribirCambiosStockUseCase(
+            FranquiciaRepository franquiciaRepository,
+            CambiosStockFeed cambiosStockFeed
+    ) {
+        return new SuscribirCambiosStockUseCase(franquiciaRepository, cambiosStockFeed);
+    }
+
+    @Bean
+    public SuscribirAlertasStockBajoUseCase suscribirAlertasStockBajoUseCase(
+            FranquiciaRepository franquiciaRepository,
+            AlertasStockBajoFeed alertasStockBajoFeed
+    ) {
+        return new SuscribirAlertasStockBajoUseCase(franquiciaRepository, alertasStockBajoFeed);
+    }
+
+    @Bean
+    public ObtenerArbolFranquiciaUseCase obtenerArbolFranquiciaUseCase(ArbolFranquiciaQueryRepository arbolRepository) {
+        return new ObtenerArbolFranquiciaUseCase(arbolRepository);
+    }
+
+    @Bean
+    public ListarProductosSucursalUseCase listarProductosSucursalUseCase(
+            SucursalRepository sucursalRepository,
+            ProductoRepository productoRepository
+    ) {
+        return new ListarProductosSucursalUseCase(sucursalRepository, productoRepository);
+    }
+
+    @Bean
+    public BuscarProductosSucursalUseCase buscarProductosSucursalUseCase(
+            SucursalRepository sucursalRepository,
+            ProductoRepository productoRepository
+    ) {
+        return new BuscarProductosSucursalUseCase(sucursalRepository, productoRepository);
+    }
+
+    @Bean
+    public BuscarProductosFranquiciaUseCase buscarProductosFranquiciaUseCase(
+            FranquiciaRepository franquiciaRepository,
+            ProductoRepository productoRepository
+    ) {
+        return new BuscarProductosFranquiciaUseCase(franquiciaRepository, productoRepository);
+    }
+
     @Bean
     public ActualizarNombreFranquiciaUseCase actualizarNombreFranquiciaUseCase(
             FranquiciaRepository franquiciaRepository) {
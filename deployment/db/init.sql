@@ -3,14 +3,19 @@ CREATE SCHEMA IF NOT EXISTS dbo;
 SET
 search_path TO dbo, public;
 
+-- Trigramas para la búsqueda de productos por nombre (en public: visible desde el search_path por defecto)
+CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA public;
+
 -- =========================
 -- Tabla: franquicia
 -- =========================
 CREATE TABLE franquicia
 (
     id             BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
-    nombre         VARCHAR(120) NOT NULL,
-    fecha_creacion TIMESTAMPTZ  NOT NULL DEFAULT now()
+    nombre            VARCHAR(120) NOT NULL,
+    umbral_stock_bajo INTEGER,
+    fecha_creacion    TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    CONSTRAINT ck_franquicia_umbral_positivo CHECK (umbral_stock_bajo > 0)
 );
 
 ALTER TABLE franquicia
@@ -28,6 +33,10 @@ COMMENT
 ON COLUMN franquicia.nombre IS
 'Nombre de la franquicia. Debe ser único en todo el sistema.';
 
+COMMENT
+ON COLUMN franquicia.umbral_stock_bajo IS
+'Umbral de stock bajo por defecto para sus sucursales (stock < umbral). NULL: sin vigilancia.';
+
 COMMENT
 ON COLUMN franquicia.fecha_creacion IS
 'Fecha y hora de creación del registro para trazabilidad básica.';
@@ -39,10 +48,12 @@ ON COLUMN franquicia.fecha_creacion IS
 CREATE TABLE sucursal
 (
     id             BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
-    franquicia_id  BIGINT       NOT NULL REFERENCES franquicia (id) ON DELETE CASCADE,
-    nombre         VARCHAR(120) NOT NULL,
-    fecha_creacion TIMESTAMPTZ  NOT NULL DEFAULT now(),
-    CONSTRAINT uq_sucursal_por_franquicia UNIQUE (franquicia_id, nombre)
+    franquicia_id     BIGINT       NOT NULL REFERENCES franquicia (id) ON DELETE CASCADE,
+    nombre            VARCHAR(120) NOT NULL,
+    umbral_stock_bajo INTEGER,
+    fecha_creacion    TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    CONSTRAINT uq_sucursal_por_franquicia UNIQUE (franquicia_id, nombre),
+    CONSTRAINT ck_sucursal_umbral_positivo CHECK (umbral_stock_bajo > 0)
 );
 
 CREATE INDEX idx_sucursal_franquicia ON sucursal (franquicia_id);
@@ -63,6 +74,10 @@ COMMENT
 ON COLUMN sucursal.nombre IS
 'Nombre de la sucursal. Es único dentro de la misma franquicia.';
 
+COMMENT
+ON COLUMN sucursal.umbral_stock_bajo IS
+'Umbral de stock bajo propio de la sucursal; tiene prioridad sobre el de la franquicia. NULL: usa el de la franquicia.';
+
 COMMENT
 ON COLUMN sucursal.fecha_creacion IS
 'Fecha y hora de creación del registro para trazabilidad básica.';
@@ -77,12 +92,26 @@ CREATE TABLE producto
     sucursal_id    BIGINT       NOT NULL REFERENCES sucursal (id) ON DELETE CASCADE,
     nombre         VARCHAR(120) NOT NULL,
     stock          INTEGER      NOT NULL DEFAULT 0,
+    version        BIGINT       NOT NULL DEFAULT 0, -- concurrencia optimista (ETag / If-Match)
+    stock_anterior INTEGER,                         -- stock previo a la última escritura de stock (trigger)
+    stock_bajo     BOOLEAN      NOT NULL DEFAULT false, -- stock < umbral vigente (trigger)
     fecha_creacion TIMESTAMPTZ  NOT NULL DEFAULT now(),
     CONSTRAINT ck_producto_stock_no_negativo CHECK (stock >= 0),
     CONSTRAINT uq_producto_por_sucursal UNIQUE (sucursal_id, nombre)
 );
 
-CREATE INDEX idx_producto_sucursal ON producto (sucursal_id);
+-- Índice por sucursal con el orden del "top": el primero del índice es el producto con mayor stock
+-- (desempate por nombre). INCLUDE (id) lo hace cubriente para el top por sucursal (index-only scan);
+-- su prefijo sucursal_id cubre también las búsquedas por sucursal y la FK.
+CREATE INDEX idx_producto_sucursal_stock ON producto (sucursal_id, stock DESC, nombre) INCLUDE (id);
+
+-- Listado paginado por stock: keyset exacto con (stock, id) < (:stock, :id) en orden descendente,
+-- cada página arranca en su posición del índice (sin OFFSET). El listado por nombre usa uq_producto_por_sucursal.
+CREATE INDEX idx_producto_sucursal_stock_id ON producto (sucursal_id, stock DESC, id DESC);
+
+-- Búsqueda por nombre: ILIKE '%texto%' y el operador de similitud por palabra (<%) usan este índice
+-- en lugar de recorrer la tabla; el ranking solo se calcula sobre las coincidencias.
+CREATE INDEX idx_producto_nombre_trgm ON producto USING gin (nombre gin_trgm_ops);
 
 COMMENT
 ON TABLE producto IS
@@ -104,33 +133,447 @@ COMMENT
 ON COLUMN producto.stock IS
 'Cantidad disponible en inventario para la sucursal. Restricción: stock >= 0.';
 
+COMMENT
+ON COLUMN producto.stock_anterior IS
+'Stock antes de la última escritura de stock (NULL si nunca cambió). Lo devuelve el UPDATE para detectar cruces de umbral sin lectura previa.';
+
+COMMENT
+ON COLUMN producto.stock_bajo IS
+'true si stock < umbral vigente de su sucursal (propio o de la franquicia). Predicado del índice parcial idx_producto_stock_bajo.';
+
 COMMENT
 ON COLUMN producto.fecha_creacion IS
 'Fecha y hora de creación del registro para trazabilidad básica.';
 
 
 -- =========================
--- Vista de apoyo: producto con mayor stock por sucursal
--- Útil para el endpoint funcional #6.
+-- Proyección: producto con mayor stock por sucursal (una fila por sucursal)
+-- Se mantiene de forma incremental desde triggers de producto; solo se recalculan
+-- las sucursales afectadas por cada sentencia, leyendo el primer registro de idx_producto_sucursal_stock.
 -- =========================
+CREATE TABLE producto_top_por_sucursal
+(
+    sucursal_id     BIGINT PRIMARY KEY REFERENCES sucursal (id) ON DELETE CASCADE,
+    franquicia_id   BIGINT       NOT NULL,
+    producto_id     BIGINT       NOT NULL,
+    producto_nombre VARCHAR(120) NOT NULL,
+    stock           INTEGER      NOT NULL
+);
+
+CREATE INDEX idx_producto_top_por_sucursal_franquicia ON producto_top_por_sucursal (franquicia_id);
+
+COMMENT
+ON TABLE producto_top_por_sucursal IS
+'Proyección almacenada: para cada sucursal con productos, el de mayor stock (desempate por nombre). Reconstruir con SELECT dbo.fn_reconstruir_top_por_sucursal().';
+
+-- Mantiene el top de las sucursales indicadas tras escribir los productos p_productos.
+-- Solo se recalcula desde producto (advisory lock exclusivo) cuando el top puede empeorar: se escribió
+-- el propio producto top o la sucursal aún no tiene fila. El resto de escrituras toma el lock en modo
+-- compartido (no se serializan entre sí) y, si algún producto escrito supera al top, lo reemplaza con un
+-- UPDATE condicional que se reevalúa sobre la última versión de la fila.
+-- El modo compartido basta para que un recálculo espere a las escrituras en curso de la sucursal y vea
+-- lo que confirmen, evitando proyectar un top con un stock ya sobrescrito.
+-- Locks con la forma de dos enteros (espacio, sucursal) para no chocar con otros advisory locks.
 CREATE
-OR REPLACE VIEW v_producto_max_stock_por_sucursal AS
-SELECT f.id     AS franquicia_id,
-       f.nombre AS franquicia_nombre,
-       s.id     AS sucursal_id,
-       s.nombre AS sucursal_nombre,
-       p.id     AS producto_id,
-       p.nombre AS producto_nombre,
-       p.stock  AS stock
-FROM (SELECT p.*,
-             ROW_NUMBER() OVER (
-            PARTITION BY p.sucursal_id
+OR REPLACE FUNCTION fn_refrescar_top_por_sucursal(p_sucursales BIGINT[], p_productos BIGINT[]) RETURNS VOID
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    c_espacio_lock CONSTANT INTEGER := 13; -- espacio de advisory locks de producto_top_por_sucursal
+    v_sucursal BIGINT;
+    v_lock INTEGER;
+    v_top_id BIGINT;
+    v_recalcular BOOLEAN;
+    v_producto_id BIGINT;
+    v_producto_nombre VARCHAR(120);
+    v_stock INTEGER;
+BEGIN
+    FOR v_sucursal IN SELECT DISTINCT unnest(p_sucursales) ORDER BY 1
+    LOOP
+        v_lock := (v_sucursal % 2147483647)::INTEGER;
+
+        SELECT t.producto_id INTO v_top_id FROM producto_top_por_sucursal t WHERE t.sucursal_id = v_sucursal;
+        v_recalcular := v_top_id IS NULL OR v_top_id = ANY (p_productos);
+        IF NOT v_recalcular THEN
+            PERFORM pg_advisory_xact_lock_shared(c_espacio_lock, v_lock);
+            -- Relectura: un recálculo confirmado mientras se esperaba el lock pudo elegir un producto escrito aquí
+            SELECT t.producto_id INTO v_top_id FROM producto_top_por_sucursal t WHERE t.sucursal_id = v_sucursal;
+            v_recalcular := v_top_id IS NULL OR v_top_id = ANY (p_productos);
+        END IF;
+
+        IF v_recalcular THEN
+            PERFORM pg_advisory_xact_lock(c_espacio_lock, v_lock);
+
+            SELECT p.id, p.nombre, p.stock
+            INTO v_producto_id, v_producto_nombre, v_stock
+            FROM producto p
+            WHERE p.sucursal_id = v_sucursal
+            ORDER BY p.stock DESC, p.nombre ASC
+            LIMIT 1;
+
+            IF NOT FOUND THEN
+                DELETE FROM producto_top_por_sucursal WHERE sucursal_id = v_sucursal;
+            ELSE
+                -- Si la sucursal ya no existe (borrado en cascada) el SELECT no produce filas
+                INSERT INTO producto_top_por_sucursal (sucursal_id, franquicia_id, producto_id, producto_nombre, stock)
+                SELECT s.id, s.franquicia_id, v_producto_id, v_producto_nombre, v_stock
+                FROM sucursal s
+                WHERE s.id = v_sucursal
+                ON CONFLICT (sucursal_id) DO UPDATE
+                    SET producto_id     = EXCLUDED.producto_id,
+                        producto_nombre = EXCLUDED.producto_nombre,
+                        stock           = EXCLUDED.stock
+                WHERE (producto_top_por_sucursal.producto_id, producto_top_por_sucursal.producto_nombre, producto_top_por_sucursal.stock)
+                          IS DISTINCT FROM (EXCLUDED.producto_id, EXCLUDED.producto_nombre, EXCLUDED.stock);
+            END IF;
+        ELSE
+            -- El top no fue escrito: solo cambia si el mejor producto escrito lo supera
+            SELECT p.id, p.nombre, p.stock
+            INTO v_producto_id, v_producto_nombre, v_stock
+            FROM producto p
+            WHERE p.sucursal_id = v_sucursal
+              AND p.id = ANY (p_productos)
             ORDER BY p.stock DESC, p.nombre ASC
-        ) AS rn
-      FROM producto p) p
-         JOIN sucursal s ON s.id = p.sucursal_id
+            LIMIT 1;
+
+            IF FOUND THEN
+                UPDATE producto_top_por_sucursal t
+                SET producto_id     = v_producto_id,
+                    producto_nombre = v_producto_nombre,
+                    stock           = v_stock
+                WHERE t.sucursal_id = v_sucursal
+                  AND (v_stock > t.stock OR (v_stock = t.stock AND v_producto_nombre < t.producto_nombre));
+            END IF;
+        END IF;
+    END LOOP;
+END;
+$$;
+
+-- Triggers por sentencia con tablas de transición: un lote masivo recalcula cada sucursal una sola vez.
+CREATE
+OR REPLACE FUNCTION fn_trg_producto_top_por_sucursal() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM fn_refrescar_top_por_sucursal(ARRAY(SELECT n.sucursal_id FROM nuevas n),
+                                              ARRAY(SELECT n.id FROM nuevas n));
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM fn_refrescar_top_por_sucursal(ARRAY(SELECT v.sucursal_id FROM viejas v),
+                                              ARRAY(SELECT v.id FROM viejas v));
+    ELSE
+        -- Solo cuentan cambios de stock, nombre o sucursal (no p.ej. la versión)
+        PERFORM fn_refrescar_top_por_sucursal(
+                ARRAY(SELECT unnest(ARRAY[n.sucursal_id, v.sucursal_id])
+                      FROM nuevas n
+                               JOIN viejas v ON v.id = n.id
+                      WHERE (n.stock, n.nombre, n.sucursal_id) IS DISTINCT FROM (v.stock, v.nombre, v.sucursal_id)),
+                ARRAY(SELECT n.id
+                      FROM nuevas n
+                               JOIN viejas v ON v.id = n.id
+                      WHERE (n.stock, n.nombre, n.sucursal_id) IS DISTINCT FROM (v.stock, v.nombre, v.sucursal_id)));
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_producto_top_insert
+    AFTER INSERT ON producto
+    REFERENCING NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_trg_producto_top_por_sucursal();
+
+CREATE TRIGGER trg_producto_top_update
+    AFTER UPDATE ON producto
+    REFERENCING OLD TABLE AS viejas NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_trg_producto_top_por_sucursal();
+
+CREATE TRIGGER trg_producto_top_delete
+    AFTER DELETE ON producto
+    REFERENCING OLD TABLE AS viejas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_trg_producto_top_por_sucursal();
+
+-- Recuperación: reconstruye la proyección completa desde producto.
+-- LOCK SHARE bloquea escrituras sobre producto mientras dura (las lecturas siguen).
+CREATE
+OR REPLACE FUNCTION fn_reconstruir_top_por_sucursal() RETURNS BIGINT
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    v_filas BIGINT;
+BEGIN
+    LOCK TABLE producto IN SHARE MODE;
+    DELETE FROM producto_top_por_sucursal;
+    INSERT INTO producto_top_por_sucursal (sucursal_id, franquicia_id, producto_id, producto_nombre, stock)
+    SELECT s.id, s.franquicia_id, t.id, t.nombre, t.stock
+    FROM sucursal s
+             CROSS JOIN LATERAL (SELECT p.id, p.nombre, p.stock
+                                 FROM producto p
+                                 WHERE p.sucursal_id = s.id
+                                 ORDER BY p.stock DESC, p.nombre ASC
+                                 LIMIT 1) t;
+    GET DIAGNOSTICS v_filas = ROW_COUNT;
+    RETURN v_filas;
+END;
+$$;
+
+
+-- =========================
+-- Contadores de inventario por sucursal (cantidad de productos y stock total)
+-- Se mantienen en la misma sentencia que escribe producto (triggers por sentencia con tablas de transición):
+-- cada lote aplica un delta agregado por sucursal y slot. Los totales se suman al leer (O(sucursales * slots))
+-- para no concentrar las escrituras en una sola fila: ni la de la franquicia ni la de la sucursal.
+-- Cada producto cae siempre en el slot id % 16: dos escrituras de la misma sucursal comparten fila de
+-- contadores cuando sus productos coinciden en id % 16 (p. ej. 1 y 17), lo que para ids repartidos es
+-- 1 de cada 16 pares; escrituras de sucursales distintas nunca comparten fila.
+-- =========================
+CREATE TABLE sucursal_inventario
+(
+    sucursal_id BIGINT   NOT NULL REFERENCES sucursal (id) ON DELETE CASCADE,
+    slot        SMALLINT NOT NULL, -- producto.id % 16
+    productos   BIGINT   NOT NULL DEFAULT 0,
+    stock_total BIGINT   NOT NULL DEFAULT 0,
+    CONSTRAINT pk_sucursal_inventario PRIMARY KEY (sucursal_id, slot)
+);
+
+COMMENT
+ON TABLE sucursal_inventario IS
+'Contadores incrementales por sucursal repartidos en 16 slots (productos y suma de stock); el total de la sucursal es la suma de sus slots. Reconstruir con SELECT dbo.fn_reconstruir_inventario().';
+
+CREATE
+OR REPLACE FUNCTION fn_trg_producto_inventario() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO sucursal_inventario AS i (sucursal_id, slot, productos, stock_total)
+        SELECT n.sucursal_id, n.id % 16, count(*), sum(n.stock)
+        FROM nuevas n
+        GROUP BY n.sucursal_id, n.id % 16
+        ORDER BY 1, 2
+        ON CONFLICT (sucursal_id, slot) DO UPDATE
+            SET productos   = i.productos + EXCLUDED.productos,
+                stock_total = i.stock_total + EXCLUDED.stock_total;
+    ELSIF TG_OP = 'DELETE' THEN
+        -- Borrado en cascada de una sucursal: su fila de contadores ya no existe y no hay nada que ajustar
+        UPDATE sucursal_inventario i
+        SET productos   = i.productos - d.productos,
+            stock_total = i.stock_total - d.stock_total
+        FROM (SELECT v.sucursal_id, v.id % 16 AS slot, count(*) AS productos, sum(v.stock) AS stock_total
+              FROM viejas v
+              GROUP BY v.sucursal_id, v.id % 16) d
+        WHERE i.sucursal_id = d.sucursal_id
+          AND i.slot = d.slot;
+    ELSE
+        -- Delta neto por sucursal y slot; los cambios que no tocan stock ni sucursal (nombre, versión) no escriben
+        INSERT INTO sucursal_inventario AS i (sucursal_id, slot, productos, stock_total)
+        SELECT d.sucursal_id, d.slot, sum(d.productos), sum(d.stock)
+        FROM (SELECT n.sucursal_id, n.id % 16 AS slot, 1 AS productos, n.stock::BIGINT AS stock
+              FROM nuevas n
+              UNION ALL
+              SELECT v.sucursal_id, v.id % 16, -1, -v.stock::BIGINT
+              FROM viejas v) d
+        GROUP BY d.sucursal_id, d.slot
+        HAVING sum(d.productos) <> 0 OR sum(d.stock) <> 0
+        ORDER BY d.sucursal_id, d.slot
+        ON CONFLICT (sucursal_id, slot) DO UPDATE
+            SET productos   = i.productos + EXCLUDED.productos,
+                stock_total = i.stock_total + EXCLUDED.stock_total;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_producto_inventario_insert
+    AFTER INSERT ON producto
+    REFERENCING NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_trg_producto_inventario();
+
+CREATE TRIGGER trg_producto_inventario_update
+    AFTER UPDATE ON producto
+    REFERENCING OLD TABLE AS viejas NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_trg_producto_inventario();
+
+CREATE TRIGGER trg_producto_inventario_delete
+    AFTER DELETE ON producto
+    REFERENCING OLD TABLE AS viejas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_trg_producto_inventario();
+
+-- Recuperación: recalcula todos los contadores desde producto (bloquea escrituras mientras dura).
+CREATE
+OR REPLACE FUNCTION fn_reconstruir_inventario() RETURNS BIGINT
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    v_filas BIGINT;
+BEGIN
+    LOCK TABLE producto IN SHARE MODE;
+    DELETE FROM sucursal_inventario;
+    INSERT INTO sucursal_inventario (sucursal_id, slot, productos, stock_total)
+    SELECT p.sucursal_id, p.id % 16, count(*), sum(p.stock)
+    FROM producto p
+    GROUP BY p.sucursal_id, p.id % 16;
+    GET DIAGNOSTICS v_filas = ROW_COUNT;
+    RETURN v_filas;
+END;
+$$;
+
+-- =========================
+-- Vigilancia de stock bajo
+-- Umbral vigente de un producto: el de su sucursal o, si no tiene, el de su franquicia.
+-- producto.stock_bajo lo calcula un trigger de fila en la misma escritura; un índice parcial no puede
+-- consultar otras tablas, así que el predicado se materializa en la fila. Cambiar un umbral recalcula
+-- solo los productos de las sucursales afectadas.
+-- =========================
+
+-- "Actualmente bajo": el índice contiene solo los productos bajo su umbral (pocos frente al total).
+CREATE INDEX idx_producto_stock_bajo ON producto (sucursal_id, stock) WHERE stock_bajo;
+
+CREATE
+OR REPLACE FUNCTION fn_umbral_stock_bajo(p_sucursal BIGINT) RETURNS INTEGER
+    LANGUAGE sql STABLE AS
+$$
+SELECT COALESCE(s.umbral_stock_bajo, f.umbral_stock_bajo)
+FROM sucursal s
          JOIN franquicia f ON f.id = s.franquicia_id
-WHERE p.rn = 1;
+WHERE s.id = p_sucursal;
+$$;
+
+-- Solo se dispara si la sentencia escribe stock o sucursal_id (un renombrado no paga la búsqueda del umbral).
+CREATE
+OR REPLACE FUNCTION fn_trg_producto_stock_bajo() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        NEW.stock_anterior := OLD.stock;
+    END IF;
+    NEW.stock_bajo := COALESCE(NEW.stock < fn_umbral_stock_bajo(NEW.sucursal_id), false);
+    RETURN NEW;
+END;
+$$;
+
+CREATE TRIGGER trg_producto_stock_bajo
+    BEFORE INSERT OR UPDATE OF stock, sucursal_id ON producto
+    FOR EACH ROW EXECUTE FUNCTION fn_trg_producto_stock_bajo();
+
+-- Recalcula stock_bajo de las sucursales indicadas; solo escribe las filas cuyo valor cambia.
+CREATE
+OR REPLACE FUNCTION fn_recalcular_stock_bajo(p_sucursales BIGINT[]) RETURNS VOID
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE producto p
+    SET stock_bajo = COALESCE(p.stock < u.umbral, false)
+    FROM (SELECT s.id AS sucursal_id, COALESCE(s.umbral_stock_bajo, f.umbral_stock_bajo) AS umbral
+          FROM sucursal s
+                   JOIN franquicia f ON f.id = s.franquicia_id
+          WHERE s.id = ANY (p_sucursales)) u
+    WHERE p.sucursal_id = u.sucursal_id
+      AND p.stock_bajo IS DISTINCT FROM COALESCE(p.stock < u.umbral, false);
+END;
+$$;
+
+CREATE
+OR REPLACE FUNCTION fn_trg_sucursal_umbral() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    PERFORM fn_recalcular_stock_bajo(ARRAY[NEW.id]);
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_sucursal_umbral
+    AFTER UPDATE OF umbral_stock_bajo ON sucursal
+    FOR EACH ROW
+    WHEN (OLD.umbral_stock_bajo IS DISTINCT FROM NEW.umbral_stock_bajo)
+EXECUTE FUNCTION fn_trg_sucursal_umbral();
+
+-- El umbral de la franquicia solo afecta a las sucursales sin umbral propio.
+CREATE
+OR REPLACE FUNCTION fn_trg_franquicia_umbral() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    PERFORM fn_recalcular_stock_bajo(ARRAY(
+        SELECT s.id
+        FROM sucursal s
+        WHERE s.franquicia_id = NEW.id
+          AND s.umbral_stock_bajo IS NULL));
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_franquicia_umbral
+    AFTER UPDATE OF umbral_stock_bajo ON franquicia
+    FOR EACH ROW
+    WHEN (OLD.umbral_stock_bajo IS DISTINCT FROM NEW.umbral_stock_bajo)
+EXECUTE FUNCTION fn_trg_franquicia_umbral();
+
+-- =========================
+-- Feed de cambios de stock (LISTEN producto_cambios)
+-- Un aviso compacto por producto creado, eliminado o con cambio de stock/sucursal, con el formato
+-- tipo,franquicia_id,sucursal_id,producto_id,stock,version (tipo: C creado, A actualizado, E eliminado).
+-- pg_notify entrega al confirmar la transacción (nada si hace rollback) y cubre todas las escrituras,
+-- las de la API y las externas. Los productos borrados en cascada junto con su sucursal no se notifican
+-- (ya no hay franquicia a la que enrutarlos).
+-- =========================
+CREATE
+OR REPLACE FUNCTION fn_trg_producto_notificar() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM pg_notify('producto_cambios', concat_ws(',', 'C', s.franquicia_id, n.sucursal_id, n.id, n.stock, n.version))
+        FROM nuevas n
+                 JOIN sucursal s ON s.id = n.sucursal_id;
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('producto_cambios', concat_ws(',', 'E', s.franquicia_id, v.sucursal_id, v.id, v.stock, v.version))
+        FROM viejas v
+                 JOIN sucursal s ON s.id = v.sucursal_id;
+    ELSE
+        -- Solo cambios de stock o sucursal (un renombrado o el recálculo de stock_bajo no avisan)
+        PERFORM pg_notify('producto_cambios', concat_ws(',', 'A', s.franquicia_id, n.sucursal_id, n.id, n.stock, n.version))
+        FROM nuevas n
+                 JOIN viejas v ON v.id = n.id
+                 JOIN sucursal s ON s.id = n.sucursal_id
+        WHERE (n.stock, n.sucursal_id) IS DISTINCT FROM (v.stock, v.sucursal_id);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_producto_notificar_insert
+    AFTER INSERT ON producto
+    REFERENCING NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_trg_producto_notificar();
+
+CREATE TRIGGER trg_producto_notificar_update
+    AFTER UPDATE ON producto
+    REFERENCING OLD TABLE AS viejas NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_trg_producto_notificar();
+
+CREATE TRIGGER trg_producto_notificar_delete
+    AFTER DELETE ON producto
+    REFERENCING OLD TABLE AS viejas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_trg_producto_notificar();
+
+-- =========================
+-- Vista de apoyo: producto con mayor stock por sucursal
+-- Útil para el endpoint funcional #6. Lee la proyección almacenada (ya no rankea toda la tabla producto).
+-- =========================
+CREATE
+OR REPLACE VIEW v_producto_max_stock_por_sucursal AS
+SELECT t.franquicia_id   AS franquicia_id,
+       f.nombre          AS franquicia_nombre,
+       t.sucursal_id     AS sucursal_id,
+       s.nombre          AS sucursal_nombre,
+       t.producto_id     AS producto_id,
+       t.producto_nombre AS producto_nombre,
+       t.stock           AS stock
+FROM producto_top_por_sucursal t
+         JOIN sucursal s ON s.id = t.sucursal_id
+         JOIN franquicia f ON f.id = t.franquicia_id;
 
 COMMENT
 ON VIEW v_producto_max_stock_por_sucursal IS
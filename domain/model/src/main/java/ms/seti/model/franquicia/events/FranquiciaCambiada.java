@@ -0,0 +1,11 @@
+package ms.seti.model.franquicia.events;
+
+import ms.seti.model.franquicia.Franquicia;
+
+/** Cambio confirmado sobre una franquicia (lo emite el adapter de persistencia tras la escritura). */
+public record FranquiciaCambiada(
+        Tipo tipo,
+        Franquicia franquicia
+) {
+    public enum Tipo { CREADA, ACTUALIZADA }
+}
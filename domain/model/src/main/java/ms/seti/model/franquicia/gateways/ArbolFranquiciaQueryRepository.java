@@ -0,0 +1,11 @@
+package ms.seti.model.franquicia.gateways;
+
+import reactor.core.publisher.Mono;
+
+public interface ArbolFranquiciaQueryRepository {
+    /**
+     * Franquicia con sus sucursales y productos, ya serializada como JSON UTF-8 por la base de datos
+     * ({id, nombre, sucursales: [{id, nombre, productos: [{id, nombre, stock}]}]}); vacío si no existe.
+     */
+    Mono<byte[]> findJsonByFranquiciaId(Long franquiciaId);
+}
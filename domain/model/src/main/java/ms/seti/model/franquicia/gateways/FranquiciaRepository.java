@@ -4,7 +4,6 @@ import ms.seti.model.franquicia.Franquicia;
 import reactor.core.publisher.Mono;
 
 public interface FranquiciaRepository {
-    Mono<Boolean> existsByNombre(String nombre);
     Mono<Franquicia> create(Franquicia franquicia);
     Mono<Franquicia> findById(Long id);
     Mono<Franquicia> updateNombre(Long id, String nuevoNombre);
@@ -0,0 +1,9 @@
+package ms.seti.model.franquicia.gateways;
+
+import ms.seti.model.franquicia.projections.InventarioSucursal;
+import reactor.core.publisher.Flux;
+
+public interface InventarioQueryRepository {
+    /** Una fila por sucursal de la franquicia, leída de los contadores incrementales. */
+    Flux<InventarioSucursal> findByFranquiciaId(Long franquiciaId);
+}
@@ -0,0 +1,15 @@
+package ms.seti.model.franquicia.projections;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/** Inventario de una franquicia: totales y detalle por sucursal. */
+@Builder(toBuilder = true)
+public record InventarioFranquicia(
+        Long franquiciaId,
+        String franquiciaNombre,
+        long productos,
+        long stockTotal,
+        List<InventarioSucursal> sucursales
+) {}
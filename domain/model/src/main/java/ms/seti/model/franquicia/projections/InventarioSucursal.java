@@ -0,0 +1,12 @@
+package ms.seti.model.franquicia.projections;
+
+import lombok.Builder;
+
+/** Contadores de inventario de una sucursal (0 si aún no tiene productos). */
+@Builder(toBuilder = true)
+public record InventarioSucursal(
+        Long sucursalId,
+        String sucursalNombre,
+        long productos,
+        long stockTotal
+) {}
@@ -0,0 +1,11 @@
+package ms.seti.model.producto;
+
+import lombok.Builder;
+
+/** Valor absoluto de stock a aplicar sobre un producto (item de una actualización masiva). */
+@Builder(toBuilder = true)
+public record ActualizacionStock(
+        Long productoId,
+        Integer stock
+) {
+}
@@ -0,0 +1,8 @@
+package ms.seti.model.producto;
+
+/**
+ * Orden del listado paginado de productos de una sucursal (keyset):
+ * - NOMBRE: nombre asc (único por sucursal, basta como clave).
+ * - STOCK: stock desc, id desc.
+ */
+public enum OrdenProductos { NOMBRE, STOCK }
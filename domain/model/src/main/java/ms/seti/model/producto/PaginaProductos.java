@@ -0,0 +1,13 @@
+package ms.seti.model.producto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/** Página de un listado keyset; hayMas indica si existe una página siguiente (a partir del último producto). */
+@Builder(toBuilder = true)
+public record PaginaProductos(
+        List<Producto> productos,
+        boolean hayMas
+) {
+}
@@ -2,11 +2,17 @@ package ms.seti.model.producto;
 
 import lombok.Builder;
 
+/**
+ * stockAnterior: stock previo a la última escritura de stock, tal como lo devuelve esa escritura
+ * (null en lecturas, altas y escrituras que no tocan el stock).
+ */
 @Builder(toBuilder = true)
 public record Producto(
         Long id,
         Long sucursalId,
         String nombre,
-        Integer stock
+        Integer stock,
+        Long version,
+        Integer stockAnterior
 ) {
 }
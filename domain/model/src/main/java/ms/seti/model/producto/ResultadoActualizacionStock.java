@@ -0,0 +1,17 @@
+package ms.seti.model.producto;
+
+import lombok.Builder;
+
+/**
+ * Resultado por item de una actualización masiva de stock.
+ * FALLIDO: el lote del item no pudo aplicarse; los lotes anteriores ya quedaron confirmados.
+ */
+@Builder(toBuilder = true)
+public record ResultadoActualizacionStock(
+        Long productoId,
+        Integer stock,
+        Estado estado,
+        String detalle
+) {
+    public enum Estado { ACTUALIZADO, NO_ENCONTRADO, INVALIDO, FALLIDO }
+}
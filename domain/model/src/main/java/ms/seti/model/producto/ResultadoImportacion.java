@@ -0,0 +1,20 @@
+package ms.seti.model.producto;
+
+import lombok.Builder;
+
+/** Conteo acumulado de una importación masiva de productos. */
+@Builder(toBuilder = true)
+public record ResultadoImportacion(
+        long creados,
+        long duplicados,
+        long invalidos
+) {
+    public static final ResultadoImportacion VACIO = new ResultadoImportacion(0, 0, 0);
+
+    public ResultadoImportacion sumar(ResultadoImportacion otro) {
+        return new ResultadoImportacion(
+                creados + otro.creados,
+                duplicados + otro.duplicados,
+                invalidos + otro.invalidos);
+    }
+}
@@ -0,0 +1,20 @@
+package ms.seti.model.producto.events;
+
+import lombok.Builder;
+
+/**
+ * Una escritura de stock dejó al producto por debajo del umbral vigente de su sucursal
+ * (stockAnterior >= umbral > stock). version identifica la escritura que lo produjo.
+ */
+@Builder(toBuilder = true)
+public record AlertaStockBajo(
+        Long franquiciaId,
+        Long sucursalId,
+        Long productoId,
+        String productoNombre,
+        Integer stockAnterior,
+        Integer stock,
+        Integer umbral,
+        Long version
+) {
+}
@@ -0,0 +1,19 @@
+package ms.seti.model.producto.events;
+
+import lombok.Builder;
+
+/**
+ * Cambio de stock confirmado en la base de datos (alta, cambio de stock o borrado de un producto),
+ * visto por el feed de cambios sin importar qué instancia o proceso hizo la escritura.
+ * stock / version: estado resultante; en ELIMINADO, el último estado.
+ */
+@Builder(toBuilder = true)
+public record CambioStock(
+        ProductoCambiado.Tipo tipo,
+        Long franquiciaId,
+        Long sucursalId,
+        Long productoId,
+        Integer stock,
+        Long version
+) {
+}
@@ -0,0 +1,16 @@
+package ms.seti.model.producto.events;
+
+import ms.seti.model.producto.Producto;
+
+/**
+ * Cambio confirmado sobre un producto (lo emite el adapter de persistencia tras la escritura).
+ * franquiciaId: franquicia de la sucursal del producto, resuelta antes de publicar (null si no pudo resolverse).
+ * producto: estado resultante; en ELIMINADO, el último estado conocido.
+ */
+public record ProductoCambiado(
+        Tipo tipo,
+        Long franquiciaId,
+        Producto producto
+) {
+    public enum Tipo { CREADO, ACTUALIZADO, ELIMINADO }
+}
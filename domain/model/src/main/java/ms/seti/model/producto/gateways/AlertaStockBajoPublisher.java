@@ -0,0 +1,9 @@
+package ms.seti.model.producto.gateways;
+
+import ms.seti.model.producto.events.AlertaStockBajo;
+import reactor.core.publisher.Mono;
+
+public interface AlertaStockBajoPublisher {
+    /** Entrega la alerta a los suscriptores conectados; no espera a consumidores lentos. */
+    Mono<Void> publicar(AlertaStockBajo alerta);
+}
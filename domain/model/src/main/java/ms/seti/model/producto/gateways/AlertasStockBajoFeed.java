@@ -0,0 +1,12 @@
+package ms.seti.model.producto.gateways;
+
+import ms.seti.model.producto.events.AlertaStockBajo;
+import reactor.core.publisher.Flux;
+
+public interface AlertasStockBajoFeed {
+    /**
+     * Alertas de stock bajo de la franquicia (y, si se indica, solo de esa sucursal) desde la suscripción.
+     * Infinito; a un suscriptor lento se le descartan las alertas más viejas.
+     */
+    Flux<AlertaStockBajo> suscribir(Long franquiciaId, Long sucursalId);
+}
@@ -0,0 +1,12 @@
+package ms.seti.model.producto.gateways;
+
+import ms.seti.model.producto.events.CambioStock;
+import reactor.core.publisher.Flux;
+
+public interface CambiosStockFeed {
+    /**
+     * Cambios de stock de la franquicia (y, si se indica, solo de esa sucursal) desde la suscripción.
+     * Infinito; termina con error si el suscriptor no consume al ritmo de los cambios.
+     */
+    Flux<CambioStock> suscribir(Long franquiciaId, Long sucursalId);
+}
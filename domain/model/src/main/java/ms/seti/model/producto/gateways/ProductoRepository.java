@@ -1,13 +1,36 @@
 package ms.seti.model.producto.gateways;
 
+import ms.seti.model.producto.ActualizacionStock;
+import ms.seti.model.producto.OrdenProductos;
 import ms.seti.model.producto.Producto;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface ProductoRepository {
-    Mono<Boolean> existsBySucursalIdAndNombre(Long sucursalId, String nombre);
     Mono<Producto> create(Producto producto);
+    /** Inserta un lote en una sola sentencia; emite solo los insertados (los nombres repetidos se omiten). */
+    Flux<Producto> createBatch(Long sucursalId, List<Producto> productos);
     Mono<Producto> findById(Long id);
+    /**
+     * Hasta limite productos de la sucursal en el orden pedido, posteriores a despuesDe (keyset; null => desde el inicio).
+     * De despuesDe solo se usan las columnas del orden: nombre (NOMBRE) o stock e id (STOCK).
+     */
+    Flux<Producto> findBySucursalId(Long sucursalId, OrdenProductos orden, Producto despuesDe, int limite);
+    /** Hasta limite productos de la sucursal cuyo nombre contiene o se parece a texto, del más al menos relevante. */
+    Flux<Producto> searchBySucursalId(Long sucursalId, String texto, int limite);
+    /** Igual que searchBySucursalId sobre todas las sucursales de la franquicia. */
+    Flux<Producto> searchByFranquiciaId(Long franquiciaId, String texto, int limite);
     Mono<Void> deleteById(Long id);
     Mono<Producto> updateStock(Long id, Integer stock);
+    /** Igual que updateStock, solo si la versión actual es versionEsperada (ConcurrentModificationException si cambió). */
+    Mono<Producto> updateStock(Long id, Integer stock, Long versionEsperada);
+    /** Aplica stock = stock + delta de forma atómica; nunca deja el stock en negativo. */
+    Mono<Producto> adjustStock(Long id, Integer delta);
+    /** Aplica un lote de stocks absolutos en una sola sentencia; emite solo los productos encontrados. */
+    Flux<Producto> updateStockBatch(List<ActualizacionStock> actualizaciones);
     Mono<Producto> updateNombre(Long id, String nuevoNombre);
+    /** Igual que updateNombre, solo si la versión actual es versionEsperada (ConcurrentModificationException si cambió). */
+    Mono<Producto> updateNombre(Long id, String nuevoNombre, Long versionEsperada);
 }
@@ -5,4 +5,7 @@ import reactor.core.publisher.Flux;
 
 public interface ProductoTopPorSucursalQueryRepository {
     Flux<ProductoTopPorSucursal> findByFranquiciaId(Long franquiciaId);
+
+    /** Hasta n productos por sucursal (stock desc, nombre asc), agrupados por sucursal. */
+    Flux<ProductoTopPorSucursal> findByFranquiciaId(Long franquiciaId, int n);
 }
@@ -0,0 +1,20 @@
+package ms.seti.model.producto.gateways;
+
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.projections.UmbralStock;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface UmbralStockRepository {
+    /** Umbral vigente de la sucursal; vacío si la sucursal no existe. */
+    Mono<UmbralStock> findBySucursalId(Long sucursalId);
+
+    /** Fija (o quita, con null) el umbral propio de la sucursal; NoSuchElementException si no existe. */
+    Mono<UmbralStock> updateUmbralSucursal(Long sucursalId, Integer umbral);
+
+    /** Fija (o quita, con null) el umbral por defecto de la franquicia; NoSuchElementException si no existe. */
+    Mono<Void> updateUmbralFranquicia(Long franquiciaId, Integer umbral);
+
+    /** Productos de la franquicia actualmente bajo su umbral, de menor a mayor stock. */
+    Flux<Producto> findStockBajoByFranquiciaId(Long franquiciaId, int limite);
+}
@@ -0,0 +1,17 @@
+package ms.seti.model.producto.projections;
+
+import lombok.Builder;
+
+/** Umbral de stock bajo vigente para una sucursal: el propio o, si no tiene, el de su franquicia (null: sin vigilancia). */
+@Builder(toBuilder = true)
+public record UmbralStock(
+        Long sucursalId,
+        Long franquiciaId,
+        Integer umbral
+) {
+    /** Cruce hacia abajo: antes estaba en o sobre el umbral y ahora queda por debajo. */
+    public boolean cruzaHaciaAbajo(Integer stockAnterior, Integer stock) {
+        return umbral != null && stockAnterior != null && stock != null
+                && stockAnterior >= umbral && stock < umbral;
+    }
+}
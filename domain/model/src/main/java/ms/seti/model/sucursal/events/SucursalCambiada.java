@@ -0,0 +1,11 @@
+package ms.seti.model.sucursal.events;
+
+import ms.seti.model.sucursal.Sucursal;
+
+/** Cambio confirmado sobre una sucursal (lo emite el adapter de persistencia tras la escritura). */
+public record SucursalCambiada(
+        Tipo tipo,
+        Sucursal sucursal
+) {
+    public enum Tipo { CREADA, ACTUALIZADA }
+}
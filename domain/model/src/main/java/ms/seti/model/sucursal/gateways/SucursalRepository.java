@@ -4,7 +4,6 @@ import ms.seti.model.sucursal.Sucursal;
 import reactor.core.publisher.Mono;
 
 public interface SucursalRepository {
-    Mono<Boolean> existsByFranquiciaIdAndNombre(Long franquiciaId, String nombre);
     Mono<Sucursal> create(Sucursal sucursal);
     Mono<Sucursal> findById(Long id);
     Mono<Sucursal> updateNombre(Long id, String nuevoNombre);
@@ -5,17 +5,17 @@ import ms.seti.model.producto.Producto;
 import ms.seti.model.producto.gateways.ProductoRepository;
 import reactor.core.publisher.Mono;
 
-import java.util.NoSuchElementException;
-
 import static ms.seti.usecase.support.Validations.normalizeNombre;
 
 /**
  * Actualiza el nombre de un producto.
  * Flujo:
  *  1) Normaliza/valida nombre.
- *  2) Obtiene el producto (404 si no existe).
- *  3) Si el nombre no cambia, retorna el actual (idempotente).
- *  4) Verifica unicidad por (sucursal_id, nombre) y persiste.
+ *  2) Renombra en una sola sentencia (condicional a la versión si viene If-Match); el repositorio emite:
+ *     - NoSuchElementException si el producto no existe (404).
+ *     - IllegalStateException si el nombre ya existe en la sucursal (uq_producto_por_sucursal, 409).
+ *     - ConcurrentModificationException si la versión no coincide (412).
+ *  Renombrar con el mismo nombre es idempotente (no cambia la versión).
  */
 @RequiredArgsConstructor
 public class ActualizarNombreProductoUseCase {
@@ -23,26 +23,13 @@ public class ActualizarNombreProductoUseCase {
     private final ProductoRepository productoRepository;
 
     public Mono<Producto> execute(Long productoId, String nuevoNombre) {
-        return normalizeNombre(nuevoNombre) // valida primero (evita ir a BD si es inválido)
-                .flatMap(nombreNormalizado ->
-                        productoRepository.findById(productoId)
-                                .switchIfEmpty(Mono.error(new NoSuchElementException("Producto no encontrado")))
-                                .flatMap(actual -> {
-                                    if (nombreNormalizado.equals(actual.nombre())) {
-                                        return Mono.just(actual); // idempotente
-                                    }
-                                    return ensureUnique(actual.sucursalId(), nombreNormalizado)
-                                            // Lazy: no preparar el update si unicidad falla;
-                                            .then(Mono.defer(() -> productoRepository.updateNombre(productoId, nombreNormalizado)));
-                                })
-                );
+        return execute(productoId, nuevoNombre, null);
     }
 
-    private Mono<Void> ensureUnique(Long sucursalId, String nombre) {
-        return productoRepository.existsBySucursalIdAndNombre(sucursalId, nombre)
-                .defaultIfEmpty(false)
-                .flatMap(exists -> Boolean.TRUE.equals(exists)
-                        ? Mono.error(new IllegalStateException("El producto ya existe para esta sucursal"))
-                        : Mono.empty());
+    public Mono<Producto> execute(Long productoId, String nuevoNombre, Long versionEsperada) {
+        return normalizeNombre(nuevoNombre) // valida primero (evita ir a BD si es inválido)
+                .flatMap(nombreNormalizado -> versionEsperada == null
+                        ? productoRepository.updateNombre(productoId, nombreNormalizado)
+                        : productoRepository.updateNombre(productoId, nombreNormalizado, versionEsperada));
     }
 }
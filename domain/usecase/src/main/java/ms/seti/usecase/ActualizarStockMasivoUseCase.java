@@ -0,0 +1,99 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.producto.ActualizacionStock;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.ResultadoActualizacionStock;
+import ms.seti.model.producto.ResultadoActualizacionStock.Estado;
+import ms.seti.model.producto.gateways.AlertaStockBajoPublisher;
+import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static ms.seti.usecase.support.VigilanciaStockBajo.vigilar;
+
+/**
+ * Caso de uso: Actualizar el stock de muchos productos (sincronización de inventario).
+ * Flujo:
+ *  1) Agrupa los items en lotes de TAMANO_LOTE a medida que llegan.
+ *  2) Valida cada item (id > 0, stock >= 0; stock null -> 0). Si un id se repite en el lote, gana el último.
+ *  3) Aplica cada lote con una sola sentencia set-based; los lotes se ejecutan en serie.
+ *     La operación no es atómica: cada lote se confirma por separado. Si un lote falla, sus items se informan
+ *     como FALLIDO y se continúa con los siguientes (los anteriores ya están confirmados como ACTUALIZADO).
+ *  4) Vigilancia de stock bajo (VigilanciaStockBajo) por cada producto actualizado.
+ *  5) Emite un resultado por producto: ACTUALIZADO, NO_ENCONTRADO, INVALIDO o FALLIDO.
+ */
+@RequiredArgsConstructor
+public class ActualizarStockMasivoUseCase {
+    public static final int TAMANO_LOTE = 1_000;
+
+    private final ProductoRepository productoRepository;
+    private final UmbralStockRepository umbralStockRepository;
+    private final AlertaStockBajoPublisher alertaStockBajoPublisher;
+
+    public Flux<ResultadoActualizacionStock> execute(Flux<ActualizacionStock> actualizaciones) {
+        return actualizaciones
+                .buffer(TAMANO_LOTE)
+                .concatMap(this::procesarLote);
+    }
+
+    private Flux<ResultadoActualizacionStock> procesarLote(List<ActualizacionStock> lote) {
+        Map<Long, ActualizacionStock> validas = new LinkedHashMap<>();
+        List<ResultadoActualizacionStock> invalidas = new ArrayList<>();
+        for (ActualizacionStock item : lote) {
+            String motivo = motivoInvalido(item);
+            if (motivo != null) {
+                invalidas.add(resultado(item, Estado.INVALIDO, motivo));
+            } else {
+                int stock = item.stock() == null ? 0 : item.stock();
+                validas.put(item.productoId(), item.toBuilder().stock(stock).build());
+            }
+        }
+        if (validas.isEmpty()) {
+            return Flux.fromIterable(invalidas);
+        }
+        return productoRepository.updateStockBatch(List.copyOf(validas.values()))
+                .concatMap(actualizado -> vigilar(actualizado, umbralStockRepository, alertaStockBajoPublisher))
+                .map(Producto::id)
+                .collect(Collectors.toSet())
+                .flatMapMany(actualizados -> Flux.concat(
+                        Flux.fromIterable(invalidas),
+                        Flux.fromIterable(validas.values()).map(item -> resultadoLote(item, actualizados))))
+                .onErrorResume(e -> Flux.concat(
+                        Flux.fromIterable(invalidas),
+                        Flux.fromIterable(validas.values())
+                                .map(item -> resultado(item, Estado.FALLIDO, "No se pudo aplicar el lote; reintentar"))));
+    }
+
+    private static ResultadoActualizacionStock resultadoLote(ActualizacionStock item, Set<Long> actualizados) {
+        return actualizados.contains(item.productoId())
+                ? resultado(item, Estado.ACTUALIZADO, null)
+                : resultado(item, Estado.NO_ENCONTRADO, "Producto no encontrado");
+    }
+
+    private static String motivoInvalido(ActualizacionStock item) {
+        if (item.productoId() == null || item.productoId() <= 0) {
+            return "productoId debe ser > 0";
+        }
+        if (item.stock() != null && item.stock() < 0) {
+            return "El stock no puede ser negativo";
+        }
+        return null;
+    }
+
+    private static ResultadoActualizacionStock resultado(ActualizacionStock item, Estado estado, String detalle) {
+        return ResultadoActualizacionStock.builder()
+                .productoId(item.productoId())
+                .stock(item.stock())
+                .estado(estado)
+                .detalle(detalle)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.gateways.ProductoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.NoSuchElementException;
+
+import static ms.seti.usecase.support.Validations.normalizeTextoBusqueda;
+import static ms.seti.usecase.support.Validations.validateLimite;
+
+/**
+ * Caso de uso: buscar productos en todas las sucursales de una franquicia por nombre parcial o aproximado.
+ * Reglas: q con al menos LONGITUD_MINIMA caracteres (con menos no hay trigramas que acoten la búsqueda);
+ * limite entre 1 y LIMITE_MAXIMO; 404 si la franquicia no existe.
+ */
+@RequiredArgsConstructor
+public class BuscarProductosFranquiciaUseCase {
+    public static final int LONGITUD_MINIMA = 3;
+    public static final int LIMITE_MAXIMO = 50;
+
+    private final FranquiciaRepository franquiciaRepository;
+    private final ProductoRepository productoRepository;
+
+    public Flux<Producto> execute(Long franquiciaId, String q, int limite) {
+        return normalizeTextoBusqueda(q, LONGITUD_MINIMA)
+                .zipWith(validateLimite(limite, LIMITE_MAXIMO))
+                .flatMapMany(t -> franquiciaRepository.findById(franquiciaId)
+                        .switchIfEmpty(Mono.error(new NoSuchElementException("Franquicia no encontrada")))
+                        .flatMapMany(f -> productoRepository.searchByFranquiciaId(franquiciaId, t.getT1(), t.getT2())));
+    }
+}
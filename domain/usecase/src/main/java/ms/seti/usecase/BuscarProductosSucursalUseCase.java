@@ -0,0 +1,33 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.sucursal.gateways.SucursalRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.NoSuchElementException;
+
+import static ms.seti.usecase.support.Validations.normalizeTextoBusqueda;
+import static ms.seti.usecase.support.Validations.validateLimite;
+
+/**
+ * Caso de uso: buscar productos de una sucursal por nombre parcial o aproximado.
+ * Reglas: q requerido; limite entre 1 y LIMITE_MAXIMO; 404 si la sucursal no existe.
+ */
+@RequiredArgsConstructor
+public class BuscarProductosSucursalUseCase {
+    public static final int LIMITE_MAXIMO = 50;
+
+    private final SucursalRepository sucursalRepository;
+    private final ProductoRepository productoRepository;
+
+    public Flux<Producto> execute(Long sucursalId, String q, int limite) {
+        return normalizeTextoBusqueda(q, 1)
+                .zipWith(validateLimite(limite, LIMITE_MAXIMO))
+                .flatMapMany(t -> sucursalRepository.findById(sucursalId)
+                        .switchIfEmpty(Mono.error(new NoSuchElementException("Sucursal no encontrada")))
+                        .flatMapMany(s -> productoRepository.searchBySucursalId(sucursalId, t.getT1(), t.getT2())));
+    }
+}
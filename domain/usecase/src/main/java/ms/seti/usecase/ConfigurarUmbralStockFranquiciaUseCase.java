@@ -0,0 +1,22 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import reactor.core.publisher.Mono;
+
+import static ms.seti.usecase.support.Validations.validateUmbralStock;
+
+/**
+ * Caso de uso: fijar o quitar (null) el umbral de stock bajo por defecto de una franquicia.
+ * Aplica a las sucursales sin umbral propio.
+ * El repositorio emite NoSuchElementException si la franquicia no existe (404).
+ */
+@RequiredArgsConstructor
+public class ConfigurarUmbralStockFranquiciaUseCase {
+    private final UmbralStockRepository umbralStockRepository;
+
+    public Mono<Void> execute(Long franquiciaId, Integer umbral) {
+        return validateUmbralStock(umbral)
+                .then(Mono.defer(() -> umbralStockRepository.updateUmbralFranquicia(franquiciaId, umbral)));
+    }
+}
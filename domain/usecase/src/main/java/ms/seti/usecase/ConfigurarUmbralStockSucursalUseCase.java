@@ -0,0 +1,23 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import ms.seti.model.producto.projections.UmbralStock;
+import reactor.core.publisher.Mono;
+
+import static ms.seti.usecase.support.Validations.validateUmbralStock;
+
+/**
+ * Caso de uso: fijar o quitar (null) el umbral de stock bajo propio de una sucursal.
+ * Tiene prioridad sobre el de la franquicia; devuelve el umbral vigente resultante.
+ * El repositorio emite NoSuchElementException si la sucursal no existe (404).
+ */
+@RequiredArgsConstructor
+public class ConfigurarUmbralStockSucursalUseCase {
+    private final UmbralStockRepository umbralStockRepository;
+
+    public Mono<UmbralStock> execute(Long sucursalId, Integer umbral) {
+        return validateUmbralStock(umbral)
+                .then(Mono.defer(() -> umbralStockRepository.updateUmbralSucursal(sucursalId, umbral)));
+    }
+}
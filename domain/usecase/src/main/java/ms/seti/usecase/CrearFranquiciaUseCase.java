@@ -12,20 +12,12 @@ public class CrearFranquiciaUseCase {
     private final FranquiciaRepository repo;
 
     /**
-     * Crea una franquicia validando nombre no vacío y unicidad.
+     * Crea una franquicia validando nombre no vacío; la unicidad la resuelve uq_franquicia_nombre
+     * en la misma sentencia de inserción (IllegalStateException si ya existe, 409).
      */
     public Mono<Franquicia> execute(String nombre) {
         return normalizeNombre(nombre)
-                .flatMap(n -> ensureUnique(n).then(Mono.defer(() -> persist(n)))); //Construir publisher final perezosamente
-    }
-
-    /** Verifica que no exista otra franquicia con el mismo nombre. */
-    private Mono<Void> ensureUnique(String nombre) {
-        return repo.existsByNombre(nombre)
-                .defaultIfEmpty(false)
-                .flatMap(exists -> Boolean.TRUE.equals(exists)
-                        ? Mono.error(new IllegalStateException("La franquicia ya existe"))
-                        : Mono.empty());
+                .flatMap(this::persist);
     }
 
     /** Inserta la franquicia (sin updates). */
@@ -33,4 +25,4 @@ public class CrearFranquiciaUseCase {
         var franquicia = Franquicia.builder().nombre(nombre).build(); // id null => create
         return repo.create(franquicia);
     }
-}
\ No newline at end of file
+}
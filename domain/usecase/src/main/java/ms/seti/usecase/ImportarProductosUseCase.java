@@ -0,0 +1,75 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.ResultadoImportacion;
+import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.sucursal.gateways.SucursalRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static ms.seti.usecase.support.Validations.LONGITUD_MAXIMA_NOMBRE;
+import static ms.seti.usecase.support.Validations.normalizeNombre;
+import static ms.seti.usecase.support.Validations.normalizeStock;
+
+/**
+ * Caso de uso: Importar el catálogo de una sucursal en streaming.
+ * Flujo:
+ *  1) Verifica una sola vez que la sucursal exista (404).
+ *  2) Consume los items a medida que llegan y los normaliza con las reglas de Validations;
+ *     los inválidos se cuentan y se descartan.
+ *  3) Inserta en lotes de TAMANO_LOTE (un INSERT multi-fila por lote), con LOTES_CONCURRENTES como máximo.
+ *  4) Acumula solo contadores: la memoria no depende del tamaño del archivo.
+ */
+@RequiredArgsConstructor
+public class ImportarProductosUseCase {
+    public static final int TAMANO_LOTE = 500;
+    public static final int LOTES_CONCURRENTES = 4;
+
+    private final ProductoRepository productoRepository;
+    private final SucursalRepository sucursalRepository;
+
+    public Mono<ResultadoImportacion> execute(Long sucursalId, Flux<Producto> productos) {
+        return ensureSucursalExists(sucursalId)
+                .thenMany(Flux.defer(() -> productos))
+                .concatMap(item -> normalize(sucursalId, item))
+                .buffer(TAMANO_LOTE)
+                .flatMap(lote -> persistLote(sucursalId, lote), LOTES_CONCURRENTES)
+                .reduce(ResultadoImportacion.VACIO, ResultadoImportacion::sumar);
+    }
+
+    private Mono<Void> ensureSucursalExists(Long sucursalId) {
+        return sucursalRepository.findById(sucursalId)
+                .switchIfEmpty(Mono.error(new NoSuchElementException("Sucursal no encontrada")))
+                .then();
+    }
+
+    /** Optional vacío = item inválido (no se corta la importación por un item). */
+    private Mono<Optional<Producto>> normalize(Long sucursalId, Producto item) {
+        return normalizeNombre(item.nombre())
+                .filter(nombre -> nombre.length() <= LONGITUD_MAXIMA_NOMBRE)
+                .zipWith(normalizeStock(item.stock()))
+                .map(tuple -> Optional.of(Producto.builder()
+                        .sucursalId(sucursalId)
+                        .nombre(tuple.getT1())
+                        .stock(tuple.getT2())
+                        .build()))
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(Optional.empty()));
+    }
+
+    private Mono<ResultadoImportacion> persistLote(Long sucursalId, List<Optional<Producto>> lote) {
+        List<Producto> validos = lote.stream().flatMap(Optional::stream).toList();
+        long invalidos = (long) lote.size() - validos.size();
+        if (validos.isEmpty()) {
+            return Mono.just(new ResultadoImportacion(0, 0, invalidos));
+        }
+        return productoRepository.createBatch(sucursalId, validos)
+                .count()
+                .map(creados -> new ResultadoImportacion(creados, validos.size() - creados, invalidos));
+    }
+}
@@ -0,0 +1,32 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.NoSuchElementException;
+
+import static ms.seti.usecase.support.Validations.validateLimite;
+
+/**
+ * Caso de uso: productos de una franquicia actualmente bajo su umbral de stock, de menor a mayor stock.
+ * Lee solo el índice parcial de productos en stock bajo (no recorre todos los productos).
+ * Reglas: limite entre 1 y LIMITE_MAXIMO; 404 si la franquicia no existe.
+ */
+@RequiredArgsConstructor
+public class ListarProductosStockBajoUseCase {
+    public static final int LIMITE_MAXIMO = 500;
+
+    private final FranquiciaRepository franquiciaRepository;
+    private final UmbralStockRepository umbralStockRepository;
+
+    public Flux<Producto> execute(Long franquiciaId, int limite) {
+        return validateLimite(limite, LIMITE_MAXIMO)
+                .flatMapMany(limiteValido -> franquiciaRepository.findById(franquiciaId)
+                        .switchIfEmpty(Mono.error(new NoSuchElementException("Franquicia no encontrada")))
+                        .flatMapMany(f -> umbralStockRepository.findStockBajoByFranquiciaId(franquiciaId, limiteValido)));
+    }
+}
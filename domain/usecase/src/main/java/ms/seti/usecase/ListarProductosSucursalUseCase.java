@@ -0,0 +1,39 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.producto.OrdenProductos;
+import ms.seti.model.producto.PaginaProductos;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.sucursal.gateways.SucursalRepository;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Caso de uso: listar los productos de una sucursal por páginas (keyset).
+ * Reglas: 404 si la sucursal no existe; limite entre 1 y LIMITE_MAXIMO.
+ * Se pide un producto de más para saber si hay página siguiente sin contar filas.
+ */
+@RequiredArgsConstructor
+public class ListarProductosSucursalUseCase {
+    public static final int LIMITE_MAXIMO = 200;
+
+    private final SucursalRepository sucursalRepository;
+    private final ProductoRepository productoRepository;
+
+    public Mono<PaginaProductos> execute(Long sucursalId, OrdenProductos orden, Producto despuesDe, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            return Mono.error(new IllegalArgumentException("limite debe estar entre 1 y " + LIMITE_MAXIMO));
+        }
+        OrdenProductos ordenEfectivo = orden == null ? OrdenProductos.NOMBRE : orden;
+        return sucursalRepository.findById(sucursalId)
+                .switchIfEmpty(Mono.error(new NoSuchElementException("Sucursal no encontrada")))
+                .flatMap(s -> productoRepository.findBySucursalId(sucursalId, ordenEfectivo, despuesDe, limite + 1)
+                        .collectList())
+                .map(productos -> productos.size() > limite
+                        ? new PaginaProductos(List.copyOf(productos.subList(0, limite)), true)
+                        : new PaginaProductos(productos, false));
+    }
+}
@@ -2,33 +2,47 @@ package ms.seti.usecase;
 
 import lombok.RequiredArgsConstructor;
 import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.gateways.AlertaStockBajoPublisher;
 import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
 import reactor.core.publisher.Mono;
 
-import java.util.NoSuchElementException;
-
 import static ms.seti.usecase.support.Validations.normalizeStock;
+import static ms.seti.usecase.support.VigilanciaStockBajo.vigilar;
 
 /**
  * Caso de uso: Modificar el stock de un producto.
  * Flujo:
  *  1) Normaliza/valida stock (>= 0).
- *  2) Verifica que el producto exista.
- *  3) Persiste el nuevo stock (update-only).
+ *  2) Persiste el nuevo stock (update-only) en una sola sentencia;
+ *     el repositorio emite NoSuchElementException si el producto no existe (404).
+ *  3) Con versión esperada (If-Match) la escritura es condicional:
+ *     ConcurrentModificationException (412) si el producto cambió.
+ *  4) Vigilancia de stock bajo (VigilanciaStockBajo): si el stock cruzó el umbral de la sucursal
+ *     hacia abajo, se publica una AlertaStockBajo.
  */
 @RequiredArgsConstructor
 public class ModificarStockProductoUseCase {
     private final ProductoRepository productoRepository;
+    private final UmbralStockRepository umbralStockRepository;
+    private final AlertaStockBajoPublisher alertaStockBajoPublisher;
 
     public Mono<Producto> execute(Long productoId, Integer nuevoStock) {
         return normalizeStock(nuevoStock)
-                .flatMap(stockNormalizado -> ensureProductoExists(productoId)
-                        .then(Mono.defer(() -> productoRepository.updateStock(productoId, stockNormalizado))));
+                .flatMap(stockNormalizado -> productoRepository.updateStock(productoId, stockNormalizado))
+                .flatMap(this::vigilarUmbral);
+    }
+
+    public Mono<Producto> execute(Long productoId, Integer nuevoStock, Long versionEsperada) {
+        if (versionEsperada == null) {
+            return execute(productoId, nuevoStock);
+        }
+        return normalizeStock(nuevoStock)
+                .flatMap(stockNormalizado -> productoRepository.updateStock(productoId, stockNormalizado, versionEsperada))
+                .flatMap(this::vigilarUmbral);
     }
 
-    private Mono<Void> ensureProductoExists(Long productoId) {
-        return productoRepository.findById(productoId)
-                .switchIfEmpty(Mono.error(new NoSuchElementException("Producto no encontrado")))
-                .then();
+    private Mono<Producto> vigilarUmbral(Producto actualizado) {
+        return vigilar(actualizado, umbralStockRepository, alertaStockBajoPublisher);
     }
 }
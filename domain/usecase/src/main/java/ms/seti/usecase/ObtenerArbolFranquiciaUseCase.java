@@ -0,0 +1,22 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.franquicia.gateways.ArbolFranquiciaQueryRepository;
+import reactor.core.publisher.Mono;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Caso de uso: árbol completo de una franquicia (sucursales y productos) en una sola consulta.
+ * El documento llega serializado desde la base de datos y se entrega tal cual: no se materializan
+ * Franquicia / Sucursal / Producto por cada fila. 404 si la franquicia no existe.
+ */
+@RequiredArgsConstructor
+public class ObtenerArbolFranquiciaUseCase {
+    private final ArbolFranquiciaQueryRepository arbolRepository;
+
+    public Mono<byte[]> execute(Long franquiciaId) {
+        return arbolRepository.findJsonByFranquiciaId(franquiciaId)
+                .switchIfEmpty(Mono.error(new NoSuchElementException("Franquicia no encontrada")));
+    }
+}
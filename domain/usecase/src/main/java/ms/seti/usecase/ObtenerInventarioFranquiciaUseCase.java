@@ -0,0 +1,35 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.model.franquicia.gateways.InventarioQueryRepository;
+import ms.seti.model.franquicia.projections.InventarioFranquicia;
+import ms.seti.model.franquicia.projections.InventarioSucursal;
+import reactor.core.publisher.Mono;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Caso de uso: inventario de una franquicia (cantidad de productos y stock total, por sucursal y en total).
+ * Los totales de la franquicia se suman sobre las filas por sucursal: O(sucursales), nunca O(productos).
+ */
+@RequiredArgsConstructor
+public class ObtenerInventarioFranquiciaUseCase {
+    private final FranquiciaRepository franquiciaRepository;
+    private final InventarioQueryRepository inventarioRepository;
+
+    public Mono<InventarioFranquicia> execute(Long franquiciaId) {
+        // Verifica que la franquicia exista (404 si no)
+        return franquiciaRepository.findById(franquiciaId)
+                .switchIfEmpty(Mono.error(new NoSuchElementException("Franquicia no encontrada")))
+                .flatMap(franquicia -> inventarioRepository.findByFranquiciaId(franquiciaId)
+                        .collectList()
+                        .map(sucursales -> InventarioFranquicia.builder()
+                                .franquiciaId(franquicia.id())
+                                .franquiciaNombre(franquicia.nombre())
+                                .productos(sucursales.stream().mapToLong(InventarioSucursal::productos).sum())
+                                .stockTotal(sucursales.stream().mapToLong(InventarioSucursal::stockTotal).sum())
+                                .sucursales(sucursales)
+                                .build()));
+    }
+}
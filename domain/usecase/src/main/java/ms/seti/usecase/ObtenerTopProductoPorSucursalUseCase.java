@@ -11,18 +11,30 @@ import java.util.NoSuchElementException;
 
 /**
  * Caso de uso: obtener, para cada sucursal de una franquicia,
- * el producto con mayor stock (1 por sucursal),
- * recupera de una vista de base de datos que desempata por nombre
+ * los n productos con mayor stock (1 por defecto, como máximo N_MAXIMO),
+ * desempatando por nombre.
  */
 @RequiredArgsConstructor
 public class ObtenerTopProductoPorSucursalUseCase {
+    public static final int N_MAXIMO = 20;
+
     private final FranquiciaRepository franquiciaRepository;
     private final ProductoTopPorSucursalQueryRepository queryRepository;
 
     public Flux<ProductoTopPorSucursal> execute(Long franquiciaId) {
+        return execute(franquiciaId, 1);
+    }
+
+    public Flux<ProductoTopPorSucursal> execute(Long franquiciaId, int n) {
+        if (n < 1 || n > N_MAXIMO) {
+            return Flux.error(new IllegalArgumentException("n debe estar entre 1 y " + N_MAXIMO));
+        }
         // Verifica que la franquicia exista (404 si no)
         return franquiciaRepository.findById(franquiciaId)
                 .switchIfEmpty(Mono.error(new NoSuchElementException("Franquicia no encontrada")))
-                .flatMapMany(f -> queryRepository.findByFranquiciaId(franquiciaId));
+                // n = 1 conserva el camino de la proyección (una fila por sucursal ya calculada)
+                .flatMapMany(f -> n == 1
+                        ? queryRepository.findByFranquiciaId(franquiciaId)
+                        : queryRepository.findByFranquiciaId(franquiciaId, n));
     }
 }
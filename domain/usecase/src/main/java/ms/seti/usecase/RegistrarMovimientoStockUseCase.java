@@ -0,0 +1,32 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.gateways.AlertaStockBajoPublisher;
+import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import reactor.core.publisher.Mono;
+
+import static ms.seti.usecase.support.Validations.normalizeCantidadMovimiento;
+import static ms.seti.usecase.support.VigilanciaStockBajo.vigilar;
+
+/**
+ * Caso de uso: Registrar un movimiento relativo de stock (venta o recepción).
+ * Flujo:
+ *  1) Valida la cantidad (requerida, distinta de cero; negativa = salida).
+ *  2) Aplica stock = stock + cantidad en una sola sentencia condicional, sin lectura previa.
+ *     404 si el producto no existe; 409 si el movimiento dejaría el stock en negativo.
+ *  3) Vigilancia de stock bajo (VigilanciaStockBajo): una salida que cruza el umbral publica una AlertaStockBajo.
+ */
+@RequiredArgsConstructor
+public class RegistrarMovimientoStockUseCase {
+    private final ProductoRepository productoRepository;
+    private final UmbralStockRepository umbralStockRepository;
+    private final AlertaStockBajoPublisher alertaStockBajoPublisher;
+
+    public Mono<Producto> execute(Long productoId, Integer cantidad) {
+        return normalizeCantidadMovimiento(cantidad)
+                .flatMap(delta -> productoRepository.adjustStock(productoId, delta))
+                .flatMap(actualizado -> vigilar(actualizado, umbralStockRepository, alertaStockBajoPublisher));
+    }
+}
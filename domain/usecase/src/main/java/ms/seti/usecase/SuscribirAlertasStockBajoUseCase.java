@@ -0,0 +1,26 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.model.producto.events.AlertaStockBajo;
+import ms.seti.model.producto.gateways.AlertasStockBajoFeed;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Caso de uso: seguir en vivo las alertas de stock bajo de una franquicia (opcionalmente de una sola sucursal).
+ * 404 si la franquicia no existe; luego el flujo no termina mientras haya suscriptor.
+ */
+@RequiredArgsConstructor
+public class SuscribirAlertasStockBajoUseCase {
+    private final FranquiciaRepository franquiciaRepository;
+    private final AlertasStockBajoFeed alertasStockBajoFeed;
+
+    public Flux<AlertaStockBajo> execute(Long franquiciaId, Long sucursalId) {
+        return franquiciaRepository.findById(franquiciaId)
+                .switchIfEmpty(Mono.error(new NoSuchElementException("Franquicia no encontrada")))
+                .flatMapMany(f -> alertasStockBajoFeed.suscribir(franquiciaId, sucursalId));
+    }
+}
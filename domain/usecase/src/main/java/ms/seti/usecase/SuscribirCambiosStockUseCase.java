@@ -0,0 +1,26 @@
+package ms.seti.usecase;
+
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.model.producto.events.CambioStock;
+import ms.seti.model.producto.gateways.CambiosStockFeed;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Caso de uso: seguir en vivo los cambios de stock de una franquicia (opcionalmente de una sola sucursal).
+ * Reemplaza el polling: 404 si la franquicia no existe; luego el flujo no termina mientras haya suscriptor.
+ */
+@RequiredArgsConstructor
+public class SuscribirCambiosStockUseCase {
+    private final FranquiciaRepository franquiciaRepository;
+    private final CambiosStockFeed cambiosStockFeed;
+
+    public Flux<CambioStock> execute(Long franquiciaId, Long sucursalId) {
+        return franquiciaRepository.findById(franquiciaId)
+                .switchIfEmpty(Mono.error(new NoSuchElementException("Franquicia no encontrada")))
+                .flatMapMany(f -> cambiosStockFeed.suscribir(franquiciaId, sucursalId));
+    }
+}
@@ -6,6 +6,9 @@ import reactor.core.publisher.Mono;
  * Validaciones/normalizaciones reactivas reutilizables para casos de uso.
  */
 public class Validations {
+    /** Longitud de las columnas nombre (VARCHAR(120)). */
+    public static final int LONGITUD_MAXIMA_NOMBRE = 120;
+
     private Validations() {}
 
     /** Quita espacios y valida no vacío. */
@@ -24,4 +27,43 @@ public class Validations {
         }
         return Mono.just(seguro);
     }
+
+    /** Cantidad de un movimiento de stock: requerida y distinta de cero (signo = entrada/salida). */
+    public static Mono<Integer> normalizeCantidadMovimiento(Integer cantidad) {
+        if (cantidad == null) {
+            return Mono.error(new IllegalArgumentException("La cantidad del movimiento es requerida"));
+        }
+        if (cantidad == 0) {
+            return Mono.error(new IllegalArgumentException("La cantidad del movimiento no puede ser cero"));
+        }
+        return Mono.just(cantidad);
+    }
+
+    /** Texto de búsqueda: sin espacios en los extremos, con al menos minimo caracteres y a lo sumo LONGITUD_MAXIMA_NOMBRE. */
+    public static Mono<String> normalizeTextoBusqueda(String texto, int minimo) {
+        String normalizado = (texto == null) ? "" : texto.trim();
+        if (normalizado.length() < minimo) {
+            return Mono.error(new IllegalArgumentException("q debe tener al menos " + minimo + " caracteres"));
+        }
+        if (normalizado.length() > LONGITUD_MAXIMA_NOMBRE) {
+            return Mono.error(new IllegalArgumentException("q no puede superar " + LONGITUD_MAXIMA_NOMBRE + " caracteres"));
+        }
+        return Mono.just(normalizado);
+    }
+
+    /** Límite de resultados entre 1 y maximo. */
+    public static Mono<Integer> validateLimite(int limite, int maximo) {
+        if (limite < 1 || limite > maximo) {
+            return Mono.error(new IllegalArgumentException("limite debe estar entre 1 y " + maximo));
+        }
+        return Mono.just(limite);
+    }
+
+    /** Umbral de stock bajo: null lo quita; si viene, debe ser >= 1 (con 0 ningún stock quedaría por debajo). */
+    public static Mono<Void> validateUmbralStock(Integer umbral) {
+        if (umbral != null && umbral < 1) {
+            return Mono.error(new IllegalArgumentException("El umbral de stock debe ser mayor que cero"));
+        }
+        return Mono.empty();
+    }
 }
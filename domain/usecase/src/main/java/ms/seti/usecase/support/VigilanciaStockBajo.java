@@ -0,0 +1,46 @@
+package ms.seti.usecase.support;
+
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.events.AlertaStockBajo;
+import ms.seti.model.producto.gateways.AlertaStockBajoPublisher;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import ms.seti.model.producto.projections.UmbralStock;
+import reactor.core.publisher.Mono;
+
+/**
+ * Vigilancia de stock bajo común a toda escritura de stock (absoluta, movimiento o masiva).
+ * La escritura devuelve el stock previo; si el stock bajó, se compara contra el umbral vigente de la sucursal
+ * y, si lo cruzó, se publica una AlertaStockBajo.
+ */
+public final class VigilanciaStockBajo {
+    private VigilanciaStockBajo() {
+    }
+
+    public static Mono<Producto> vigilar(Producto actualizado,
+                                         UmbralStockRepository umbralStockRepository,
+                                         AlertaStockBajoPublisher alertaStockBajoPublisher) {
+        // Si el stock no bajó no hay cruce posible: ni búsqueda de umbral ni publicación
+        if (actualizado.stockAnterior() == null || actualizado.stock() >= actualizado.stockAnterior()) {
+            return Mono.just(actualizado);
+        }
+        return umbralStockRepository.findBySucursalId(actualizado.sucursalId())
+                .filter(umbral -> umbral.cruzaHaciaAbajo(actualizado.stockAnterior(), actualizado.stock()))
+                .flatMap(umbral -> alertaStockBajoPublisher.publicar(toAlerta(umbral, actualizado)))
+                // La escritura ya está confirmada: un fallo al alertar no la convierte en error
+                .onErrorResume(e -> Mono.empty())
+                .thenReturn(actualizado);
+    }
+
+    private static AlertaStockBajo toAlerta(UmbralStock umbral, Producto producto) {
+        return AlertaStockBajo.builder()
+                .franquiciaId(umbral.franquiciaId())
+                .sucursalId(producto.sucursalId())
+                .productoId(producto.id())
+                .productoNombre(producto.nombre())
+                .stockAnterior(producto.stockAnterior())
+                .stock(producto.stock())
+                .umbral(umbral.umbral())
+                .version(producto.version())
+                .build();
+    }
+}
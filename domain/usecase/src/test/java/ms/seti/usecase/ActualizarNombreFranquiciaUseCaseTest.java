@@ -43,7 +43,8 @@ class ActualizarNombreFranquiciaUseCaseTest {
     @Test
     void franquicia_no_encontrada_lanzaNotFound() {
         Long id = 99L;
-        when(repo.findById(id)).thenReturn(Mono.empty());
+        when(repo.updateNombre(id, "Nuevo"))
+                .thenReturn(Mono.error(new NoSuchElementException("Franquicia no encontrada")));
 
         StepVerifier.create(useCase.execute(id, "Nuevo"))
                 .expectErrorSatisfies(ex -> assertThat(ex)
@@ -51,7 +52,7 @@ class ActualizarNombreFranquiciaUseCaseTest {
                         .hasMessage("Franquicia no encontrada"))
                 .verify();
 
-        verify(repo).findById(id);
+        verify(repo).updateNombre(id, "Nuevo");
         verifyNoMoreInteractions(repo);
     }
 
@@ -60,53 +61,41 @@ class ActualizarNombreFranquiciaUseCaseTest {
         Long id = 7L;
         Franquicia actual = Franquicia.builder().id(id).nombre("Acme").build();
 
-        when(repo.findById(id)).thenReturn(Mono.just(actual));
+        // El mismo nombre no viola uq_franquicia_nombre: la sentencia devuelve la fila sin cambios
+        when(repo.updateNombre(id, "Acme")).thenReturn(Mono.just(actual));
 
         StepVerifier.create(useCase.execute(id, "  Acme "))
                 .expectNext(actual)
                 .verifyComplete();
 
-        verify(repo).findById(id);
-        verify(repo, never()).existsByNombre(anyString());
-        verify(repo, never()).updateNombre(anyLong(), anyString());
+        verify(repo, never()).findById(anyLong());
     }
 
     @Test
     void nombre_duplicado_lanzaConflict() {
         Long id = 5L;
-        Franquicia actual = Franquicia.builder().id(id).nombre("Viejo").build();
-
-        when(repo.findById(id)).thenReturn(Mono.just(actual));
-        when(repo.existsByNombre("Nuevo")).thenReturn(Mono.just(true));
+        when(repo.updateNombre(id, "Nuevo"))
+                .thenReturn(Mono.error(new IllegalStateException("La franquicia ya existe")));
 
         StepVerifier.create(useCase.execute(id, "Nuevo"))
                 .expectErrorSatisfies(ex -> assertThat(ex)
                         .isInstanceOf(IllegalStateException.class)
                         .hasMessage("La franquicia ya existe"))
                 .verify();
-
-        verify(repo).findById(id);
-        verify(repo).existsByNombre("Nuevo");
-        verify(repo, never()).updateNombre(anyLong(), anyString());
     }
 
     @Test
-    void camino_feliz_actualiza_nombre() {
+    void camino_feliz_actualiza_nombre_en_un_round_trip() {
         Long id = 11L;
-        Franquicia actual = Franquicia.builder().id(id).nombre("Old").build();
-        Franquicia actualizado = actual.toBuilder().nombre("New").build();
+        Franquicia actualizado = Franquicia.builder().id(id).nombre("New").build();
 
-        when(repo.findById(id)).thenReturn(Mono.just(actual));
-        // defaultIfEmpty(false) → si no hay valor, se interpreta como false (no existe duplicado)
-        when(repo.existsByNombre("New")).thenReturn(Mono.empty());
         when(repo.updateNombre(id, "New")).thenReturn(Mono.just(actualizado));
 
         StepVerifier.create(useCase.execute(id, "  New "))
                 .expectNext(actualizado)
                 .verifyComplete();
 
-        verify(repo).findById(id);
-        verify(repo).existsByNombre("New");
         verify(repo).updateNombre(id, "New");
+        verifyNoMoreInteractions(repo);
     }
 }
@@ -9,6 +9,7 @@ import org.mockito.*;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.ConcurrentModificationException;
 import java.util.NoSuchElementException;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -43,7 +44,8 @@ class ActualizarNombreProductoUseCaseTest {
     @Test
     void producto_no_encontrado_lanzaNotFound() {
         Long productoId = 99L;
-        when(productoRepository.findById(productoId)).thenReturn(Mono.empty());
+        when(productoRepository.updateNombre(productoId, "Nuevo"))
+                .thenReturn(Mono.error(new NoSuchElementException("Producto no encontrado")));
 
         StepVerifier.create(useCase.execute(productoId, "Nuevo"))
                 .expectErrorSatisfies(ex -> assertThat(ex)
@@ -51,7 +53,7 @@ class ActualizarNombreProductoUseCaseTest {
                         .hasMessage("Producto no encontrado"))
                 .verify();
 
-        verify(productoRepository).findById(productoId);
+        verify(productoRepository).updateNombre(productoId, "Nuevo");
         verifyNoMoreInteractions(productoRepository);
     }
 
@@ -59,58 +61,73 @@ class ActualizarNombreProductoUseCaseTest {
     void idempotente_cuando_nombre_igual() {
         Long productoId = 7L;
         Producto actual = Producto.builder()
-                .id(productoId).sucursalId(5L).nombre("Pan").stock(1).build();
+                .id(productoId).sucursalId(5L).nombre("Pan").stock(1).version(2L).build();
 
-        when(productoRepository.findById(productoId)).thenReturn(Mono.just(actual));
+        // Mismo nombre: la sentencia devuelve la fila sin cambiar la versión
+        when(productoRepository.updateNombre(productoId, "Pan")).thenReturn(Mono.just(actual));
 
         StepVerifier.create(useCase.execute(productoId, "  Pan "))
                 .expectNext(actual)
                 .verifyComplete();
 
-        verify(productoRepository).findById(productoId);
-        verify(productoRepository, never()).existsBySucursalIdAndNombre(anyLong(), anyString());
-        verify(productoRepository, never()).updateNombre(anyLong(), anyString());
+        verify(productoRepository, never()).findById(anyLong());
     }
 
     @Test
     void nombre_duplicado_en_sucursal_lanzaConflict() {
         Long productoId = 11L;
-        Producto actual = Producto.builder()
-                .id(productoId).sucursalId(3L).nombre("Cola").stock(2).build();
-
-        when(productoRepository.findById(productoId)).thenReturn(Mono.just(actual));
-        when(productoRepository.existsBySucursalIdAndNombre(3L, "Pepsi")).thenReturn(Mono.just(true));
+        when(productoRepository.updateNombre(productoId, "Pepsi"))
+                .thenReturn(Mono.error(new IllegalStateException("El producto ya existe para esta sucursal")));
 
         StepVerifier.create(useCase.execute(productoId, "Pepsi"))
                 .expectErrorSatisfies(ex -> assertThat(ex)
                         .isInstanceOf(IllegalStateException.class)
                         .hasMessage("El producto ya existe para esta sucursal"))
                 .verify();
-
-        verify(productoRepository).findById(productoId);
-        verify(productoRepository).existsBySucursalIdAndNombre(3L, "Pepsi");
-        verify(productoRepository, never()).updateNombre(anyLong(), anyString());
     }
 
     @Test
     void camino_feliz_actualiza_nombre() {
         Long productoId = 21L;
-        Long sucursalId = 8L;
-        Producto actual = Producto.builder()
-                .id(productoId).sucursalId(sucursalId).nombre("Viejo").stock(3).build();
-        Producto actualizado = actual.toBuilder().nombre("Nuevo").build();
+        Producto actualizado = Producto.builder()
+                .id(productoId).sucursalId(8L).nombre("Nuevo").stock(3).build();
 
-        when(productoRepository.findById(productoId)).thenReturn(Mono.just(actual));
-        // defaultIfEmpty(false) → si no hay valor, se interpreta como false (no existe duplicado)
-        when(productoRepository.existsBySucursalIdAndNombre(sucursalId, "Nuevo")).thenReturn(Mono.empty());
         when(productoRepository.updateNombre(productoId, "Nuevo")).thenReturn(Mono.just(actualizado));
 
         StepVerifier.create(useCase.execute(productoId, "  Nuevo "))
                 .expectNext(actualizado)
                 .verifyComplete();
 
-        verify(productoRepository).findById(productoId);
-        verify(productoRepository).existsBySucursalIdAndNombre(sucursalId, "Nuevo");
         verify(productoRepository).updateNombre(productoId, "Nuevo");
+        verifyNoMoreInteractions(productoRepository);
+    }
+
+    @Test
+    void if_match_version_distinta_lanzaPreconditionFailed() {
+        Long productoId = 31L;
+        when(productoRepository.updateNombre(productoId, "Nuevo", 3L))
+                .thenReturn(Mono.error(new ConcurrentModificationException("El producto fue modificado por otra operación")));
+
+        StepVerifier.create(useCase.execute(productoId, "Nuevo", 3L))
+                .expectError(ConcurrentModificationException.class)
+                .verify();
+
+        verify(productoRepository, never()).updateNombre(anyLong(), anyString());
+    }
+
+    @Test
+    void if_match_version_igual_actualiza_condicional() {
+        Long productoId = 32L;
+        Producto actualizado = Producto.builder()
+                .id(productoId).sucursalId(8L).nombre("Nuevo").stock(3).version(5L).build();
+
+        when(productoRepository.updateNombre(productoId, "Nuevo", 4L)).thenReturn(Mono.just(actualizado));
+
+        StepVerifier.create(useCase.execute(productoId, "Nuevo", 4L))
+                .expectNext(actualizado)
+                .verifyComplete();
+
+        verify(productoRepository, never()).findById(anyLong());
+        verify(productoRepository, never()).updateNombre(anyLong(), anyString());
     }
 }
@@ -51,7 +51,8 @@ class ActualizarNombreSucursalUseCaseTest {
     @Test
     void sucursal_no_encontrada_lanzaNotFound() {
         Long sucursalId = 999L;
-        when(sucursalRepository.findById(sucursalId)).thenReturn(Mono.empty());
+        when(sucursalRepository.updateNombre(sucursalId, "Nueva"))
+                .thenReturn(Mono.error(new NoSuchElementException("Sucursal no encontrada")));
 
         StepVerifier.create(useCase.execute(sucursalId, "Nueva"))
                 .expectErrorSatisfies(ex -> assertThat(ex)
@@ -59,62 +60,46 @@ class ActualizarNombreSucursalUseCaseTest {
                         .hasMessage("Sucursal no encontrada"))
                 .verify();
 
-        verify(sucursalRepository).findById(sucursalId);
+        verify(sucursalRepository).updateNombre(sucursalId, "Nueva");
         verifyNoMoreInteractions(sucursalRepository);
     }
 
     @Test
-    void idempotente_mismo_nombre_devuelve_actual_sin_actualizar() {
+    void idempotente_mismo_nombre_devuelve_actual() {
         Long sucursalId = 7L;
         Sucursal actual = Sucursal.builder()
                 .id(sucursalId).franquiciaId(1L).nombre("Alpha").build();
 
-        when(sucursalRepository.findById(sucursalId)).thenReturn(Mono.just(actual));
+        when(sucursalRepository.updateNombre(sucursalId, "Alpha")).thenReturn(Mono.just(actual));
 
         StepVerifier.create(useCase.execute(sucursalId, "  Alpha  "))
                 .expectNext(actual)
                 .verifyComplete();
 
-        verify(sucursalRepository).findById(sucursalId);
-        verify(sucursalRepository, never()).existsByFranquiciaIdAndNombre(anyLong(), anyString());
-        verify(sucursalRepository, never()).updateNombre(anyLong(), anyString());
+        verify(sucursalRepository, never()).findById(anyLong());
     }
 
     @Test
     void nombre_duplicado_en_franquicia_lanzaConflict() {
         Long sucursalId = 5L;
-        Sucursal actual = Sucursal.builder()
-                .id(sucursalId).franquiciaId(22L).nombre("Old").build();
-
-        when(sucursalRepository.findById(sucursalId)).thenReturn(Mono.just(actual));
-        when(sucursalRepository.existsByFranquiciaIdAndNombre(22L, "Nuevo"))
-                .thenReturn(Mono.just(true));
+        when(sucursalRepository.updateNombre(sucursalId, "Nuevo"))
+                .thenReturn(Mono.error(new IllegalStateException("El nombre de la sucursal ya existe para esta franquicia")));
 
         StepVerifier.create(useCase.execute(sucursalId, "Nuevo"))
                 .expectErrorSatisfies(ex -> assertThat(ex)
                         .isInstanceOf(IllegalStateException.class)
                         .hasMessage("El nombre de la sucursal ya existe para esta franquicia"))
                 .verify();
-
-        verify(sucursalRepository).findById(sucursalId);
-        verify(sucursalRepository).existsByFranquiciaIdAndNombre(22L, "Nuevo");
-        verify(sucursalRepository, never()).updateNombre(anyLong(), anyString());
     }
 
     @Test
     void camino_feliz_actualiza_nombre() {
         Long sucursalId = 3L;
-        Sucursal actual = Sucursal.builder()
-                .id(sucursalId).franquiciaId(9L).nombre("Viejo").build();
         String nuevoNombreRaw = "  Nuevo  ";
         String nuevoNombreNormalizado = "Nuevo";
+        Sucursal actualizado = Sucursal.builder()
+                .id(sucursalId).franquiciaId(9L).nombre(nuevoNombreNormalizado).build();
 
-        when(sucursalRepository.findById(sucursalId)).thenReturn(Mono.just(actual));
-        // defaultIfEmpty(false) → probamos explícitamente el false
-        when(sucursalRepository.existsByFranquiciaIdAndNombre(9L, nuevoNombreNormalizado))
-                .thenReturn(Mono.just(false));
-
-        Sucursal actualizado = actual.toBuilder().nombre(nuevoNombreNormalizado).build();
         when(sucursalRepository.updateNombre(eq(sucursalId), eq(nuevoNombreNormalizado)))
                 .thenReturn(Mono.just(actualizado));
 
@@ -122,9 +107,8 @@ class ActualizarNombreSucursalUseCaseTest {
                 .expectNext(actualizado)
                 .verifyComplete();
 
-        verify(sucursalRepository).findById(sucursalId);
-        verify(sucursalRepository).existsByFranquiciaIdAndNombre(9L, nuevoNombreNormalizado);
         verify(sucursalRepository).updateNombre(idCaptor.capture(), nombreCaptor.capture());
+        verifyNoMoreInteractions(sucursalRepository);
 
         assertThat(idCaptor.getValue()).isEqualTo(sucursalId);
         assertThat(nombreCaptor.getValue()).isEqualTo(nuevoNombreNormalizado);
@@ -0,0 +1,156 @@
+package ms.seti.usecase;
+
+import ms.seti.model.producto.ActualizacionStock;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.ResultadoActualizacionStock;
+import ms.seti.model.producto.ResultadoActualizacionStock.Estado;
+import ms.seti.model.producto.events.AlertaStockBajo;
+import ms.seti.model.producto.gateways.AlertaStockBajoPublisher;
+import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import ms.seti.model.producto.projections.UmbralStock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActualizarStockMasivoUseCaseTest {
+
+    private ProductoRepository productoRepository;
+    private UmbralStockRepository umbralStockRepository;
+    private AlertaStockBajoPublisher alertaPublisher;
+    private ActualizarStockMasivoUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        productoRepository = mock(ProductoRepository.class);
+        umbralStockRepository = mock(UmbralStockRepository.class);
+        alertaPublisher = mock(AlertaStockBajoPublisher.class);
+        useCase = new ActualizarStockMasivoUseCase(productoRepository, umbralStockRepository, alertaPublisher);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reporta_actualizados_noEncontrados_e_invalidos() {
+        // El repo solo "encuentra" el producto 1
+        when(productoRepository.updateStockBatch(anyList())).thenReturn(Flux.just(
+                Producto.builder().id(1L).sucursalId(1L).nombre("A").stock(5).build()));
+
+        var entrada = Flux.just(
+                new ActualizacionStock(1L, 9),
+                new ActualizacionStock(2L, 3),
+                new ActualizacionStock(3L, -1),
+                new ActualizacionStock(null, 4),
+                new ActualizacionStock(1L, 5)); // repetido: gana el último
+
+        StepVerifier.create(useCase.execute(entrada).collectMap(r -> String.valueOf(r.productoId())))
+                .assertNext(porId -> {
+                    assertThat(porId.get("1").estado()).isEqualTo(Estado.ACTUALIZADO);
+                    assertThat(porId.get("1").stock()).isEqualTo(5);
+                    assertThat(porId.get("2").estado()).isEqualTo(Estado.NO_ENCONTRADO);
+                    assertThat(porId.get("3").estado()).isEqualTo(Estado.INVALIDO);
+                    assertThat(porId.get("null").estado()).isEqualTo(Estado.INVALIDO);
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<List<ActualizacionStock>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productoRepository).updateStockBatch(captor.capture());
+        assertThat(captor.getValue()).containsExactly(
+                new ActualizacionStock(1L, 5),
+                new ActualizacionStock(2L, 3));
+    }
+
+    @Test
+    void stock_null_se_normaliza_a_cero() {
+        when(productoRepository.updateStockBatch(List.of(new ActualizacionStock(7L, 0))))
+                .thenReturn(Flux.just(Producto.builder().id(7L).sucursalId(1L).nombre("B").stock(0).build()));
+
+        StepVerifier.create(useCase.execute(Flux.just(new ActualizacionStock(7L, null))))
+                .assertNext(r -> {
+                    assertThat(r.estado()).isEqualTo(Estado.ACTUALIZADO);
+                    assertThat(r.stock()).isZero();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void divide_en_lotes_y_no_llama_al_repo_si_todo_es_invalido() {
+        when(productoRepository.updateStockBatch(anyList()))
+                .thenAnswer(inv -> Flux.fromIterable(inv.<List<ActualizacionStock>>getArgument(0))
+                        .map(a -> Producto.builder().id(a.productoId()).stock(a.stock()).build()));
+
+        int total = ActualizarStockMasivoUseCase.TAMANO_LOTE * 2 + 1;
+        var entrada = Flux.fromStream(IntStream.rangeClosed(1, total).mapToObj(i -> new ActualizacionStock((long) i, i)));
+
+        StepVerifier.create(useCase.execute(entrada).map(ResultadoActualizacionStock::estado)
+                        .collect(Collectors.groupingBy(Function.identity(), Collectors.counting())))
+                .assertNext(conteo -> assertThat(conteo).isEqualTo(Map.of(Estado.ACTUALIZADO, (long) total)))
+                .verifyComplete();
+        verify(productoRepository, times(3)).updateStockBatch(anyList());
+
+        clearInvocations(productoRepository);
+        StepVerifier.create(useCase.execute(Flux.just(new ActualizacionStock(0L, 1))))
+                .expectNextMatches(r -> r.estado() == Estado.INVALIDO)
+                .verifyComplete();
+        verifyNoInteractions(productoRepository);
+    }
+
+    @Test
+    void alerta_los_productos_que_cruzan_el_umbral() {
+        // El producto 1 baja de 8 a 2 (cruza umbral 5); el 2 baja de 4 a 3 (ya estaba bajo); el 3 sube
+        when(productoRepository.updateStockBatch(anyList())).thenReturn(Flux.just(
+                Producto.builder().id(1L).sucursalId(1L).nombre("A").stock(2).stockAnterior(8).version(2L).build(),
+                Producto.builder().id(2L).sucursalId(1L).nombre("B").stock(3).stockAnterior(4).version(2L).build(),
+                Producto.builder().id(3L).sucursalId(1L).nombre("C").stock(9).stockAnterior(1).version(2L).build()));
+        when(umbralStockRepository.findBySucursalId(1L))
+                .thenReturn(Mono.just(UmbralStock.builder().sucursalId(1L).franquiciaId(7L).umbral(5).build()));
+        when(alertaPublisher.publicar(any())).thenReturn(Mono.empty());
+
+        var entrada = Flux.just(new ActualizacionStock(1L, 2), new ActualizacionStock(2L, 3), new ActualizacionStock(3L, 9));
+
+        StepVerifier.create(useCase.execute(entrada))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        ArgumentCaptor<AlertaStockBajo> alerta = ArgumentCaptor.forClass(AlertaStockBajo.class);
+        verify(alertaPublisher).publicar(alerta.capture());
+        assertThat(alerta.getValue().productoId()).isEqualTo(1L);
+        assertThat(alerta.getValue().franquiciaId()).isEqualTo(7L);
+        verify(umbralStockRepository, times(2)).findBySucursalId(1L);
+    }
+
+    @Test
+    void lote_fallido_se_informa_sin_perder_los_lotes_confirmados() {
+        // El primer lote se confirma; el segundo falla en la base de datos
+        when(productoRepository.updateStockBatch(anyList()))
+                .thenAnswer(inv -> Flux.fromIterable(inv.<List<ActualizacionStock>>getArgument(0))
+                        .map(a -> Producto.builder().id(a.productoId()).stock(a.stock()).build()))
+                .thenReturn(Flux.error(new RuntimeException("deadlock detectado")));
+
+        int total = ActualizarStockMasivoUseCase.TAMANO_LOTE + 1;
+        var entrada = Flux.fromStream(IntStream.rangeClosed(1, total).mapToObj(i -> new ActualizacionStock((long) i, i)));
+
+        StepVerifier.create(useCase.execute(entrada).map(ResultadoActualizacionStock::estado)
+                        .collect(Collectors.groupingBy(Function.identity(), Collectors.counting())))
+                .assertNext(conteo -> assertThat(conteo).isEqualTo(Map.of(
+                        Estado.ACTUALIZADO, (long) ActualizarStockMasivoUseCase.TAMANO_LOTE,
+                        Estado.FALLIDO, 1L)))
+                .verifyComplete();
+    }
+}
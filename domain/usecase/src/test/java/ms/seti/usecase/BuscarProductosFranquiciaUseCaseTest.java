@@ -0,0 +1,66 @@
+package ms.seti.usecase;
+
+import org.junit.jupiter.api.Test;
+
+import ms.seti.model.franquicia.Franquicia;
+import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.gateways.ProductoRepository;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.NoSuchElementException;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BuscarProductosFranquiciaUseCaseTest {
+
+    private final FranquiciaRepository franquiciaRepo = Mockito.mock(FranquiciaRepository.class);
+    private final ProductoRepository productoRepo = Mockito.mock(ProductoRepository.class);
+    private final BuscarProductosFranquiciaUseCase useCase = new BuscarProductosFranquiciaUseCase(franquiciaRepo, productoRepo);
+
+    @Test
+    void buscaEnLaFranquicia() {
+        // given
+        when(franquiciaRepo.findById(1L)).thenReturn(Mono.just(Franquicia.builder().id(1L).nombre("F1").build()));
+        var a = Producto.builder().id(1L).sucursalId(10L).nombre("Pizza Hawaiana").stock(3).version(0L).build();
+        var b = Producto.builder().id(2L).sucursalId(11L).nombre("Pizza Napolitana").stock(7).version(0L).build();
+        when(productoRepo.searchByFranquiciaId(1L, "pizza", 10)).thenReturn(Flux.just(a, b));
+
+        // when + then
+        StepVerifier.create(useCase.execute(1L, "pizza", 10))
+                .expectNext(a, b)
+                .verifyComplete();
+    }
+
+    @Test
+    void qCorto_400_sinConsultar() {
+        StepVerifier.create(useCase.execute(1L, "pi", 10))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException
+                        && e.getMessage().contains("al menos " + BuscarProductosFranquiciaUseCase.LONGITUD_MINIMA))
+                .verify();
+
+        verifyNoInteractions(franquiciaRepo, productoRepo);
+    }
+
+    @Test
+    void franquiciaNoExiste_404() {
+        // given
+        when(franquiciaRepo.findById(999L)).thenReturn(Mono.empty());
+
+        // when + then
+        StepVerifier.create(useCase.execute(999L, "pizza", 10))
+                .expectError(NoSuchElementException.class)
+                .verify();
+
+        verify(productoRepo, never()).searchByFranquiciaId(anyLong(), anyString(), anyInt());
+    }
+}
@@ -0,0 +1,76 @@
+package ms.seti.usecase;
+
+import org.junit.jupiter.api.Test;
+
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.sucursal.Sucursal;
+import ms.seti.model.sucursal.gateways.SucursalRepository;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.NoSuchElementException;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BuscarProductosSucursalUseCaseTest {
+
+    private final SucursalRepository sucursalRepo = Mockito.mock(SucursalRepository.class);
+    private final ProductoRepository productoRepo = Mockito.mock(ProductoRepository.class);
+    private final BuscarProductosSucursalUseCase useCase = new BuscarProductosSucursalUseCase(sucursalRepo, productoRepo);
+
+    @Test
+    void buscaConTextoNormalizado() {
+        // given
+        when(sucursalRepo.findById(10L)).thenReturn(Mono.just(Sucursal.builder().id(10L).franquiciaId(1L).nombre("Centro").build()));
+        var pizza = Producto.builder().id(1L).sucursalId(10L).nombre("Pizza").stock(3).version(0L).build();
+        when(productoRepo.searchBySucursalId(10L, "piz", 20)).thenReturn(Flux.just(pizza));
+
+        // when + then
+        StepVerifier.create(useCase.execute(10L, "  piz ", 20))
+                .expectNext(pizza)
+                .verifyComplete();
+
+        verify(productoRepo).searchBySucursalId(10L, "piz", 20);
+    }
+
+    @Test
+    void qVacio_400_sinConsultar() {
+        StepVerifier.create(useCase.execute(10L, "   ", 20))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(sucursalRepo, productoRepo);
+    }
+
+    @Test
+    void limiteFueraDeRango_400_sinConsultar() {
+        StepVerifier.create(useCase.execute(10L, "piz", BuscarProductosSucursalUseCase.LIMITE_MAXIMO + 1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(sucursalRepo, productoRepo);
+    }
+
+    @Test
+    void sucursalNoExiste_404() {
+        // given
+        when(sucursalRepo.findById(99L)).thenReturn(Mono.empty());
+
+        // when + then
+        StepVerifier.create(useCase.execute(99L, "piz", 20))
+                .expectErrorMatches(e -> e instanceof NoSuchElementException
+                        && e.getMessage().contains("Sucursal no encontrada"))
+                .verify();
+
+        verify(productoRepo, never()).searchBySucursalId(anyLong(), anyString(), anyInt());
+    }
+}
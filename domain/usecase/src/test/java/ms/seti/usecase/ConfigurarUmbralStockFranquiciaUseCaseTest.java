@@ -0,0 +1,53 @@
+package ms.seti.usecase;
+
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.NoSuchElementException;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConfigurarUmbralStockFranquiciaUseCaseTest {
+
+    private final UmbralStockRepository umbralRepo = Mockito.mock(UmbralStockRepository.class);
+    private final ConfigurarUmbralStockFranquiciaUseCase useCase = new ConfigurarUmbralStockFranquiciaUseCase(umbralRepo);
+
+    @Test
+    void fijaUmbral() {
+        // given
+        when(umbralRepo.updateUmbralFranquicia(1L, 10)).thenReturn(Mono.empty());
+
+        // when + then
+        StepVerifier.create(useCase.execute(1L, 10))
+                .verifyComplete();
+
+        verify(umbralRepo).updateUmbralFranquicia(1L, 10);
+    }
+
+    @Test
+    void umbralNegativo_400_sinEscribir() {
+        StepVerifier.create(useCase.execute(1L, -3))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(umbralRepo);
+    }
+
+    @Test
+    void franquiciaNoExiste_404() {
+        // given
+        when(umbralRepo.updateUmbralFranquicia(999L, 10))
+                .thenReturn(Mono.error(new NoSuchElementException("Franquicia no encontrada")));
+
+        // when + then
+        StepVerifier.create(useCase.execute(999L, 10))
+                .expectError(NoSuchElementException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,66 @@
+package ms.seti.usecase;
+
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import ms.seti.model.producto.projections.UmbralStock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.NoSuchElementException;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConfigurarUmbralStockSucursalUseCaseTest {
+
+    private final UmbralStockRepository umbralRepo = Mockito.mock(UmbralStockRepository.class);
+    private final ConfigurarUmbralStockSucursalUseCase useCase = new ConfigurarUmbralStockSucursalUseCase(umbralRepo);
+
+    @Test
+    void fijaUmbral() {
+        // given
+        var vigente = UmbralStock.builder().sucursalId(10L).franquiciaId(1L).umbral(5).build();
+        when(umbralRepo.updateUmbralSucursal(10L, 5)).thenReturn(Mono.just(vigente));
+
+        // when + then
+        StepVerifier.create(useCase.execute(10L, 5))
+                .expectNext(vigente)
+                .verifyComplete();
+    }
+
+    @Test
+    void quitaUmbral_conNull() {
+        // given: sin umbral propio queda el de la franquicia
+        var vigente = UmbralStock.builder().sucursalId(10L).franquiciaId(1L).umbral(3).build();
+        when(umbralRepo.updateUmbralSucursal(10L, null)).thenReturn(Mono.just(vigente));
+
+        // when + then
+        StepVerifier.create(useCase.execute(10L, null))
+                .expectNext(vigente)
+                .verifyComplete();
+    }
+
+    @Test
+    void umbralCero_400_sinEscribir() {
+        StepVerifier.create(useCase.execute(10L, 0))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(umbralRepo);
+    }
+
+    @Test
+    void sucursalNoExiste_404() {
+        // given
+        when(umbralRepo.updateUmbralSucursal(999L, 5))
+                .thenReturn(Mono.error(new NoSuchElementException("Sucursal no encontrada")));
+
+        // when + then
+        StepVerifier.create(useCase.execute(999L, 5))
+                .expectError(NoSuchElementException.class)
+                .verify();
+    }
+}
@@ -15,10 +15,9 @@ import static org.mockito.Mockito.*;
 
 /**
  * Cobertura:
- *  - Flujo feliz: normaliza, valida unicidad y persiste.
+ *  - Flujo feliz: normaliza y persiste en un solo round-trip (sin consulta previa de existencia).
  *  - Nombre nulo/blanco: IllegalArgumentException.
- *  - Duplicado: IllegalStateException.
- *  - existsByNombre() vacío: se interpreta como false (pasa).
+ *  - Duplicado (lo detecta el INSERT): IllegalStateException propagada.
  */
 @ExtendWith(MockitoExtension.class)
 class CrearFranquiciaUseCaseTest {
@@ -32,8 +31,6 @@ class CrearFranquiciaUseCaseTest {
         String nombreEntrada = "  Acme  ";
         String nombreNormalizado = "Acme";
 
-        when(repo.existsByNombre(nombreNormalizado)).thenReturn(Mono.just(false));
-
         var guardada = Franquicia.builder().id(10L).nombre(nombreNormalizado).build();
         // Capturamos el objeto que se envía a create() para verificar normalización e id null
         ArgumentCaptor<Franquicia> captor = ArgumentCaptor.forClass(Franquicia.class);
@@ -44,7 +41,6 @@ class CrearFranquiciaUseCaseTest {
                 .expectNext(guardada)
                 .verifyComplete();
 
-        verify(repo).existsByNombre(nombreNormalizado);
         verify(repo).create(any(Franquicia.class));
         verifyNoMoreInteractions(repo);
 
@@ -81,8 +77,8 @@ class CrearFranquiciaUseCaseTest {
 
     @Test
     void nombre_duplicado_lanzaConflict() {
-        // given
-        when(repo.existsByNombre("Acme")).thenReturn(Mono.just(true));
+        // given: el INSERT ... ON CONFLICT no inserta y el repositorio emite 409
+        when(repo.create(any())).thenReturn(Mono.error(new IllegalStateException("La franquicia ya existe")));
 
         // when + then
         StepVerifier.create(useCase.execute("Acme"))
@@ -92,25 +88,7 @@ class CrearFranquiciaUseCaseTest {
                 })
                 .verify();
 
-        verify(repo).existsByNombre("Acme");
-        verify(repo, never()).create(any());
-        verifyNoMoreInteractions(repo);
-    }
-
-    @Test
-    void existsByNombre_empty_se_trataComoFalse_yCrea() {
-        // given
-        when(repo.existsByNombre("Nova")).thenReturn(Mono.empty()); // defaultIfEmpty(false)
-        var guardada = Franquicia.builder().id(7L).nombre("Nova").build();
-        when(repo.create(any())).thenReturn(Mono.just(guardada));
-
-        // when + then
-        StepVerifier.create(useCase.execute("Nova"))
-                .expectNext(guardada)
-                .verifyComplete();
-
-        verify(repo).existsByNombre("Nova");
         verify(repo).create(any());
         verifyNoMoreInteractions(repo);
     }
-}
\ No newline at end of file
+}
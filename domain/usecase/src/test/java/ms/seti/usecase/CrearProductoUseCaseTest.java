@@ -2,8 +2,6 @@ package ms.seti.usecase;
 
 import ms.seti.model.producto.Producto;
 import ms.seti.model.producto.gateways.ProductoRepository;
-import ms.seti.model.sucursal.Sucursal;
-import ms.seti.model.sucursal.gateways.SucursalRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,8 +17,8 @@ import static org.mockito.Mockito.*;
 
 /**
  * Tests de unidad para CrearProductoUseCase.
- * Cubre: validación de nombre y stock, existencia de sucursal,
- * unicidad por (sucursalId, nombre) y persistencia.
+ * Cubre: validación de nombre y stock, y que la existencia de la sucursal y la unicidad
+ * por (sucursalId, nombre) se resuelvan en la misma inserción (un solo round-trip).
  */
 @ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
 class CrearProductoUseCaseTest {
@@ -28,9 +26,6 @@ class CrearProductoUseCaseTest {
     @Mock
     ProductoRepository productoRepository;
 
-    @Mock
-    SucursalRepository sucursalRepository;
-
     @InjectMocks
     CrearProductoUseCase useCase;
 
@@ -39,7 +34,7 @@ class CrearProductoUseCaseTest {
 
     @BeforeEach
     void setup() {
-        useCase = new CrearProductoUseCase(productoRepository, sucursalRepository);
+        useCase = new CrearProductoUseCase(productoRepository);
     }
 
     @Test
@@ -50,13 +45,14 @@ class CrearProductoUseCaseTest {
                         .hasMessage("El nombre es requerido"))
                 .verify();
 
-        verifyNoInteractions(sucursalRepository, productoRepository);
+        verifyNoInteractions(productoRepository);
     }
 
     @Test
     void sucursal_no_encontrada_lanzaNotFound() {
         Long sucursalId = 99L;
-        when(sucursalRepository.findById(sucursalId)).thenReturn(Mono.empty());
+        when(productoRepository.create(any()))
+                .thenReturn(Mono.error(new NoSuchElementException("Sucursal no encontrada")));
 
         StepVerifier.create(useCase.execute(sucursalId, "Prod", 1))
                 .expectErrorSatisfies(ex -> assertThat(ex)
@@ -64,9 +60,8 @@ class CrearProductoUseCaseTest {
                         .hasMessage("Sucursal no encontrada"))
                 .verify();
 
-        verify(sucursalRepository).findById(sucursalId);
-        verifyNoMoreInteractions(sucursalRepository);
-        verifyNoInteractions(productoRepository);
+        verify(productoRepository).create(any());
+        verifyNoMoreInteractions(productoRepository);
     }
 
     @Test
@@ -74,19 +69,14 @@ class CrearProductoUseCaseTest {
         Long sucursalId = 7L;
         String nombre = "Prod A";
 
-        when(sucursalRepository.findById(sucursalId))
-                .thenReturn(Mono.just(Sucursal.builder().id(sucursalId).franquiciaId(1L).nombre("S1").build())); // existe
-        when(productoRepository.existsBySucursalIdAndNombre(sucursalId, nombre)).thenReturn(Mono.just(true));
+        when(productoRepository.create(any()))
+                .thenReturn(Mono.error(new IllegalStateException("El producto ya existe para esta sucursal")));
 
         StepVerifier.create(useCase.execute(sucursalId, nombre, 3))
                 .expectErrorSatisfies(ex -> assertThat(ex)
                         .isInstanceOf(IllegalStateException.class)
                         .hasMessage("El producto ya existe para esta sucursal"))
                 .verify();
-
-        verify(sucursalRepository).findById(sucursalId);
-        verify(productoRepository).existsBySucursalIdAndNombre(sucursalId, nombre);
-        verify(productoRepository, never()).create(any());
     }
 
     @Test
@@ -97,7 +87,7 @@ class CrearProductoUseCaseTest {
                         .hasMessage("El stock no puede ser negativo"))
                 .verify();
 
-        verifyNoInteractions(sucursalRepository, productoRepository);
+        verifyNoInteractions(productoRepository);
     }
 
     @Test
@@ -106,26 +96,10 @@ class CrearProductoUseCaseTest {
         String nombreRaw = "   Producto Z   ";
         String nombreNormalizado = "Producto Z";
 
-        when(sucursalRepository.findById(sucursalId))
-                .thenReturn(Mono.just(Sucursal.builder().id(sucursalId).franquiciaId(1L).nombre("S2").build())); // existe
-        // Deja que defaultIfEmpty(false) tome el camino "no existe duplicado"
-        when(productoRepository.existsBySucursalIdAndNombre(sucursalId, nombreNormalizado)).thenReturn(Mono.empty());
-
-        Producto result = Producto.builder()
-                .id(123L)
-                .sucursalId(sucursalId)
-                .nombre(nombreNormalizado)
-                .stock(0)
-                .build();
-
         when(productoRepository.create(any()))
                 .thenAnswer(inv -> {
                     Producto p = inv.getArgument(0);
-                    return Mono.just(result.toBuilder()
-                            .sucursalId(p.sucursalId())
-                            .nombre(p.nombre())
-                            .stock(p.stock())
-                            .build());
+                    return Mono.just(p.toBuilder().id(123L).build());
                 });
 
         StepVerifier.create(useCase.execute(sucursalId, nombreRaw, null))
@@ -137,8 +111,6 @@ class CrearProductoUseCaseTest {
                 })
                 .verifyComplete();
 
-        verify(sucursalRepository).findById(sucursalId);
-        verify(productoRepository).existsBySucursalIdAndNombre(sucursalId, nombreNormalizado);
         verify(productoRepository).create(productoCaptor.capture());
 
         Producto enviado = productoCaptor.getValue();
@@ -149,16 +121,12 @@ class CrearProductoUseCaseTest {
     }
 
     @Test
-    void camino_feliz_crea_producto_con_stock_y_nombre_normalizados() {
+    void camino_feliz_crea_producto_en_un_round_trip() {
         Long sucursalId = 2L;
         String nombreRaw = "  Aaa  ";
         String nombreNormalizado = "Aaa";
         int stock = 9;
 
-        when(sucursalRepository.findById(sucursalId))
-                .thenReturn(Mono.just(Sucursal.builder().id(sucursalId).franquiciaId(1L).nombre("S3").build())); // existe
-        when(productoRepository.existsBySucursalIdAndNombre(sucursalId, nombreNormalizado)).thenReturn(Mono.empty());
-
         Producto persisted = Producto.builder()
                 .id(42L)
                 .sucursalId(sucursalId)
@@ -173,9 +141,10 @@ class CrearProductoUseCaseTest {
                 .verifyComplete();
 
         verify(productoRepository).create(productoCaptor.capture());
+        verifyNoMoreInteractions(productoRepository);
         Producto enviado = productoCaptor.getValue();
         assertThat(enviado.id()).isNull();
         assertThat(enviado.nombre()).isEqualTo(nombreNormalizado);
         assertThat(enviado.stock()).isEqualTo(stock);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package ms.seti.usecase;
+
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.ResultadoImportacion;
+import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.sucursal.Sucursal;
+import ms.seti.model.sucursal.gateways.SucursalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportarProductosUseCaseTest {
+
+    private ProductoRepository productoRepository;
+    private SucursalRepository sucursalRepository;
+    private ImportarProductosUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        productoRepository = mock(ProductoRepository.class);
+        sucursalRepository = mock(SucursalRepository.class);
+        useCase = new ImportarProductosUseCase(productoRepository, sucursalRepository);
+    }
+
+    private static Producto item(String nombre, Integer stock) {
+        return Producto.builder().nombre(nombre).stock(stock).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cuenta_creados_duplicados_e_invalidos() {
+        when(sucursalRepository.findById(3L)).thenReturn(Mono.just(Sucursal.builder().id(3L).franquiciaId(1L).nombre("S").build()));
+        // El repo "omite" Pan por duplicado
+        when(productoRepository.createBatch(eq(3L), anyList())).thenAnswer(inv -> Flux.fromIterable(inv.<List<Producto>>getArgument(1))
+                .filter(p -> !p.nombre().equals("Pan")));
+
+        var entrada = Flux.just(item("  Pan ", 1), item("Leche", null), item(" ", 2), item("Huevos", -1), item("x".repeat(121), 1));
+
+        StepVerifier.create(useCase.execute(3L, entrada))
+                .expectNext(new ResultadoImportacion(1, 1, 3))
+                .verifyComplete();
+
+        ArgumentCaptor<List<Producto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productoRepository).createBatch(eq(3L), captor.capture());
+        assertThat(captor.getValue()).containsExactly(
+                Producto.builder().sucursalId(3L).nombre("Pan").stock(1).build(),
+                Producto.builder().sucursalId(3L).nombre("Leche").stock(0).build());
+    }
+
+    @Test
+    void inserta_en_lotes() {
+        when(sucursalRepository.findById(3L)).thenReturn(Mono.just(Sucursal.builder().id(3L).build()));
+        when(productoRepository.createBatch(eq(3L), anyList()))
+                .thenAnswer(inv -> Flux.fromIterable(inv.<List<Producto>>getArgument(1)));
+
+        int total = ImportarProductosUseCase.TAMANO_LOTE * 3;
+        var entrada = Flux.fromStream(IntStream.range(0, total).mapToObj(i -> item("P" + i, i)));
+
+        StepVerifier.create(useCase.execute(3L, entrada))
+                .expectNext(new ResultadoImportacion(total, 0, 0))
+                .verifyComplete();
+
+        verify(productoRepository, times(3)).createBatch(eq(3L), anyList());
+    }
+
+    @Test
+    void sucursal_no_encontrada_no_consume_el_body() {
+        when(sucursalRepository.findById(9L)).thenReturn(Mono.empty());
+        AtomicBoolean consumido = new AtomicBoolean(false);
+
+        StepVerifier.create(useCase.execute(9L, Flux.just(item("A", 1)).doOnSubscribe(s -> consumido.set(true))))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(NoSuchElementException.class)
+                        .hasMessage("Sucursal no encontrada"))
+                .verify();
+
+        assertThat(consumido).isFalse();
+        verifyNoInteractions(productoRepository);
+    }
+}
@@ -0,0 +1,63 @@
+package ms.seti.usecase;
+
+import ms.seti.model.franquicia.Franquicia;
+import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.NoSuchElementException;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListarProductosStockBajoUseCaseTest {
+
+    private final FranquiciaRepository franquiciaRepo = Mockito.mock(FranquiciaRepository.class);
+    private final UmbralStockRepository umbralRepo = Mockito.mock(UmbralStockRepository.class);
+    private final ListarProductosStockBajoUseCase useCase = new ListarProductosStockBajoUseCase(franquiciaRepo, umbralRepo);
+
+    @Test
+    void listaLosProductosBajoUmbral() {
+        // given
+        when(franquiciaRepo.findById(1L)).thenReturn(Mono.just(Franquicia.builder().id(1L).nombre("F1").build()));
+        var a = Producto.builder().id(1L).sucursalId(10L).nombre("Queso").stock(0).version(4L).build();
+        var b = Producto.builder().id(2L).sucursalId(11L).nombre("Harina").stock(2).version(1L).build();
+        when(umbralRepo.findStockBajoByFranquiciaId(1L, 100)).thenReturn(Flux.just(a, b));
+
+        // when + then
+        StepVerifier.create(useCase.execute(1L, 100))
+                .expectNext(a, b)
+                .verifyComplete();
+    }
+
+    @Test
+    void limiteFueraDeRango_400_sinConsultar() {
+        StepVerifier.create(useCase.execute(1L, ListarProductosStockBajoUseCase.LIMITE_MAXIMO + 1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(franquiciaRepo, umbralRepo);
+    }
+
+    @Test
+    void franquiciaNoExiste_404() {
+        // given
+        when(franquiciaRepo.findById(999L)).thenReturn(Mono.empty());
+
+        // when + then
+        StepVerifier.create(useCase.execute(999L, 100))
+                .expectError(NoSuchElementException.class)
+                .verify();
+
+        verify(umbralRepo, never()).findStockBajoByFranquiciaId(anyLong(), anyInt());
+    }
+}
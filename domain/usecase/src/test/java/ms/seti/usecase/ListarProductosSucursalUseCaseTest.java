@@ -0,0 +1,96 @@
+package ms.seti.usecase;
+
+import org.junit.jupiter.api.Test;
+
+import ms.seti.model.producto.OrdenProductos;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.sucursal.Sucursal;
+import ms.seti.model.sucursal.gateways.SucursalRepository;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListarProductosSucursalUseCaseTest {
+
+    private final SucursalRepository sucursalRepo = Mockito.mock(SucursalRepository.class);
+    private final ProductoRepository productoRepo = Mockito.mock(ProductoRepository.class);
+    private final ListarProductosSucursalUseCase useCase = new ListarProductosSucursalUseCase(sucursalRepo, productoRepo);
+
+    private static Producto producto(long id, String nombre, int stock) {
+        return Producto.builder().id(id).sucursalId(10L).nombre(nombre).stock(stock).version(0L).build();
+    }
+
+    @Test
+    void paginaCompleta_conSiguiente() {
+        // given: se piden limite + 1 para detectar la página siguiente
+        when(sucursalRepo.findById(10L)).thenReturn(Mono.just(Sucursal.builder().id(10L).franquiciaId(1L).nombre("S1").build()));
+        var a = producto(1L, "A", 5);
+        var b = producto(2L, "B", 3);
+        var c = producto(3L, "C", 1);
+        when(productoRepo.findBySucursalId(10L, OrdenProductos.NOMBRE, null, 3)).thenReturn(Flux.just(a, b, c));
+
+        // when + then
+        StepVerifier.create(useCase.execute(10L, OrdenProductos.NOMBRE, null, 2))
+                .assertNext(pagina -> {
+                    assertThat(pagina.productos()).containsExactly(a, b);
+                    assertThat(pagina.hayMas()).isTrue();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void ultimaPagina_sinSiguiente_yOrdenPorDefecto() {
+        // given
+        when(sucursalRepo.findById(10L)).thenReturn(Mono.just(Sucursal.builder().id(10L).franquiciaId(1L).nombre("S1").build()));
+        var cursor = producto(2L, "B", 3);
+        var c = producto(3L, "C", 1);
+        when(productoRepo.findBySucursalId(10L, OrdenProductos.NOMBRE, cursor, 3)).thenReturn(Flux.just(c));
+
+        // when + then
+        StepVerifier.create(useCase.execute(10L, null, cursor, 2))
+                .assertNext(pagina -> {
+                    assertThat(pagina.productos()).containsExactly(c);
+                    assertThat(pagina.hayMas()).isFalse();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void sucursalNoExiste_404_sinConsultarProductos() {
+        // given
+        when(sucursalRepo.findById(99L)).thenReturn(Mono.empty());
+
+        // when + then
+        StepVerifier.create(useCase.execute(99L, OrdenProductos.STOCK, null, 10))
+                .expectErrorMatches(e -> e instanceof NoSuchElementException
+                        && e.getMessage().contains("Sucursal no encontrada"))
+                .verify();
+
+        verify(productoRepo, never()).findBySucursalId(anyLong(), any(), any(), anyInt());
+    }
+
+    @Test
+    void limiteFueraDeRango_400() {
+        StepVerifier.create(useCase.execute(10L, OrdenProductos.NOMBRE, null, 0))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(useCase.execute(10L, OrdenProductos.NOMBRE, null, ListarProductosSucursalUseCase.LIMITE_MAXIMO + 1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(sucursalRepo, productoRepo);
+    }
+}
@@ -2,7 +2,11 @@ package ms.seti.usecase;
 
 
 import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.events.AlertaStockBajo;
+import ms.seti.model.producto.gateways.AlertaStockBajoPublisher;
 import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import ms.seti.model.producto.projections.UmbralStock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +16,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.ConcurrentModificationException;
 import java.util.NoSuchElementException;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -23,12 +28,16 @@ import static org.mockito.Mockito.*;
 class ModificarStockProductoUseCaseTest {
 
     private ProductoRepository productoRepository;
+    private UmbralStockRepository umbralStockRepository;
+    private AlertaStockBajoPublisher alertaPublisher;
     private ModificarStockProductoUseCase useCase;
 
     @BeforeEach
     void setUp() {
         productoRepository = mock(ProductoRepository.class);
-        useCase = new ModificarStockProductoUseCase(productoRepository);
+        umbralStockRepository = mock(UmbralStockRepository.class);
+        alertaPublisher = mock(AlertaStockBajoPublisher.class);
+        useCase = new ModificarStockProductoUseCase(productoRepository, umbralStockRepository, alertaPublisher);
     }
 
     @Test
@@ -39,15 +48,15 @@ class ModificarStockProductoUseCaseTest {
                 .id(productoId).sucursalId(1L).nombre("Lapicero").stock(5).build();
         Producto actualizado = existente.toBuilder().stock(7).build();
 
-        when(productoRepository.findById(productoId)).thenReturn(Mono.just(existente));
         when(productoRepository.updateStock(productoId, 7)).thenReturn(Mono.just(actualizado));
 
         StepVerifier.create(useCase.execute(productoId, 7))
                 .expectNextMatches(p -> p.id().equals(productoId) && p.stock().equals(7))
                 .verifyComplete();
 
-        verify(productoRepository, times(1)).findById(productoId);
+        // Un solo round-trip: no hay lectura previa
         verify(productoRepository, times(1)).updateStock(productoId, 7);
+        verify(productoRepository, never()).findById(any());
     }
 
     @Test
@@ -74,7 +83,6 @@ class ModificarStockProductoUseCaseTest {
                 .id(productoId).sucursalId(2L).nombre("Cuaderno").stock(3).build();
         Producto actualizado = existente.toBuilder().stock(0).build();
 
-        when(productoRepository.findById(productoId)).thenReturn(Mono.just(existente));
         when(productoRepository.updateStock(productoId, 0)).thenReturn(Mono.just(actualizado));
 
         StepVerifier.create(useCase.execute(productoId, null))
@@ -88,11 +96,12 @@ class ModificarStockProductoUseCaseTest {
     }
 
     @Test
-    @DisplayName("Lanza 404 si el producto no existe y no intenta actualizar")
+    @DisplayName("Propaga 404 cuando la actualización no afecta filas")
     void producto_no_encontrado_notFound() {
         Long productoId = 13L;
 
-        when(productoRepository.findById(productoId)).thenReturn(Mono.empty());
+        when(productoRepository.updateStock(productoId, 5))
+                .thenReturn(Mono.error(new NoSuchElementException("Producto no encontrado")));
 
         StepVerifier.create(useCase.execute(productoId, 5))
                 .expectErrorSatisfies(e -> {
@@ -101,7 +110,129 @@ class ModificarStockProductoUseCaseTest {
                 })
                 .verify();
 
-        verify(productoRepository, times(1)).findById(productoId);
+        verify(productoRepository, times(1)).updateStock(productoId, 5);
+        verify(productoRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Con If-Match usa la escritura condicional a la versión")
+    void if_match_actualiza_condicional() {
+        Long productoId = 14L;
+        Producto actualizado = Producto.builder()
+                .id(productoId).sucursalId(1L).nombre("Regla").stock(9).version(3L).build();
+
+        when(productoRepository.updateStock(productoId, 9, 2L)).thenReturn(Mono.just(actualizado));
+
+        StepVerifier.create(useCase.execute(productoId, 9, 2L))
+                .expectNext(actualizado)
+                .verifyComplete();
+
         verify(productoRepository, never()).updateStock(any(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Propaga 412 cuando la versión ya cambió")
+    void if_match_version_distinta_preconditionFailed() {
+        Long productoId = 15L;
+
+        when(productoRepository.updateStock(productoId, 9, 2L))
+                .thenReturn(Mono.error(new ConcurrentModificationException("El producto fue modificado por otra operación")));
+
+        StepVerifier.create(useCase.execute(productoId, 9, 2L))
+                .expectError(ConcurrentModificationException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Sin If-Match conserva la escritura incondicional")
+    void sin_if_match_usa_escritura_incondicional() {
+        Long productoId = 16L;
+        Producto actualizado = Producto.builder()
+                .id(productoId).sucursalId(1L).nombre("Goma").stock(1).version(1L).build();
+
+        when(productoRepository.updateStock(productoId, 1)).thenReturn(Mono.just(actualizado));
+
+        StepVerifier.create(useCase.execute(productoId, 1, null))
+                .expectNext(actualizado)
+                .verifyComplete();
+
+        verify(productoRepository, never()).updateStock(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Publica una alerta cuando la escritura cruza el umbral hacia abajo")
+    void cruza_umbral_publica_alerta() {
+        Long productoId = 17L;
+        Producto actualizado = Producto.builder()
+                .id(productoId).sucursalId(3L).nombre("Tinta").stock(4).stockAnterior(12).version(8L).build();
+
+        when(productoRepository.updateStock(productoId, 4)).thenReturn(Mono.just(actualizado));
+        when(umbralStockRepository.findBySucursalId(3L))
+                .thenReturn(Mono.just(UmbralStock.builder().sucursalId(3L).franquiciaId(1L).umbral(5).build()));
+        when(alertaPublisher.publicar(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.execute(productoId, 4))
+                .expectNext(actualizado)
+                .verifyComplete();
+
+        ArgumentCaptor<AlertaStockBajo> alerta = ArgumentCaptor.forClass(AlertaStockBajo.class);
+        verify(alertaPublisher).publicar(alerta.capture());
+        assertThat(alerta.getValue().franquiciaId()).isEqualTo(1L);
+        assertThat(alerta.getValue().productoId()).isEqualTo(productoId);
+        assertThat(alerta.getValue().stockAnterior()).isEqualTo(12);
+        assertThat(alerta.getValue().stock()).isEqualTo(4);
+        assertThat(alerta.getValue().umbral()).isEqualTo(5);
+        assertThat(alerta.getValue().version()).isEqualTo(8L);
+    }
+
+    @Test
+    @DisplayName("No alerta si el producto ya estaba bajo el umbral")
+    void ya_bajo_umbral_no_publica() {
+        Long productoId = 18L;
+        Producto actualizado = Producto.builder()
+                .id(productoId).sucursalId(3L).nombre("Tinta").stock(2).stockAnterior(4).version(9L).build();
+
+        when(productoRepository.updateStock(productoId, 2, 8L)).thenReturn(Mono.just(actualizado));
+        when(umbralStockRepository.findBySucursalId(3L))
+                .thenReturn(Mono.just(UmbralStock.builder().sucursalId(3L).franquiciaId(1L).umbral(5).build()));
+
+        StepVerifier.create(useCase.execute(productoId, 2, 8L))
+                .expectNext(actualizado)
+                .verifyComplete();
+
+        verify(alertaPublisher, never()).publicar(any());
+    }
+
+    @Test
+    @DisplayName("Si el stock no baja no consulta el umbral")
+    void stock_sube_no_consulta_umbral() {
+        Long productoId = 19L;
+        Producto actualizado = Producto.builder()
+                .id(productoId).sucursalId(3L).nombre("Tinta").stock(20).stockAnterior(2).version(10L).build();
+
+        when(productoRepository.updateStock(productoId, 20)).thenReturn(Mono.just(actualizado));
+
+        StepVerifier.create(useCase.execute(productoId, 20))
+                .expectNext(actualizado)
+                .verifyComplete();
+
+        verifyNoInteractions(umbralStockRepository, alertaPublisher);
+    }
+
+    @Test
+    @DisplayName("Un fallo al publicar la alerta no convierte la escritura en error")
+    void fallo_alerta_no_afecta_escritura() {
+        Long productoId = 20L;
+        Producto actualizado = Producto.builder()
+                .id(productoId).sucursalId(3L).nombre("Tinta").stock(0).stockAnterior(6).version(11L).build();
+
+        when(productoRepository.updateStock(productoId, 0)).thenReturn(Mono.just(actualizado));
+        when(umbralStockRepository.findBySucursalId(3L))
+                .thenReturn(Mono.just(UmbralStock.builder().sucursalId(3L).franquiciaId(1L).umbral(5).build()));
+        when(alertaPublisher.publicar(any())).thenReturn(Mono.error(new IllegalStateException("sin canal")));
+
+        StepVerifier.create(useCase.execute(productoId, 0))
+                .expectNext(actualizado)
+                .verifyComplete();
+    }
+}
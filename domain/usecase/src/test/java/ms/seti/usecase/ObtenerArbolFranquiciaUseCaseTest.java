@@ -0,0 +1,44 @@
+package ms.seti.usecase;
+
+import ms.seti.model.franquicia.gateways.ArbolFranquiciaQueryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ObtenerArbolFranquiciaUseCaseTest {
+
+    private final ArbolFranquiciaQueryRepository arbolRepo = Mockito.mock(ArbolFranquiciaQueryRepository.class);
+    private final ObtenerArbolFranquiciaUseCase useCase = new ObtenerArbolFranquiciaUseCase(arbolRepo);
+
+    @Test
+    void devuelveElDocumentoTalCual() {
+        // given
+        byte[] json = "{\"id\":1,\"nombre\":\"F1\",\"sucursales\":[]}".getBytes(StandardCharsets.UTF_8);
+        when(arbolRepo.findJsonByFranquiciaId(1L)).thenReturn(Mono.just(json));
+
+        // when + then: mismos bytes, sin deserializar
+        StepVerifier.create(useCase.execute(1L))
+                .expectNextMatches(body -> body == json)
+                .verifyComplete();
+    }
+
+    @Test
+    void franquiciaNoExiste_404() {
+        // given
+        when(arbolRepo.findJsonByFranquiciaId(999L)).thenReturn(Mono.empty());
+
+        // when + then
+        StepVerifier.create(useCase.execute(999L))
+                .expectError(NoSuchElementException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,63 @@
+package ms.seti.usecase;
+
+import org.junit.jupiter.api.Test;
+
+import ms.seti.model.franquicia.Franquicia;
+import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.model.franquicia.gateways.InventarioQueryRepository;
+import ms.seti.model.franquicia.projections.InventarioSucursal;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ObtenerInventarioFranquiciaUseCaseTest {
+
+    private final FranquiciaRepository franquiciaRepo = Mockito.mock(FranquiciaRepository.class);
+    private final InventarioQueryRepository inventarioRepo = Mockito.mock(InventarioQueryRepository.class);
+    private final ObtenerInventarioFranquiciaUseCase useCase =
+            new ObtenerInventarioFranquiciaUseCase(franquiciaRepo, inventarioRepo);
+
+    @Test
+    void sumaTotalesDeLasSucursales() {
+        // given
+        when(franquiciaRepo.findById(1L)).thenReturn(Mono.just(Franquicia.builder().id(1L).nombre("F1").build()));
+        var centro = InventarioSucursal.builder().sucursalId(10L).sucursalNombre("Centro").productos(3).stockTotal(40).build();
+        var norte = InventarioSucursal.builder().sucursalId(11L).sucursalNombre("Norte").productos(0).stockTotal(0).build();
+        var sur = InventarioSucursal.builder().sucursalId(12L).sucursalNombre("Sur").productos(2).stockTotal(15).build();
+        when(inventarioRepo.findByFranquiciaId(1L)).thenReturn(Flux.just(centro, norte, sur));
+
+        // when + then
+        StepVerifier.create(useCase.execute(1L))
+                .assertNext(inventario -> {
+                    assertThat(inventario.franquiciaNombre()).isEqualTo("F1");
+                    assertThat(inventario.productos()).isEqualTo(5);
+                    assertThat(inventario.stockTotal()).isEqualTo(55);
+                    assertThat(inventario.sucursales()).containsExactly(centro, norte, sur);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void franquiciaNoExiste_404_sinConsultarInventario() {
+        // given
+        when(franquiciaRepo.findById(999L)).thenReturn(Mono.empty());
+
+        // when + then
+        StepVerifier.create(useCase.execute(999L))
+                .expectErrorMatches(e -> e instanceof NoSuchElementException
+                        && e.getMessage().contains("Franquicia no encontrada"))
+                .verify();
+
+        verify(inventarioRepo, never()).findByFranquiciaId(anyLong());
+    }
+}
@@ -64,4 +64,37 @@ class ObtenerTopProductoPorSucursalUseCaseTest {
         verify(queryRepo, never()).findByFranquiciaId(anyLong());
         verifyNoMoreInteractions(franquiciaRepo, queryRepo);
     }
-}
\ No newline at end of file
+
+    @Test
+    void topN_consultaHastaNPorSucursal() {
+        // given
+        long franquiciaId = 1L;
+        var franquicia = Franquicia.builder().id(franquiciaId).nombre("F1").build();
+        when(franquiciaRepo.findById(franquiciaId)).thenReturn(Mono.just(franquicia));
+
+        ProductoTopPorSucursal row1 = mock(ProductoTopPorSucursal.class);
+        ProductoTopPorSucursal row2 = mock(ProductoTopPorSucursal.class);
+        when(queryRepo.findByFranquiciaId(franquiciaId, 5)).thenReturn(Flux.just(row1, row2));
+
+        // when + then
+        StepVerifier.create(useCase.execute(franquiciaId, 5))
+                .expectNext(row1, row2)
+                .verifyComplete();
+
+        verify(franquiciaRepo).findById(franquiciaId);
+        verify(queryRepo).findByFranquiciaId(franquiciaId, 5);
+        verifyNoMoreInteractions(franquiciaRepo, queryRepo);
+    }
+
+    @Test
+    void topN_fueraDeRango_lanza400_sinConsultar() {
+        StepVerifier.create(useCase.execute(1L, 0))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(useCase.execute(1L, ObtenerTopProductoPorSucursalUseCase.N_MAXIMO + 1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(franquiciaRepo, queryRepo);
+    }
+}
@@ -0,0 +1,125 @@
+package ms.seti.usecase;
+
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.events.AlertaStockBajo;
+import ms.seti.model.producto.gateways.AlertaStockBajoPublisher;
+import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import ms.seti.model.producto.projections.UmbralStock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegistrarMovimientoStockUseCaseTest {
+
+    private ProductoRepository productoRepository;
+    private UmbralStockRepository umbralStockRepository;
+    private AlertaStockBajoPublisher alertaPublisher;
+    private RegistrarMovimientoStockUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        productoRepository = mock(ProductoRepository.class);
+        umbralStockRepository = mock(UmbralStockRepository.class);
+        alertaPublisher = mock(AlertaStockBajoPublisher.class);
+        useCase = new RegistrarMovimientoStockUseCase(productoRepository, umbralStockRepository, alertaPublisher);
+    }
+
+    @Test
+    @DisplayName("Aplica el delta en una sola llamada al repositorio, sin lectura previa")
+    void aplica_delta_ok() {
+        Producto actualizado = Producto.builder().id(10L).sucursalId(1L).nombre("Pan").stock(7).build();
+        when(productoRepository.adjustStock(10L, -3)).thenReturn(Mono.just(actualizado));
+
+        StepVerifier.create(useCase.execute(10L, -3))
+                .expectNext(actualizado)
+                .verifyComplete();
+
+        verify(productoRepository).adjustStock(10L, -3);
+        verifyNoMoreInteractions(productoRepository);
+    }
+
+    @Test
+    @DisplayName("Cantidad null o cero -> 400 sin tocar el repositorio")
+    void cantidad_invalida_badRequest() {
+        StepVerifier.create(useCase.execute(10L, null))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessage("La cantidad del movimiento es requerida"))
+                .verify();
+
+        StepVerifier.create(useCase.execute(10L, 0))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessage("La cantidad del movimiento no puede ser cero"))
+                .verify();
+
+        verify(productoRepository, never()).adjustStock(any(), any());
+    }
+
+    @Test
+    @DisplayName("Propaga 404 y 409 emitidos por el repositorio")
+    void propaga_errores_repositorio() {
+        when(productoRepository.adjustStock(99L, 5))
+                .thenReturn(Mono.error(new NoSuchElementException("Producto no encontrado")));
+        when(productoRepository.adjustStock(10L, -50))
+                .thenReturn(Mono.error(new IllegalStateException("Stock insuficiente para el movimiento")));
+
+        StepVerifier.create(useCase.execute(99L, 5))
+                .expectError(NoSuchElementException.class)
+                .verify();
+
+        StepVerifier.create(useCase.execute(10L, -50))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessage("Stock insuficiente para el movimiento"))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Una venta que cruza el umbral hacia abajo publica una alerta")
+    void venta_cruza_umbral_publica_alerta() {
+        Producto actualizado = Producto.builder().id(10L).sucursalId(3L).nombre("Pan")
+                .stock(4).stockAnterior(7).version(5L).build();
+        when(productoRepository.adjustStock(10L, -3)).thenReturn(Mono.just(actualizado));
+        when(umbralStockRepository.findBySucursalId(3L))
+                .thenReturn(Mono.just(UmbralStock.builder().sucursalId(3L).franquiciaId(1L).umbral(5).build()));
+        when(alertaPublisher.publicar(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.execute(10L, -3))
+                .expectNext(actualizado)
+                .verifyComplete();
+
+        ArgumentCaptor<AlertaStockBajo> alerta = ArgumentCaptor.forClass(AlertaStockBajo.class);
+        verify(alertaPublisher).publicar(alerta.capture());
+        assertThat(alerta.getValue().franquiciaId()).isEqualTo(1L);
+        assertThat(alerta.getValue().stockAnterior()).isEqualTo(7);
+        assertThat(alerta.getValue().stock()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Una recepción (el stock sube) no consulta el umbral")
+    void recepcion_no_consulta_umbral() {
+        Producto actualizado = Producto.builder().id(10L).sucursalId(3L).nombre("Pan")
+                .stock(9).stockAnterior(4).version(5L).build();
+        when(productoRepository.adjustStock(10L, 5)).thenReturn(Mono.just(actualizado));
+
+        StepVerifier.create(useCase.execute(10L, 5))
+                .expectNext(actualizado)
+                .verifyComplete();
+
+        verifyNoInteractions(umbralStockRepository, alertaPublisher);
+    }
+}
@@ -0,0 +1,53 @@
+package ms.seti.usecase;
+
+import ms.seti.model.franquicia.Franquicia;
+import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.model.producto.events.AlertaStockBajo;
+import ms.seti.model.producto.gateways.AlertasStockBajoFeed;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.NoSuchElementException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SuscribirAlertasStockBajoUseCaseTest {
+
+    private final FranquiciaRepository franquiciaRepo = Mockito.mock(FranquiciaRepository.class);
+    private final AlertasStockBajoFeed feed = Mockito.mock(AlertasStockBajoFeed.class);
+    private final SuscribirAlertasStockBajoUseCase useCase = new SuscribirAlertasStockBajoUseCase(franquiciaRepo, feed);
+
+    @Test
+    void emiteLasAlertasDelFeed() {
+        // given
+        when(franquiciaRepo.findById(1L)).thenReturn(Mono.just(Franquicia.builder().id(1L).nombre("F1").build()));
+        var alerta = AlertaStockBajo.builder().franquiciaId(1L).sucursalId(10L).productoId(5L)
+                .productoNombre("Pan").stockAnterior(8).stock(2).umbral(5).version(3L).build();
+        when(feed.suscribir(1L, 10L)).thenReturn(Flux.just(alerta));
+
+        // when + then
+        StepVerifier.create(useCase.execute(1L, 10L))
+                .expectNext(alerta)
+                .verifyComplete();
+    }
+
+    @Test
+    void franquiciaNoExiste_404_sinSuscribir() {
+        // given
+        when(franquiciaRepo.findById(999L)).thenReturn(Mono.empty());
+
+        // when + then
+        StepVerifier.create(useCase.execute(999L, null))
+                .expectError(NoSuchElementException.class)
+                .verify();
+
+        verify(feed, never()).suscribir(any(), any());
+    }
+}
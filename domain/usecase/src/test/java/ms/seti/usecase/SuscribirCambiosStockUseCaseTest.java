@@ -0,0 +1,54 @@
+package ms.seti.usecase;
+
+import ms.seti.model.franquicia.Franquicia;
+import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.model.producto.events.CambioStock;
+import ms.seti.model.producto.events.ProductoCambiado;
+import ms.seti.model.producto.gateways.CambiosStockFeed;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.NoSuchElementException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SuscribirCambiosStockUseCaseTest {
+
+    private final FranquiciaRepository franquiciaRepo = Mockito.mock(FranquiciaRepository.class);
+    private final CambiosStockFeed feed = Mockito.mock(CambiosStockFeed.class);
+    private final SuscribirCambiosStockUseCase useCase = new SuscribirCambiosStockUseCase(franquiciaRepo, feed);
+
+    @Test
+    void emiteLosCambiosDelFeed() {
+        // given
+        when(franquiciaRepo.findById(1L)).thenReturn(Mono.just(Franquicia.builder().id(1L).nombre("F1").build()));
+        var cambio = CambioStock.builder().tipo(ProductoCambiado.Tipo.ACTUALIZADO)
+                .franquiciaId(1L).sucursalId(10L).productoId(5L).stock(3).version(2L).build();
+        when(feed.suscribir(1L, 10L)).thenReturn(Flux.just(cambio));
+
+        // when + then
+        StepVerifier.create(useCase.execute(1L, 10L))
+                .expectNext(cambio)
+                .verifyComplete();
+    }
+
+    @Test
+    void franquiciaNoExiste_404_sinSuscribir() {
+        // given
+        when(franquiciaRepo.findById(999L)).thenReturn(Mono.empty());
+
+        // when + then
+        StepVerifier.create(useCase.execute(999L, null))
+                .expectError(NoSuchElementException.class)
+                .verify();
+
+        verify(feed, never()).suscribir(any(), any());
+    }
+}
@@ -0,0 +1,54 @@
+package ms.seti.r2dbc.franquicia;
+
+import io.r2dbc.postgresql.codec.Json;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ms.seti.model.franquicia.gateways.ArbolFranquiciaQueryRepository;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Árbol franquicia → sucursales → productos armado por Postgres en una sola sentencia (json_agg / json_build_object).
+ * - Un round-trip y una fila: el documento completo viaja como un único valor json.
+ * - Se lee como io.r2dbc.postgresql.codec.Json y se entrega en bytes: sin String intermedio ni objetos por producto.
+ * - json (no jsonb) conserva el orden de claves y evita la conversión a binario.
+ * Los productos de cada sucursal salen de uq_producto_por_sucursal, por nombre; las sucursales por id.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArbolFranquiciaR2dbcAdapter implements ArbolFranquiciaQueryRepository {
+    private static final String ARBOL_SQL = """
+            SELECT json_build_object(
+                       'id', f.id,
+                       'nombre', f.nombre,
+                       'sucursales', COALESCE((
+                           SELECT json_agg(json_build_object(
+                                      'id', s.id,
+                                      'nombre', s.nombre,
+                                      'productos', COALESCE((
+                                          SELECT json_agg(json_build_object(
+                                                     'id', p.id,
+                                                     'nombre', p.nombre,
+                                                     'stock', p.stock) ORDER BY p.nombre)
+                                          FROM dbo.producto p
+                                          WHERE p.sucursal_id = s.id), '[]'::json)) ORDER BY s.id)
+                           FROM dbo.sucursal s
+                           WHERE s.franquicia_id = f.id), '[]'::json)) AS arbol
+            FROM dbo.franquicia f
+            WHERE f.id = :franquiciaId
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<byte[]> findJsonByFranquiciaId(Long franquiciaId) {
+        return databaseClient.sql(ARBOL_SQL)
+                .bind("franquiciaId", franquiciaId)
+                .map((row, metadata) -> row.get("arbol", Json.class).asArray())
+                .one()
+                .doOnSubscribe(s -> log.info("Consultando árbol de franquiciaId={}", franquiciaId))
+                .doOnNext(json -> log.debug("Árbol de franquiciaId={}: {} bytes", franquiciaId, json.length));
+    }
+}
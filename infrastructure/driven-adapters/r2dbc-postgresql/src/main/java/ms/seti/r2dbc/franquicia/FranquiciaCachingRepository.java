@@ -0,0 +1,51 @@
+package ms.seti.r2dbc.franquicia;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ms.seti.model.franquicia.Franquicia;
+import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.r2dbc.helper.LookupCache;
+import ms.seti.r2dbc.helper.LookupCacheProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decorador con caché de findById (chequeo de existencia del padre en casi todas las solicitudes).
+ * Las escrituras propias (create / updateNombre) actualizan la entrada; el resto delega en el adapter.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "adapters.r2dbc.lookup-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class FranquiciaCachingRepository implements FranquiciaRepository {
+    private final FranquiciaR2dbcAdapter delegate;
+    private final LookupCache<Franquicia> cache;
+
+    public FranquiciaCachingRepository(FranquiciaR2dbcAdapter delegate,
+                                       LookupCacheProperties properties,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        this.delegate = delegate;
+        this.cache = new LookupCache<>("franquicia", properties, delegate::findById,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Override
+    public Mono<Franquicia> findById(Long id) {
+        return cache.get(id);
+    }
+
+    @Override
+    public Mono<Franquicia> create(Franquicia franquicia) {
+        return delegate.create(franquicia)
+                .doOnNext(creada -> cache.put(creada.id(), creada));
+    }
+
+    @Override
+    public Mono<Franquicia> updateNombre(Long id, String nuevoNombre) {
+        return delegate.updateNombre(id, nuevoNombre)
+                .doOnNext(actualizada -> cache.put(id, actualizada))
+                .doOnError(e -> cache.invalidate(id));
+    }
+}
@@ -1,11 +1,29 @@
 package ms.seti.r2dbc.franquicia;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Mono;
 
 @Repository
 public interface FranquiciaDataRepository  extends ReactiveCrudRepository<FranquiciaData, Long> {
-    Mono<Boolean> existsByNombre(String nombre);
     Mono<FranquiciaData> findByNombre(String nombre);
+
+    /** Inserción create-only en un único round-trip; vacío si el nombre ya existe (uq_franquicia_nombre). */
+    @Query("""
+            INSERT INTO dbo.franquicia (nombre)
+            VALUES (:nombre)
+            ON CONFLICT ON CONSTRAINT uq_franquicia_nombre DO NOTHING
+            RETURNING id, nombre
+            """)
+    Mono<FranquiciaData> insertIfAbsent(String nombre);
+
+    /** Renombra en un único round-trip; vacío si el id no existe (unicidad: uq_franquicia_nombre). */
+    @Query("""
+            UPDATE dbo.franquicia
+            SET nombre = :nombre
+            WHERE id = :id
+            RETURNING id, nombre
+            """)
+    Mono<FranquiciaData> updateNombre(Long id, String nombre);
 }
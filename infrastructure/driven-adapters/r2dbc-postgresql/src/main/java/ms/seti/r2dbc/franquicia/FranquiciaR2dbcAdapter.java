@@ -3,7 +3,9 @@ package ms.seti.r2dbc.franquicia;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ms.seti.model.franquicia.Franquicia;
+import ms.seti.model.franquicia.events.FranquiciaCambiada;
 import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -16,40 +18,32 @@ import java.util.NoSuchElementException;
 public class FranquiciaR2dbcAdapter implements FranquiciaRepository {
 
     private final FranquiciaDataRepository reactiveRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Mono<Franquicia> create(Franquicia franchise) {
-        var entity = toData(franchise);
-        return reactiveRepo.save(entity)
+        // INSERT ... ON CONFLICT DO NOTHING RETURNING: vacío => el nombre ya existe (409)
+        return reactiveRepo.insertIfAbsent(franchise.nombre())
+                .switchIfEmpty(Mono.error(new IllegalStateException("La franquicia ya existe")))
                 .doOnSubscribe(sus -> log.info("Guardando franquicia: {}", franchise.nombre()))
                 .map(FranquiciaR2dbcAdapter::toDomain)
                 .doOnSuccess(saved -> log.info("Guardada franquicia con id={}", saved.id()))
-                .onErrorMap(DuplicateKeyException.class,
-                        e -> new IllegalStateException("La franquicia ya existe", e));
+                .doOnNext(saved -> eventPublisher.publishEvent(new FranquiciaCambiada(FranquiciaCambiada.Tipo.CREADA, saved)));
     }
 
     @Override
     public Mono<Franquicia> updateNombre(Long id, String nuevoNombre) {
-        return reactiveRepo.findById(id)
+        // UPDATE ... RETURNING: 0 filas => no existe; el choque de nombre lo detecta uq_franquicia_nombre
+        return reactiveRepo.updateNombre(id, nuevoNombre)
                 .switchIfEmpty(Mono.error(new NoSuchElementException("Franquicia no encontrada")))
-                .flatMap(entity -> {
-                    entity.nombre = nuevoNombre;
-                    return reactiveRepo.save(entity);
-                })
                 .doOnSubscribe(s -> log.info("Actualizando nombre de franquicia id={} -> '{}'", id, nuevoNombre))
                 .map(FranquiciaR2dbcAdapter::toDomain)
                 .doOnSuccess(updated -> log.info("Actualizada franquicia id={} nombre='{}'", updated.id(), updated.nombre()))
+                .doOnNext(updated -> eventPublisher.publishEvent(new FranquiciaCambiada(FranquiciaCambiada.Tipo.ACTUALIZADA, updated)))
                 .onErrorMap(DuplicateKeyException.class,
                         e -> new IllegalStateException("La franquicia ya existe", e));
     }
 
-    @Override
-    public Mono<Boolean> existsByNombre(String nombre) {
-        return reactiveRepo.existsByNombre(nombre)
-                .doOnSubscribe(s -> log.debug("existsByNombre(nombre={})", nombre))
-                .doOnNext(exists -> log.debug("existsByNombre -> {}", exists));
-    }
-
     @Override
     public Mono<Franquicia> findById(Long id) {
         return reactiveRepo.findById(id)
@@ -65,8 +59,4 @@ public class FranquiciaR2dbcAdapter implements FranquiciaRepository {
                 .nombre(data.nombre)
                 .build();
     }
-
-    private static FranquiciaData toData(Franquicia f) {
-        return new FranquiciaData(f.id(), f.nombre());
-    }
 }
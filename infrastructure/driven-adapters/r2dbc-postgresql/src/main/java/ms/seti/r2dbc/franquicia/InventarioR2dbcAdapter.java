@@ -0,0 +1,47 @@
+package ms.seti.r2dbc.franquicia;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ms.seti.model.franquicia.gateways.InventarioQueryRepository;
+import ms.seti.model.franquicia.projections.InventarioSucursal;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * Lee dbo.sucursal_inventario (mantenida por triggers de producto).
+ * Recorre las sucursales de la franquicia (idx_sucursal_franquicia) y suma sus slots por prefijo de PK:
+ * O(sucursales * slots). LEFT JOIN: una sucursal sin productos aún no tiene contadores y se informa en 0.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventarioR2dbcAdapter implements InventarioQueryRepository {
+    private static final String INVENTARIO_SQL = """
+            SELECT s.id                                     AS sucursal_id,
+                   s.nombre                                 AS sucursal_nombre,
+                   COALESCE(sum(i.productos), 0)::BIGINT    AS productos,
+                   COALESCE(sum(i.stock_total), 0)::BIGINT  AS stock_total
+            FROM dbo.sucursal s
+                     LEFT JOIN dbo.sucursal_inventario i ON i.sucursal_id = s.id
+            WHERE s.franquicia_id = :franquiciaId
+            GROUP BY s.id, s.nombre
+            ORDER BY s.id
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<InventarioSucursal> findByFranquiciaId(Long franquiciaId) {
+        return databaseClient.sql(INVENTARIO_SQL)
+                .bind("franquiciaId", franquiciaId)
+                .map((row, metadata) -> InventarioSucursal.builder()
+                        .sucursalId(row.get("sucursal_id", Long.class))
+                        .sucursalNombre(row.get("sucursal_nombre", String.class))
+                        .productos(row.get("productos", Long.class))
+                        .stockTotal(row.get("stock_total", Long.class))
+                        .build())
+                .all()
+                .doOnSubscribe(s -> log.info("Consultando inventario de franquiciaId={}", franquiciaId));
+    }
+}
@@ -0,0 +1,221 @@
+package ms.seti.r2dbc.helper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.r2dbc.connection.ConnectionFactoryUtils;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Group commit: agrupa sentencias de una sola fila enviadas por llamadores concurrentes
+ * y las ejecuta en una única transacción (un solo COMMIT / fsync por grupo).
+ * - Cada llamador recibe su propia fila (o vacío) solo después del COMMIT.
+ * - Si alguna sentencia del grupo falla, el grupo se revierte y cada operación se reintenta
+ *   en su propia transacción, de modo que el error llega únicamente a su llamador.
+ * - Dentro del grupo las sentencias se ejecutan ordenadas por claveOrden (id de la fila), así dos grupos
+ *   en vuelo toman los bloqueos de fila de producto en el mismo orden. Las filas por sucursal que mantienen
+ *   los triggers (sucursal_inventario, producto_top_por_sucursal) no siguen ese orden: por eso el valor
+ *   por defecto es un solo grupo en vuelo.
+ * - bufferTimeout con backpressure justa: si el tope o la ventana vencen con un grupo en vuelo, el lote espera
+ *   demanda en lugar de fallar. Si aun así el procesador termina con error, se registra, se falla a cada
+ *   operación pendiente (nunca quedan colgadas) y se arranca un procesador nuevo.
+ */
+@Slf4j
+@Component
+public class GroupCommitExecutor {
+    private final GroupCommitProperties properties;
+    private final DatabaseClient databaseClient;
+    private final Counter operaciones;
+    private final Counter grupos;
+    private final Timer commitTimer;
+    private volatile Procesador procesador;
+    private volatile boolean detenido;
+
+    private static final Comparator<Operacion<?>> EN_ORDEN_DE_BLOQUEO =
+            Comparator.comparing(operacion -> operacion.claveOrden, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    public GroupCommitExecutor(GroupCommitProperties properties,
+                               DatabaseClient databaseClient,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.databaseClient = databaseClient;
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.operaciones = Counter.builder("r2dbc.group_commit.operaciones").register(registry);
+        this.grupos = Counter.builder("r2dbc.group_commit.grupos")
+                .description("Transacciones ejecutadas (operaciones / grupos = tamaño medio del grupo)")
+                .register(registry);
+        this.commitTimer = Timer.builder("r2dbc.group_commit.transaccion").register(registry);
+        this.procesador = properties.enabled() ? iniciarProcesador() : null;
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Encola una sentencia de una fila (parámetros posicionales $1..$n) y emite la fila mapeada tras el COMMIT.
+     * claveOrden es el id de la fila que bloquea la sentencia (null para inserciones, que se ejecutan al final).
+     */
+    public <T> Mono<T> submit(Long claveOrden, String sql, List<Object> parametros, Function<Row, T> mapper) {
+        return Mono.defer(() -> {
+            Operacion<T> operacion = new Operacion<>(claveOrden, sql, parametros, mapper);
+            Procesador actual = procesador;
+            // Se registra antes de encolar: si el procesador cae, el reinicio ve esta operación y la falla
+            actual.pendientes().add(operacion);
+            Sinks.EmitResult emision;
+            do {
+                emision = actual.cola().tryEmitNext(operacion);
+            } while (emision == Sinks.EmitResult.FAIL_NON_SERIALIZED);
+            if (emision.isFailure()) {
+                operacion.fallar(new IllegalStateException("Group commit no disponible; reintentar"));
+            }
+            operaciones.increment();
+            return operacion.resultado.asMono()
+                    .doFinally(signal -> actual.pendientes().remove(operacion));
+        });
+    }
+
+    @PreDestroy
+    void detener() {
+        detenido = true;
+        if (procesador != null) {
+            procesador.suscripcion().dispose();
+        }
+    }
+
+    private Procesador iniciarProcesador() {
+        Sinks.Many<Operacion<?>> cola = Sinks.many().unicast().onBackpressureBuffer();
+        Set<Operacion<?>> pendientes = ConcurrentHashMap.newKeySet();
+        Procesador nuevo = new Procesador(cola, pendientes, Disposables.swap());
+        nuevo.suscripcion().update(cola.asFlux()
+                .bufferTimeout(properties.maxBatch(), properties.window(), true)
+                .flatMap(this::commitGrupo, properties.concurrency())
+                .subscribe(null, error -> reiniciar(nuevo, error)));
+        return nuevo;
+    }
+
+    /**
+     * Supervisión: se publica un procesador nuevo, se cierra la cola del caído (nada más entra en ella)
+     * y se falla a todas sus operaciones pendientes, encoladas o en vuelo (el resultado de estas es incierto).
+     */
+    private void reiniciar(Procesador caido, Throwable error) {
+        log.error("El procesador de group commit terminó con error; se reinicia y se fallan {} operaciones pendientes",
+                caido.pendientes().size(), error);
+        if (!detenido) {
+            procesador = iniciarProcesador();
+        }
+        caido.cola().tryEmitComplete();
+        IllegalStateException causa = new IllegalStateException("Group commit reiniciado; reintentar", error);
+        caido.pendientes().forEach(operacion -> operacion.fallar(causa));
+    }
+
+    private Mono<Void> commitGrupo(List<Operacion<?>> llegada) {
+        List<Operacion<?>> grupo = llegada.stream().sorted(EN_ORDEN_DE_BLOQUEO).toList();
+        long inicio = System.nanoTime();
+        return databaseClient.inConnection(connection -> ejecutarEnTransaccion(connection, grupo))
+                .doOnSuccess(v -> {
+                    commitTimer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                    grupos.increment();
+                    grupo.forEach(Operacion::entregar);
+                })
+                .onErrorResume(error -> {
+                    log.warn("Group commit de {} operaciones revertido; se reintenta individualmente", grupo.size(), error);
+                    return Flux.fromIterable(grupo)
+                            .concatMap(this::commitIndividual)
+                            .then();
+                });
+    }
+
+    private Mono<Void> commitIndividual(Operacion<?> operacion) {
+        return databaseClient.inConnection(connection -> ejecutarEnTransaccion(connection, List.of(operacion)))
+                .doOnSuccess(v -> {
+                    grupos.increment();
+                    operacion.entregar();
+                })
+                .onErrorResume(error -> {
+                    operacion.fallar(traducir(operacion.sql, error));
+                    return Mono.empty();
+                });
+    }
+
+    private static Mono<Void> ejecutarEnTransaccion(Connection connection, List<Operacion<?>> grupo) {
+        return Mono.from(connection.beginTransaction())
+                .thenMany(Flux.fromIterable(grupo).concatMap(operacion -> operacion.ejecutar(connection)))
+                .then(Mono.from(connection.commitTransaction()))
+                .onErrorResume(error -> Mono.from(connection.rollbackTransaction())
+                        .then(Mono.error(error)));
+    }
+
+    /** Mismas excepciones de Spring que lanzaría DatabaseClient (DuplicateKeyException, etc.). */
+    private static Throwable traducir(String sql, Throwable error) {
+        return error instanceof R2dbcException r2dbcException
+                ? ConnectionFactoryUtils.convertR2dbcException("group commit", sql, r2dbcException)
+                : error;
+    }
+
+    private record Procesador(Sinks.Many<Operacion<?>> cola, Set<Operacion<?>> pendientes,
+                              Disposable.Swap suscripcion) {
+    }
+
+    private static final class Operacion<T> {
+        private final Long claveOrden;
+        private final String sql;
+        private final List<Object> parametros;
+        private final Function<Row, T> mapper;
+        private final Sinks.One<T> resultado = Sinks.one();
+        private T valor;
+
+        private Operacion(Long claveOrden, String sql, List<Object> parametros, Function<Row, T> mapper) {
+            this.claveOrden = claveOrden;
+            this.sql = sql;
+            this.parametros = parametros;
+            this.mapper = mapper;
+        }
+
+        Mono<Void> ejecutar(Connection connection) {
+            valor = null;
+            Statement statement = connection.createStatement(sql);
+            for (int i = 0; i < parametros.size(); i++) {
+                statement.bind(i, parametros.get(i));
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, metadata) -> mapper.apply(row)))
+                    .next()
+                    .doOnNext(fila -> valor = fila)
+                    .then();
+        }
+
+        void entregar() {
+            if (valor != null) {
+                resultado.tryEmitValue(valor);
+            } else {
+                resultado.tryEmitEmpty();
+            }
+        }
+
+        void fallar(Throwable error) {
+            resultado.tryEmitError(error);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ms.seti.r2dbc.helper;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Group commit (opt-in): escrituras concurrentes que llegan dentro de window (o hasta maxBatch)
+ * comparten una transacción; concurrency limita los grupos en vuelo (conexiones del pool).
+ * Por defecto un solo grupo en vuelo: las filas por sucursal que mantienen los triggers (top, inventario)
+ * no siguen el orden por id de producto, así que varios grupos concurrentes aún podrían esperarse entre sí.
+ */
+@ConfigurationProperties(prefix = "adapters.r2dbc.group-commit")
+public record GroupCommitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("2ms") Duration window,
+        @DefaultValue("64") int maxBatch,
+        @DefaultValue("1") int concurrency
+) {
+}
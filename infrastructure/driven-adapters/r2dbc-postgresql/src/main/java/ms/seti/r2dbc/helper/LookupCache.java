@@ -0,0 +1,73 @@
+package ms.seti.r2dbc.helper;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Caché asíncrona por id sobre un loader reactivo.
+ * - Las cargas concurrentes del mismo id comparten un único future (una sola consulta).
+ * - Guarda también los "no existe" (Optional.empty) con un TTL más corto.
+ * - Expone hits/misses/evictions vía CaffeineCacheMetrics con tag cache=nombre.
+ */
+public class LookupCache<V> {
+    private final AsyncLoadingCache<Long, Optional<V>> cache;
+
+    public LookupCache(String nombre, LookupCacheProperties properties,
+                       Function<Long, Mono<V>> loader, MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new TtlPorResultado<V>(properties.ttl().toNanos(), properties.negativeTtl().toNanos()))
+                .refreshAfterWrite(properties.refreshAfter())
+                .recordStats()
+                .buildAsync((id, executor) -> loader.apply(id)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .toFuture());
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), nombre);
+    }
+
+    public Mono<V> get(Long id) {
+        // suppressCancel: cancelar un suscriptor no debe cancelar la carga compartida
+        return Mono.fromFuture(cache.get(id), true)
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    /** Escritura propia confirmada: reemplaza la entrada (incluido un "no existe" previo). */
+    public void put(Long id, V valor) {
+        cache.put(id, CompletableFuture.completedFuture(Optional.of(valor)));
+    }
+
+    public void invalidate(Long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    /** Para escrituras que afectan a muchas entradas a la vez (p. ej. un valor heredado de la franquicia). */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    private record TtlPorResultado<V>(long ttlNanos, long negativeTtlNanos) implements Expiry<Long, Optional<V>> {
+        @Override
+        public long expireAfterCreate(Long id, Optional<V> valor, long currentTime) {
+            return valor.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, Optional<V> valor, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, valor, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, Optional<V> valor, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
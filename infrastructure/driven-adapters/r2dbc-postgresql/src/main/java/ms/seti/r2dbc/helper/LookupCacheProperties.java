@@ -0,0 +1,22 @@
+package ms.seti.r2dbc.helper;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Caché de búsquedas por id (franquicia / sucursal):
+ * - maximumSize: tope de entradas por caché.
+ * - ttl: vigencia de una entrada encontrada; refreshAfter: se recarga en segundo plano al leerla pasado este tiempo.
+ * - negativeTtl: vigencia de un "no existe" (absorbe barridos de ids inexistentes sin ocultar altas por mucho tiempo).
+ */
+@ConfigurationProperties(prefix = "adapters.r2dbc.lookup-cache")
+public record LookupCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("10m") Duration ttl,
+        @DefaultValue("5m") Duration refreshAfter,
+        @DefaultValue("5s") Duration negativeTtl
+) {
+}
@@ -0,0 +1,31 @@
+package ms.seti.r2dbc.helper;
+
+import io.r2dbc.spi.R2dbcException;
+
+/** Clasificación de errores de PostgreSQL por SQLSTATE (recorre la cadena de causas). */
+public class PostgresErrors {
+    public static final String FOREIGN_KEY_VIOLATION = "23503";
+    public static final String NUMERIC_VALUE_OUT_OF_RANGE = "22003";
+
+    private PostgresErrors() {}
+
+    /** true si el error (o alguna causa) es una violación de FK: el padre referenciado no existe. */
+    public static boolean isForeignKeyViolation(Throwable error) {
+        return hasSqlState(error, FOREIGN_KEY_VIOLATION);
+    }
+
+    /** true si el error (o alguna causa) es un desbordamiento numérico (p. ej. stock + delta fuera de INTEGER). */
+    public static boolean isNumericOverflow(Throwable error) {
+        return hasSqlState(error, NUMERIC_VALUE_OUT_OF_RANGE);
+    }
+
+    private static boolean hasSqlState(Throwable error, String sqlState) {
+        for (Throwable actual = error; actual != null; actual = actual.getCause()) {
+            if (actual instanceof R2dbcException r2dbcException
+                    && sqlState.equals(r2dbcException.getSqlState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
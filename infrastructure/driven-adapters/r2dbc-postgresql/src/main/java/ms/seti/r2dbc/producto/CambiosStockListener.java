@@ -0,0 +1,112 @@
+package ms.seti.r2dbc.producto;
+
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+import ms.seti.model.producto.events.CambioStock;
+import ms.seti.model.producto.events.ProductoCambiado;
+import ms.seti.model.producto.gateways.CambiosStockFeed;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Feed de cambios de stock sobre LISTEN/NOTIFY (los avisos los emite trg_producto_notificar_*).
+ * - Una sola conexión dedicada, fuera del pool, escucha para todos los suscriptores (publish + refCount):
+ *   se abre con el primero y se cierra pasado el tiempo de gracia tras irse el último.
+ * - Cada suscriptor filtra por franquicia / sucursal y tiene su propio buffer acotado: si se llena,
+ *   ese suscriptor termina con error y el resto sigue sin frenarse.
+ * - Si la conexión se pierde se reabre con backoff; LISTEN/NOTIFY no es durable, los avisos de ese
+ *   intervalo no se recuperan.
+ * La URL de spring.r2dbc debe apuntar al driver postgresql (no a r2dbc:pool).
+ */
+@Slf4j
+@Component
+public class CambiosStockListener implements CambiosStockFeed {
+    static final String CANAL = "producto_cambios";
+    private static final Duration RECONEXION_MAXIMA = Duration.ofSeconds(30);
+
+    private final CambiosStockProperties properties;
+    private final Flux<CambioStock> compartido;
+
+    public CambiosStockListener(R2dbcProperties r2dbcProperties, CambiosStockProperties properties) {
+        this.properties = properties;
+        ConnectionFactory dedicada = ConnectionFactories.get(opciones(r2dbcProperties));
+        this.compartido = Flux.usingWhen(
+                        Mono.from(dedicada.create()).cast(PostgresqlConnection.class),
+                        conexion -> conexion.createStatement("LISTEN " + CANAL).execute()
+                                .flatMap(PostgresqlResult::getRowsUpdated)
+                                .thenMany(conexion.getNotifications())
+                                // El flujo de avisos solo completa si la conexión se cerró: se trata como caída
+                                .concatWith(Mono.error(new IllegalStateException("Conexión LISTEN cerrada"))),
+                        PostgresqlConnection::close)
+                .doOnSubscribe(s -> log.info("Abriendo conexión LISTEN {}", CANAL))
+                .mapNotNull(notificacion -> parse(notificacion.getParameter()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.reconexion())
+                        .maxBackoff(RECONEXION_MAXIMA)
+                        .doBeforeRetry(reintento -> log.warn("Conexión LISTEN {} perdida; reintentando", CANAL, reintento.failure())))
+                .doOnCancel(() -> log.info("Cerrando conexión LISTEN {} (sin suscriptores)", CANAL))
+                .publish()
+                .refCount(1, properties.gracia());
+    }
+
+    @Override
+    public Flux<CambioStock> suscribir(Long franquiciaId, Long sucursalId) {
+        return compartido
+                .filter(cambio -> franquiciaId.equals(cambio.franquiciaId())
+                        && (sucursalId == null || sucursalId.equals(cambio.sucursalId())))
+                .onBackpressureBuffer(properties.bufferPorSuscriptor(),
+                        descartado -> log.warn("Suscriptor lento del feed de stock (franquicia {}): se desconecta", franquiciaId),
+                        BufferOverflowStrategy.ERROR);
+    }
+
+    /** tipo,franquicia_id,sucursal_id,producto_id,stock,version; null (se ignora) si el aviso no tiene ese formato. */
+    static CambioStock parse(String payload) {
+        String[] campos = payload == null ? new String[0] : payload.split(",", -1);
+        if (campos.length != 6) {
+            log.warn("Aviso {} con formato inesperado: '{}'", CANAL, payload);
+            return null;
+        }
+        try {
+            return CambioStock.builder()
+                    .tipo(tipo(campos[0]))
+                    .franquiciaId(Long.parseLong(campos[1]))
+                    .sucursalId(Long.parseLong(campos[2]))
+                    .productoId(Long.parseLong(campos[3]))
+                    .stock(Integer.parseInt(campos[4]))
+                    .version(Long.parseLong(campos[5]))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Aviso {} con formato inesperado: '{}'", CANAL, payload);
+            return null;
+        }
+    }
+
+    private static ProductoCambiado.Tipo tipo(String codigo) {
+        return switch (codigo) {
+            case "C" -> ProductoCambiado.Tipo.CREADO;
+            case "A" -> ProductoCambiado.Tipo.ACTUALIZADO;
+            case "E" -> ProductoCambiado.Tipo.ELIMINADO;
+            default -> throw new IllegalArgumentException("tipo desconocido: " + codigo);
+        };
+    }
+
+    private static ConnectionFactoryOptions opciones(R2dbcProperties r2dbc) {
+        ConnectionFactoryOptions.Builder builder = ConnectionFactoryOptions.parse(r2dbc.getUrl()).mutate();
+        if (r2dbc.getUsername() != null) {
+            builder.option(ConnectionFactoryOptions.USER, r2dbc.getUsername());
+        }
+        if (r2dbc.getPassword() != null) {
+            builder.option(ConnectionFactoryOptions.PASSWORD, r2dbc.getPassword());
+        }
+        return builder.build();
+    }
+}
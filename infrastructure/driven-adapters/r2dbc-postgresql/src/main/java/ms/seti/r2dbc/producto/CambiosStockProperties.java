@@ -0,0 +1,20 @@
+package ms.seti.r2dbc.producto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Feed de cambios de stock (LISTEN producto_cambios sobre una conexión dedicada):
+ * - bufferPorSuscriptor: cambios pendientes por suscriptor; al superarlo el suscriptor se desconecta.
+ * - gracia: la conexión sigue abierta este tiempo tras irse el último suscriptor (evita reconectar en ráfagas).
+ * - reconexion: espera inicial antes de reabrir una conexión perdida (crece exponencialmente hasta 30s).
+ */
+@ConfigurationProperties(prefix = "adapters.r2dbc.cambios-stock")
+public record CambiosStockProperties(
+        @DefaultValue("512") int bufferPorSuscriptor,
+        @DefaultValue("30s") Duration gracia,
+        @DefaultValue("1s") Duration reconexion
+) {
+}
@@ -0,0 +1,90 @@
+package ms.seti.r2dbc.producto;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import ms.seti.model.producto.ActualizacionStock;
+import ms.seti.model.producto.Producto;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sentencias set-based sobre dbo.producto: un lote completo viaja como arreglos
+ * y se resuelve con una sola sentencia (un round-trip por lote).
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductoBatchOperations {
+    /**
+     * Stock masivo: un solo UPDATE set-based por lote.
+     * Las filas se bloquean primero en orden de id (CTE FOR UPDATE): el orden del join de unnest es arbitrario
+     * y dos lotes concurrentes (o un lote y el group commit) podrían bloquearse mutuamente.
+     */
+    private static final String UPDATE_STOCK_LOTE_SQL = """
+            WITH bloqueo AS MATERIALIZED (
+                SELECT id FROM dbo.producto
+                WHERE id = ANY (CAST(:ids AS BIGINT[]))
+                ORDER BY id
+                FOR UPDATE
+            )
+            UPDATE dbo.producto p
+            SET stock = v.stock, version = p.version + 1
+            FROM unnest(CAST(:ids AS BIGINT[]), CAST(:stocks AS INTEGER[])) AS v(id, stock)
+            WHERE p.id = v.id
+              AND p.id IN (SELECT id FROM bloqueo)
+            RETURNING p.id, p.sucursal_id, p.nombre, p.stock, p.version, p.stock_anterior
+            """;
+
+    /** Importación: INSERT multi-fila por lote; los duplicados de (sucursal_id, nombre) se omiten. */
+    private static final String INSERT_LOTE_SQL = """
+            INSERT INTO dbo.producto (sucursal_id, nombre, stock)
+            SELECT :sucursalId, v.nombre, v.stock
+            FROM unnest(CAST(:nombres AS VARCHAR[]), CAST(:stocks AS INTEGER[])) AS v(nombre, stock)
+            ON CONFLICT ON CONSTRAINT uq_producto_por_sucursal DO NOTHING
+            RETURNING id, sucursal_id, nombre, stock, version, stock_anterior
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    /** Emite solo las filas encontradas (los ids inexistentes no aparecen). */
+    public Flux<Producto> updateStock(List<ActualizacionStock> actualizaciones) {
+        // Arreglos en orden de id: además del bloqueo previo, el UPDATE recorre los valores en ese orden
+        List<ActualizacionStock> ordenadas = actualizaciones.stream()
+                .sorted(Comparator.comparing(ActualizacionStock::productoId))
+                .toList();
+        Long[] ids = ordenadas.stream().map(ActualizacionStock::productoId).toArray(Long[]::new);
+        Integer[] stocks = ordenadas.stream().map(ActualizacionStock::stock).toArray(Integer[]::new);
+        return databaseClient.sql(UPDATE_STOCK_LOTE_SQL)
+                .bind("ids", ids)
+                .bind("stocks", stocks)
+                .map((row, metadata) -> toDomain(row))
+                .all();
+    }
+
+    /** Emite solo las filas insertadas. */
+    public Flux<Producto> insert(Long sucursalId, List<Producto> productos) {
+        String[] nombres = productos.stream().map(Producto::nombre).toArray(String[]::new);
+        Integer[] stocks = productos.stream().map(Producto::stock).toArray(Integer[]::new);
+        return databaseClient.sql(INSERT_LOTE_SQL)
+                .bind("sucursalId", sucursalId)
+                .bind("nombres", nombres)
+                .bind("stocks", stocks)
+                .map((row, metadata) -> toDomain(row))
+                .all();
+    }
+
+    /** Las sentencias que usan este mapeo devuelven stock_anterior (NULL en las inserciones). */
+    static Producto toDomain(Row row) {
+        return Producto.builder()
+                .id(row.get("id", Long.class))
+                .sucursalId(row.get("sucursal_id", Long.class))
+                .nombre(row.get("nombre", String.class))
+                .stock(row.get("stock", Integer.class))
+                .version(row.get("version", Long.class))
+                .stockAnterior(row.get("stock_anterior", Integer.class))
+                .build();
+    }
+}
@@ -3,6 +3,8 @@ package ms.seti.r2dbc.producto;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -20,4 +22,12 @@ public class ProductoData {
     String nombre;
 
     Integer stock;
+
+    @Version
+    Long version;
+
+    /** Lo fija trg_producto_stock_bajo; solo viene en el RETURNING de las escrituras de stock. */
+    @ReadOnlyProperty
+    @Column("stock_anterior")
+    Integer stockAnterior;
 }
@@ -1,10 +1,157 @@
 package ms.seti.r2dbc.producto;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
 public interface ProductoDataRepository  extends ReactiveCrudRepository<ProductoData, Long> {
-    Mono<Boolean> existsBySucursalIdAndNombre(Long sucursalId, String nombre);
+    /** Listado por nombre (primera página): recorre uq_producto_por_sucursal desde el inicio de la sucursal. */
+    @Query("""
+            SELECT id, sucursal_id, nombre, stock, version
+            FROM dbo.producto
+            WHERE sucursal_id = :sucursalId
+            ORDER BY nombre
+            LIMIT :limite
+            """)
+    Flux<ProductoData> findPaginaPorNombre(Long sucursalId, int limite);
+
+    /** Listado por nombre (páginas siguientes): arranca justo después del último nombre visto. */
+    @Query("""
+            SELECT id, sucursal_id, nombre, stock, version
+            FROM dbo.producto
+            WHERE sucursal_id = :sucursalId
+              AND nombre > :nombre
+            ORDER BY nombre
+            LIMIT :limite
+            """)
+    Flux<ProductoData> findPaginaPorNombreDespuesDe(Long sucursalId, String nombre, int limite);
+
+    /**
+     * Búsqueda por nombre en una sucursal: coincidencia parcial (ILIKE) o difusa (word_similarity, umbral de pg_trgm).
+     * Ranking: primero los que empiezan por el texto, luego por similitud y nombre.
+     */
+    @Query("""
+            SELECT id, sucursal_id, nombre, stock, version
+            FROM dbo.producto
+            WHERE sucursal_id = :sucursalId
+              AND (nombre ILIKE :contiene OR :q <% nombre)
+            ORDER BY (nombre ILIKE :prefijo) DESC, word_similarity(:q, nombre) DESC, nombre
+            LIMIT :limite
+            """)
+    Flux<ProductoData> searchBySucursalId(Long sucursalId, String q, String contiene, String prefijo, int limite);
+
+    /** Igual que searchBySucursalId sobre todas las sucursales de la franquicia (idx_producto_nombre_trgm primero). */
+    @Query("""
+            SELECT p.id, p.sucursal_id, p.nombre, p.stock, p.version
+            FROM dbo.producto p
+                     JOIN dbo.sucursal s ON s.id = p.sucursal_id
+            WHERE s.franquicia_id = :franquiciaId
+              AND (p.nombre ILIKE :contiene OR :q <% p.nombre)
+            ORDER BY (p.nombre ILIKE :prefijo) DESC, word_similarity(:q, p.nombre) DESC, p.nombre, p.id
+            LIMIT :limite
+            """)
+    Flux<ProductoData> searchByFranquiciaId(Long franquiciaId, String q, String contiene, String prefijo, int limite);
+
+    /** Listado por stock (primera página): idx_producto_sucursal_stock_id. */
+    @Query("""
+            SELECT id, sucursal_id, nombre, stock, version
+            FROM dbo.producto
+            WHERE sucursal_id = :sucursalId
+            ORDER BY stock DESC, id DESC
+            LIMIT :limite
+            """)
+    Flux<ProductoData> findPaginaPorStock(Long sucursalId, int limite);
+
+    /** Listado por stock (páginas siguientes): comparación de filas sobre el mismo orden del índice. */
+    @Query("""
+            SELECT id, sucursal_id, nombre, stock, version
+            FROM dbo.producto
+            WHERE sucursal_id = :sucursalId
+              AND (stock, id) < (:stock, :id)
+            ORDER BY stock DESC, id DESC
+            LIMIT :limite
+            """)
+    Flux<ProductoData> findPaginaPorStockDespuesDe(Long sucursalId, Integer stock, Long id, int limite);
+
+    /**
+     * Inserción create-only en un único round-trip: vacío si el nombre ya existe en la sucursal;
+     * si la sucursal no existe falla la FK (23503).
+     */
+    @Query("""
+            INSERT INTO dbo.producto (sucursal_id, nombre, stock)
+            VALUES (:sucursalId, :nombre, :stock)
+            ON CONFLICT ON CONSTRAINT uq_producto_por_sucursal DO NOTHING
+            RETURNING id, sucursal_id, nombre, stock, version
+            """)
+    Mono<ProductoData> insertIfAbsent(Long sucursalId, String nombre, Integer stock);
+
+    /**
+     * Actualiza solo el stock en un único round-trip; vacío si el id no existe.
+     * stock_anterior (fijado por trigger) permite detectar cruces de umbral sin lectura previa.
+     */
+    @Query("""
+            UPDATE dbo.producto
+            SET stock = :stock, version = version + 1
+            WHERE id = :id
+            RETURNING id, sucursal_id, nombre, stock, version, stock_anterior
+            """)
+    Mono<ProductoData> updateStock(Long id, Integer stock);
+
+    /** Igual que updateStock pero solo si la versión coincide (If-Match); vacío si no existe o cambió. */
+    @Query("""
+            UPDATE dbo.producto
+            SET stock = :stock, version = version + 1
+            WHERE id = :id
+              AND version = :version
+            RETURNING id, sucursal_id, nombre, stock, version, stock_anterior
+            """)
+    Mono<ProductoData> updateStockIfVersion(Long id, Integer stock, Long version);
+
+    /**
+     * Renombra en un único round-trip; vacío si el id no existe.
+     * La unicidad la garantiza uq_producto_por_sucursal; el mismo nombre no incrementa la versión.
+     */
+    @Query("""
+            UPDATE dbo.producto
+            SET nombre = :nombre,
+                version = CASE WHEN nombre = :nombre THEN version ELSE version + 1 END
+            WHERE id = :id
+            RETURNING id, sucursal_id, nombre, stock, version
+            """)
+    Mono<ProductoData> updateNombre(Long id, String nombre);
+
+    /** Renombrado condicional a la versión (If-Match); vacío si no existe o cambió. */
+    @Query("""
+            UPDATE dbo.producto
+            SET nombre = :nombre,
+                version = CASE WHEN nombre = :nombre THEN version ELSE version + 1 END
+            WHERE id = :id
+              AND version = :version
+            RETURNING id, sucursal_id, nombre, stock, version
+            """)
+    Mono<ProductoData> updateNombreIfVersion(Long id, String nombre, Long version);
+
+    /** Elimina y devuelve la fila borrada en un único round-trip; vacío si el id no existe. */
+    @Query("""
+            DELETE FROM dbo.producto
+            WHERE id = :id
+            RETURNING id, sucursal_id, nombre, stock, version
+            """)
+    Mono<ProductoData> deleteReturning(Long id);
+
+    /**
+     * Movimiento relativo condicional: solo aplica si el stock resultante es >= 0.
+     * Vacío si el id no existe o si el movimiento dejaría el stock en negativo.
+     */
+    @Query("""
+            UPDATE dbo.producto
+            SET stock = stock + :delta, version = version + 1
+            WHERE id = :id
+              AND stock + :delta >= 0
+            RETURNING id, sucursal_id, nombre, stock, version, stock_anterior
+            """)
+    Mono<ProductoData> adjustStock(Long id, Integer delta);
 }
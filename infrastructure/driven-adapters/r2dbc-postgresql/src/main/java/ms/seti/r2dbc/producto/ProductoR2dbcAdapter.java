@@ -2,20 +2,50 @@ package ms.seti.r2dbc.producto;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ms.seti.model.producto.ActualizacionStock;
+import ms.seti.model.producto.OrdenProductos;
 import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.events.ProductoCambiado;
 import ms.seti.model.producto.gateways.ProductoRepository;
+import ms.seti.model.sucursal.Sucursal;
+import ms.seti.model.sucursal.gateways.SucursalRepository;
+import ms.seti.r2dbc.helper.GroupCommitExecutor;
+import ms.seti.r2dbc.helper.PostgresErrors;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ConcurrentModificationException;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ProductoR2dbcAdapter implements ProductoRepository {
+    // Sentencias de una fila para el group commit (parámetros posicionales)
+    private static final String INSERT_SQL = """
+            INSERT INTO dbo.producto (sucursal_id, nombre, stock)
+            VALUES ($1, $2, $3)
+            ON CONFLICT ON CONSTRAINT uq_producto_por_sucursal DO NOTHING
+            RETURNING id, sucursal_id, nombre, stock, version, stock_anterior
+            """;
+    private static final String UPDATE_STOCK_SQL = """
+            UPDATE dbo.producto SET stock = $2, version = version + 1
+            WHERE id = $1
+            RETURNING id, sucursal_id, nombre, stock, version, stock_anterior
+            """;
+
     private final ProductoDataRepository reactiveRepository;
+    private final ProductoBatchOperations batchOperations;
+    private final StockWriteBehindBuffer stockWriteBehind;
+    private final GroupCommitExecutor groupCommit;
+    private final SucursalRepository sucursalRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Mono<Producto> create(Producto producto) {
@@ -23,60 +53,161 @@ public class ProductoR2dbcAdapter implements ProductoRepository {
             return Mono.error(new IllegalArgumentException("El endpoint de creación no permite actualizar (id debe ser null)"));
         }
 
-        ProductoData productoData = toData(producto);
-        return reactiveRepository.save(productoData)
-                .doOnSubscribe(subscription -> log.info("Insertando producto '{}' en sucursal {}", productoData.nombre, productoData.sucursalId))
-                .map(ProductoR2dbcAdapter::toDomain)
+        // INSERT ... ON CONFLICT DO NOTHING RETURNING: las restricciones reemplazan las consultas previas
+        Mono<Producto> insert = groupCommit.isEnabled()
+                ? groupCommit.submit(null, INSERT_SQL,
+                        List.of(producto.sucursalId(), producto.nombre(), producto.stock()),
+                        ProductoBatchOperations::toDomain)
+                : reactiveRepository.insertIfAbsent(producto.sucursalId(), producto.nombre(), producto.stock())
+                        .map(ProductoR2dbcAdapter::toDomain);
+        return insert
+                .switchIfEmpty(Mono.error(new IllegalStateException("El producto ya existe para esta sucursal")))
+                .doOnSubscribe(subscription -> log.info("Insertando producto '{}' en sucursal {}", producto.nombre(), producto.sucursalId()))
                 .doOnSuccess(savedProducto -> log.info("Persistido producto id={}", savedProducto.id()))
-                .onErrorMap(DuplicateKeyException.class,
-                        e -> new IllegalStateException("El producto ya existe para esta sucursal", e));
+                .flatMap(savedProducto -> publicar(ProductoCambiado.Tipo.CREADO, savedProducto))
+                .onErrorMap(PostgresErrors::isForeignKeyViolation,
+                        e -> new NoSuchElementException("Sucursal no encontrada"));
+    }
+
+    @Override
+    public Flux<Producto> createBatch(Long sucursalId, List<Producto> productos) {
+        return batchOperations.insert(sucursalId, productos)
+                .doOnSubscribe(s -> log.info("Insertando lote de {} productos en sucursal {}", productos.size(), sucursalId))
+                .concatMap(creado -> publicar(ProductoCambiado.Tipo.CREADO, creado))
+                // FK: la sucursal desapareció durante la importación
+                .onErrorMap(PostgresErrors::isForeignKeyViolation,
+                        e -> new NoSuchElementException("Sucursal no encontrada"));
     }
 
     @Override
     public Mono<Void> deleteById(Long id) {
-        return reactiveRepository.findById(id)
+        // DELETE ... RETURNING: una sola sentencia, 0 filas => no existe (incluye un borrado concurrente)
+        return reactiveRepository.deleteReturning(id)
                 .switchIfEmpty(Mono.error(new NoSuchElementException("Producto no encontrado")))
-                .doOnNext(entity -> log.info("Eliminando producto id={} (sucursalId={}, nombre='{}')",
+                .doOnSubscribe(s -> log.info("Eliminando producto id={}", id))
+                .doOnNext(entity -> log.info("Eliminado producto id={} (sucursalId={}, nombre='{}')",
                         entity.id, entity.sucursalId, entity.nombre))
-                .flatMap(entity -> reactiveRepository.deleteById(id))
-                .doOnSuccess(vacio -> log.info("Eliminado producto id={}", id));
+                .flatMap(entity -> publicar(ProductoCambiado.Tipo.ELIMINADO, toDomain(entity)))
+                .then();
     }
 
     @Override
     public Mono<Producto> updateStock(Long id, Integer stock) {
-        return reactiveRepository.findById(id)
+        if (stockWriteBehind.isEnabled()) {
+            // Write-behind: se fusiona con las escrituras del mismo producto dentro de la ventana
+            return stockWriteBehind.submit(id, stock)
+                    .doOnSubscribe(s -> log.debug("Encolando stock de producto id={} a {}", id, stock))
+                    .flatMap(updated -> publicar(ProductoCambiado.Tipo.ACTUALIZADO, updated))
+                    .onErrorMap(DataIntegrityViolationException.class,
+                            e -> new IllegalArgumentException("El stock no puede ser negativo", e));
+        }
+        // UPDATE ... RETURNING: una sola sentencia, 0 filas => no existe
+        Mono<Producto> update = groupCommit.isEnabled()
+                ? groupCommit.submit(id, UPDATE_STOCK_SQL, List.of(id, stock), ProductoBatchOperations::toDomain)
+                : reactiveRepository.updateStock(id, stock).map(ProductoR2dbcAdapter::toDomain);
+        return update
                 .switchIfEmpty(Mono.error(new NoSuchElementException("Producto no encontrado")))
-                .flatMap(productEntity -> {
-                    productEntity.stock = stock;
-                    return reactiveRepository.save(productEntity);
-                })
                 .doOnSubscribe(s -> log.info("Actualizando stock de producto id={} a {}", id, stock))
-                .map(ProductoR2dbcAdapter::toDomain)
                 .doOnSuccess(updated -> log.info("Actualizado stock producto id={} -> {}", id, updated.stock()))
+                .flatMap(updated -> publicar(ProductoCambiado.Tipo.ACTUALIZADO, updated))
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new IllegalArgumentException("El stock no puede ser negativo", e));
+    }
+
+    @Override
+    public Mono<Producto> updateStock(Long id, Integer stock, Long versionEsperada) {
+        // Condicional a la versión: sin lectura previa ni bloqueos (no pasa por write-behind ni group commit)
+        return reactiveRepository.updateStockIfVersion(id, stock, versionEsperada)
+                .switchIfEmpty(Mono.defer(() -> conflictoOInexistente(id)))
+                .doOnSubscribe(s -> log.info("Actualizando stock de producto id={} a {} (If-Match {})", id, stock, versionEsperada))
+                .map(ProductoR2dbcAdapter::toDomain)
+                .doOnSuccess(updated -> log.info("Actualizado stock producto id={} -> {} v{}", id, updated.stock(), updated.version()))
+                .flatMap(updated -> publicar(ProductoCambiado.Tipo.ACTUALIZADO, updated))
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new IllegalArgumentException("El stock no puede ser negativo", e));
+    }
+
+    @Override
+    public Mono<Producto> adjustStock(Long id, Integer delta) {
+        return reactiveRepository.adjustStock(id, delta)
+                // 0 filas: solo en el camino de error se consulta si el producto existe
+                .switchIfEmpty(Mono.defer(() -> reactiveRepository.existsById(id)
+                        .flatMap(exists -> Mono.<ProductoData>error(Boolean.TRUE.equals(exists)
+                                ? new IllegalStateException("Stock insuficiente para el movimiento")
+                                : new NoSuchElementException("Producto no encontrado")))))
+                .doOnSubscribe(s -> log.info("Movimiento de stock producto id={} delta={}", id, delta))
+                .map(ProductoR2dbcAdapter::toDomain)
+                .doOnSuccess(updated -> log.info("Aplicado movimiento producto id={} -> {}", id, updated.stock()))
+                .flatMap(updated -> publicar(ProductoCambiado.Tipo.ACTUALIZADO, updated))
+                // 22003: stock + delta no cabe en INTEGER; es un dato inválido del cliente, no un 500
+                .onErrorMap(PostgresErrors::isNumericOverflow,
+                        e -> new IllegalArgumentException("El movimiento excede el stock máximo permitido", e));
+    }
+
+    @Override
+    public Flux<Producto> updateStockBatch(List<ActualizacionStock> actualizaciones) {
+        return batchOperations.updateStock(actualizaciones)
+                .doOnSubscribe(s -> log.info("Actualizando stock en lote de {} productos", actualizaciones.size()))
+                .concatMap(updated -> publicar(ProductoCambiado.Tipo.ACTUALIZADO, updated))
                 .onErrorMap(DataIntegrityViolationException.class,
                         e -> new IllegalArgumentException("El stock no puede ser negativo", e));
     }
 
     @Override
     public Mono<Producto> updateNombre(Long id, String nuevoNombre) {
-        return reactiveRepository.findById(id)
+        // UPDATE ... RETURNING: 0 filas => no existe; el choque de nombre lo detecta uq_producto_por_sucursal
+        return reactiveRepository.updateNombre(id, nuevoNombre)
                 .switchIfEmpty(Mono.error(new NoSuchElementException("Producto no encontrado")))
-                .flatMap(entity -> {
-                    entity.nombre = nuevoNombre;
-                    return reactiveRepository.save(entity);
-                })
                 .doOnSubscribe(s -> log.info("Actualizando nombre de producto id={} -> '{}'", id, nuevoNombre))
                 .map(ProductoR2dbcAdapter::toDomain)
                 .doOnSuccess(updated -> log.info("Actualizado nombre producto id={} nombre='{}'", updated.id(), updated.nombre()))
+                .flatMap(updated -> publicar(ProductoCambiado.Tipo.ACTUALIZADO, updated))
                 .onErrorMap(DuplicateKeyException.class,
-                        e -> new IllegalStateException("El nombre de este producto ya existe para esta sucursal", e));
+                        e -> new IllegalStateException("El producto ya existe para esta sucursal", e));
+    }
+
+    @Override
+    public Mono<Producto> updateNombre(Long id, String nuevoNombre, Long versionEsperada) {
+        return reactiveRepository.updateNombreIfVersion(id, nuevoNombre, versionEsperada)
+                .switchIfEmpty(Mono.defer(() -> conflictoOInexistente(id)))
+                .doOnSubscribe(s -> log.info("Actualizando nombre de producto id={} -> '{}' (If-Match {})", id, nuevoNombre, versionEsperada))
+                .map(ProductoR2dbcAdapter::toDomain)
+                .doOnSuccess(updated -> log.info("Actualizado nombre producto id={} nombre='{}' v{}", updated.id(), updated.nombre(), updated.version()))
+                .flatMap(updated -> publicar(ProductoCambiado.Tipo.ACTUALIZADO, updated))
+                .onErrorMap(DuplicateKeyException.class,
+                        e -> new IllegalStateException("El producto ya existe para esta sucursal", e));
+    }
+
+    @Override
+    public Flux<Producto> findBySucursalId(Long sucursalId, OrdenProductos orden, Producto despuesDe, int limite) {
+        Flux<ProductoData> pagina = switch (orden) {
+            case NOMBRE -> despuesDe == null
+                    ? reactiveRepository.findPaginaPorNombre(sucursalId, limite)
+                    : reactiveRepository.findPaginaPorNombreDespuesDe(sucursalId, despuesDe.nombre(), limite);
+            case STOCK -> despuesDe == null
+                    ? reactiveRepository.findPaginaPorStock(sucursalId, limite)
+                    : reactiveRepository.findPaginaPorStockDespuesDe(sucursalId, despuesDe.stock(), despuesDe.id(), limite);
+        };
+        return pagina
+                .map(ProductoR2dbcAdapter::toDomain)
+                .doOnSubscribe(s -> log.debug("findBySucursalId(sucursalId={}, orden={}, despuesDe={}, limite={})",
+                        sucursalId, orden, despuesDe, limite));
     }
 
     @Override
-    public Mono<Boolean> existsBySucursalIdAndNombre(Long sucursalId, String nombre) {
-        return reactiveRepository.existsBySucursalIdAndNombre(sucursalId, nombre)
-                .doOnSubscribe(subscription -> log.debug("existsBySucursalIdAndNombre(sucursalId={}, nombre={})", sucursalId, nombre))
-                .doOnNext(exists -> log.debug("existsBySucursalIdAndNombre -> {}", exists));
+    public Flux<Producto> searchBySucursalId(Long sucursalId, String texto, int limite) {
+        String patron = escaparLike(texto);
+        return reactiveRepository.searchBySucursalId(sucursalId, texto, "%" + patron + "%", patron + "%", limite)
+                .map(ProductoR2dbcAdapter::toDomain)
+                .doOnSubscribe(s -> log.debug("searchBySucursalId(sucursalId={}, q='{}', limite={})", sucursalId, texto, limite));
+    }
+
+    @Override
+    public Flux<Producto> searchByFranquiciaId(Long franquiciaId, String texto, int limite) {
+        String patron = escaparLike(texto);
+        return reactiveRepository.searchByFranquiciaId(franquiciaId, texto, "%" + patron + "%", patron + "%", limite)
+                .map(ProductoR2dbcAdapter::toDomain)
+                .doOnSubscribe(s -> log.debug("searchByFranquiciaId(franquiciaId={}, q='{}', limite={})", franquiciaId, texto, limite));
     }
 
     @Override
@@ -87,6 +218,38 @@ public class ProductoR2dbcAdapter implements ProductoRepository {
                 .doOnSuccess(found -> log.debug("findById -> {}", found));
     }
 
+    /**
+     * Solo tras una escritura confirmada; los listeners (p. ej. índices en memoria, versiones de franquicia) se
+     * ejecutan en este hilo y antes de que el llamador reciba el resultado. La franquicia sale del lookup
+     * cacheado de sucursal; si no se resuelve, el evento viaja sin ella en lugar de fallar una escritura ya hecha.
+     */
+    private Mono<Producto> publicar(ProductoCambiado.Tipo tipo, Producto producto) {
+        return sucursalRepository.findById(producto.sucursalId())
+                .map(Sucursal::franquiciaId)
+                .onErrorResume(e -> {
+                    log.warn("No se pudo resolver la franquicia de la sucursal {}", producto.sucursalId(), e);
+                    return Mono.empty();
+                })
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .map(franquiciaId -> {
+                    eventPublisher.publishEvent(new ProductoCambiado(tipo, franquiciaId.orElse(null), producto));
+                    return producto;
+                });
+    }
+
+    /** 0 filas en una escritura condicional: solo en el camino de error se consulta si el producto existe. */
+    private Mono<ProductoData> conflictoOInexistente(Long id) {
+        return reactiveRepository.existsById(id)
+                .flatMap(exists -> Mono.error(Boolean.TRUE.equals(exists)
+                        ? new ConcurrentModificationException("El producto fue modificado por otra operación")
+                        : new NoSuchElementException("Producto no encontrado")));
+    }
+
+    /** El texto del usuario se busca literal: %, _ y la barra invertida no actúan como comodines de LIKE. */
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 
     // --- Mapeos ---
     private static Producto toDomain(ProductoData data) {
@@ -95,10 +258,8 @@ public class ProductoR2dbcAdapter implements ProductoRepository {
                 .sucursalId(data.sucursalId)
                 .nombre(data.nombre)
                 .stock(data.stock)
+                .version(data.version)
+                .stockAnterior(data.stockAnterior)
                 .build();
     }
-
-    private static ProductoData toData(Producto producto) {
-        return new ProductoData(producto.id(), producto.sucursalId(), producto.nombre(), producto.stock());
-    }
 }
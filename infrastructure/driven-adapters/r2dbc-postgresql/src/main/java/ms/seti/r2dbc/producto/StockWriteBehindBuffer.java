@@ -0,0 +1,169 @@
+package ms.seti.r2dbc.producto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import ms.seti.model.producto.ActualizacionStock;
+import ms.seti.model.producto.Producto;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffer write-behind para stocks absolutos de productos "calientes".
+ * - Las escrituras de un mismo productoId dentro de la ventana se fusionan (gana la última).
+ * - Al vencer la ventana (o al llegar a maxBatch productos distintos) se aplica todo con un solo UPDATE set-based.
+ * - Cada llamador recibe el resultado del flush que incluyó su escritura; si el lote falla se reintenta
+ *   producto a producto para que un error aislado no falle a todo el lote.
+ * - La transición de stock (stockAnterior → stock) de una fila fusionada se entrega solo al último escritor;
+ *   los demás reciben stockAnterior = stock, así un cruce de umbral genera una sola alerta y no una por llamador.
+ * Métricas: solicitudes vs filas escritas (ratio de fusión) y latencia de flush.
+ */
+@Slf4j
+@Component
+public class StockWriteBehindBuffer {
+    private final StockWriteBehindProperties properties;
+    private final ProductoBatchOperations batchOperations;
+    private final Counter solicitudes;
+    private final Counter filas;
+    private final Timer flushTimer;
+
+    private final Object lock = new Object();
+    private Map<Long, Pendiente> pendientes = new HashMap<>();
+    private boolean flushProgramado;
+
+    public StockWriteBehindBuffer(StockWriteBehindProperties properties,
+                                  ProductoBatchOperations batchOperations,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.batchOperations = batchOperations;
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.solicitudes = Counter.builder("producto.stock.write_behind.solicitudes")
+                .description("Escrituras de stock recibidas por el buffer")
+                .register(registry);
+        this.filas = Counter.builder("producto.stock.write_behind.filas")
+                .description("Filas escritas en base de datos tras fusionar (solicitudes / filas = ratio de fusión)")
+                .register(registry);
+        this.flushTimer = Timer.builder("producto.stock.write_behind.flush")
+                .description("Latencia de cada flush")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    public Mono<Producto> submit(Long productoId, Integer stock) {
+        return Mono.defer(() -> {
+            Sinks.One<Producto> resultado = Sinks.one();
+            boolean lleno;
+            boolean programar;
+            synchronized (lock) {
+                pendientes.computeIfAbsent(productoId, id -> new Pendiente()).agregar(stock, resultado);
+                lleno = pendientes.size() >= properties.maxBatch();
+                programar = !lleno && !flushProgramado;
+                if (programar) {
+                    flushProgramado = true;
+                }
+            }
+            solicitudes.increment();
+            if (lleno) {
+                flush();
+            } else if (programar) {
+                Mono.delay(properties.window()).subscribe(tick -> flush());
+            }
+            return resultado.asMono();
+        });
+    }
+
+    private void flush() {
+        Map<Long, Pendiente> lote;
+        synchronized (lock) {
+            flushProgramado = false;
+            if (pendientes.isEmpty()) {
+                return;
+            }
+            lote = pendientes;
+            pendientes = new HashMap<>();
+        }
+        List<ActualizacionStock> actualizaciones = lote.entrySet().stream()
+                .map(e -> new ActualizacionStock(e.getKey(), e.getValue().stock))
+                .toList();
+        long inicio = System.nanoTime();
+        batchOperations.updateStock(actualizaciones)
+                .collectMap(Producto::id)
+                .subscribe(actualizados -> {
+                            flushTimer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                            filas.increment(actualizaciones.size());
+                            lote.forEach((id, pendiente) -> pendiente.completar(actualizados.get(id)));
+                        },
+                        error -> {
+                            if (lote.size() == 1) {
+                                lote.values().forEach(pendiente -> pendiente.fallar(error));
+                                return;
+                            }
+                            log.warn("Falló el flush write-behind de {} productos; se reintenta producto a producto",
+                                    lote.size(), error);
+                            reintentarPorProducto(lote);
+                        });
+    }
+
+    /**
+     * Un error del UPDATE set-based (FK, deadlock, overflow...) no debe fallar a todos los llamadores del lote:
+     * se reaplica cada producto por separado, en serie, y solo fallan los que vuelvan a fallar.
+     */
+    private void reintentarPorProducto(Map<Long, Pendiente> lote) {
+        Flux.fromIterable(lote.entrySet())
+                .concatMap(e -> batchOperations.updateStock(List.of(new ActualizacionStock(e.getKey(), e.getValue().stock)))
+                        .next()
+                        .doOnNext(actualizado -> filas.increment())
+                        .doOnSuccess(actualizado -> e.getValue().completar(actualizado))
+                        .onErrorResume(error -> {
+                            log.error("Falló la escritura write-behind del producto {}", e.getKey(), error);
+                            e.getValue().fallar(error);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    /** Último stock pedido para un producto y los llamadores que esperan el flush. */
+    private static final class Pendiente {
+        private Integer stock;
+        private final List<Sinks.One<Producto>> esperando = new ArrayList<>(2);
+
+        void agregar(Integer nuevoStock, Sinks.One<Producto> resultado) {
+            stock = nuevoStock;
+            esperando.add(resultado);
+        }
+
+        void completar(Producto actualizado) {
+            if (actualizado == null) {
+                fallar(new NoSuchElementException("Producto no encontrado"));
+                return;
+            }
+            int ultimo = esperando.size() - 1;
+            Producto sinTransicion = ultimo > 0
+                    ? actualizado.toBuilder().stockAnterior(actualizado.stock()).build()
+                    : actualizado;
+            for (int i = 0; i < ultimo; i++) {
+                esperando.get(i).tryEmitValue(sinTransicion);
+            }
+            esperando.get(ultimo).tryEmitValue(actualizado);
+        }
+
+        void fallar(Throwable error) {
+            esperando.forEach(sink -> sink.tryEmitError(error));
+        }
+    }
+}
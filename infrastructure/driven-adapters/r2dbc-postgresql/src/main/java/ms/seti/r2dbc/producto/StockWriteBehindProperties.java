@@ -0,0 +1,18 @@
+package ms.seti.r2dbc.producto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Modo write-behind (opt-in) para updateStock.
+ * window: cuánto se espera para fusionar escrituras; maxBatch: productos distintos que fuerzan un flush inmediato.
+ */
+@ConfigurationProperties(prefix = "adapters.r2dbc.stock-write-behind")
+public record StockWriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("5ms") Duration window,
+        @DefaultValue("1000") int maxBatch
+) {
+}
@@ -0,0 +1,146 @@
+package ms.seti.r2dbc.producto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Row;
+import lombok.extern.slf4j.Slf4j;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.gateways.UmbralStockRepository;
+import ms.seti.model.producto.projections.UmbralStock;
+import ms.seti.r2dbc.helper.LookupCache;
+import ms.seti.r2dbc.helper.LookupCacheProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Umbrales de stock bajo (dbo.sucursal / dbo.franquicia) y consulta de productos actualmente bajo su umbral.
+ * - El umbral vigente por sucursal se lee en el camino de escritura de stock (solo cuando el stock baja):
+ *   va por LookupCache; las escrituras propias la actualizan o invalidan.
+ * - Recalcular producto.stock_bajo al cambiar un umbral lo hacen los triggers de sucursal / franquicia.
+ * - findStockBajoByFranquiciaId recorre idx_producto_stock_bajo (índice parcial) de cada sucursal.
+ */
+@Slf4j
+@Component
+public class UmbralStockR2dbcAdapter implements UmbralStockRepository {
+    private static final String UMBRAL_SQL = """
+            SELECT s.id AS sucursal_id, s.franquicia_id,
+                   COALESCE(s.umbral_stock_bajo, f.umbral_stock_bajo) AS umbral
+            FROM dbo.sucursal s
+                     JOIN dbo.franquicia f ON f.id = s.franquicia_id
+            WHERE s.id = :sucursalId
+            """;
+    private static final String UPDATE_UMBRAL_SUCURSAL_SQL = """
+            UPDATE dbo.sucursal s
+            SET umbral_stock_bajo = :umbral
+            FROM dbo.franquicia f
+            WHERE s.id = :sucursalId
+              AND f.id = s.franquicia_id
+            RETURNING s.id AS sucursal_id, s.franquicia_id,
+                      COALESCE(s.umbral_stock_bajo, f.umbral_stock_bajo) AS umbral
+            """;
+    private static final String UPDATE_UMBRAL_FRANQUICIA_SQL = """
+            UPDATE dbo.franquicia
+            SET umbral_stock_bajo = :umbral
+            WHERE id = :franquiciaId
+            RETURNING id
+            """;
+    private static final String STOCK_BAJO_SQL = """
+            SELECT p.id, p.sucursal_id, p.nombre, p.stock, p.version
+            FROM dbo.sucursal s
+                     JOIN dbo.producto p ON p.sucursal_id = s.id AND p.stock_bajo
+            WHERE s.franquicia_id = :franquiciaId
+            ORDER BY p.stock, p.id
+            LIMIT :limite
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final LookupCache<UmbralStock> cache;
+
+    public UmbralStockR2dbcAdapter(DatabaseClient databaseClient,
+                                   LookupCacheProperties properties,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.cache = properties.enabled()
+                ? new LookupCache<>("umbral_stock", properties, this::consultarUmbral,
+                        meterRegistry.getIfAvailable(SimpleMeterRegistry::new))
+                : null;
+    }
+
+    @Override
+    public Mono<UmbralStock> findBySucursalId(Long sucursalId) {
+        return cache != null ? cache.get(sucursalId) : consultarUmbral(sucursalId);
+    }
+
+    @Override
+    public Mono<UmbralStock> updateUmbralSucursal(Long sucursalId, Integer umbral) {
+        return bindUmbral(databaseClient.sql(UPDATE_UMBRAL_SUCURSAL_SQL), umbral)
+                .bind("sucursalId", sucursalId)
+                .map((row, metadata) -> toUmbral(row))
+                .one()
+                .switchIfEmpty(Mono.error(new NoSuchElementException("Sucursal no encontrada")))
+                .doOnSubscribe(s -> log.info("Fijando umbral de stock bajo de sucursal id={} a {}", sucursalId, umbral))
+                .doOnNext(vigente -> {
+                    if (cache != null) {
+                        cache.put(sucursalId, vigente);
+                    }
+                });
+    }
+
+    @Override
+    public Mono<Void> updateUmbralFranquicia(Long franquiciaId, Integer umbral) {
+        return bindUmbral(databaseClient.sql(UPDATE_UMBRAL_FRANQUICIA_SQL), umbral)
+                .bind("franquiciaId", franquiciaId)
+                .map((row, metadata) -> row.get("id", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(new NoSuchElementException("Franquicia no encontrada")))
+                .doOnSubscribe(s -> log.info("Fijando umbral de stock bajo de franquicia id={} a {}", franquiciaId, umbral))
+                // El umbral heredado cambia para varias sucursales: cambio poco frecuente, se vacía la caché
+                .doOnNext(id -> {
+                    if (cache != null) {
+                        cache.invalidateAll();
+                    }
+                })
+                .then();
+    }
+
+    @Override
+    public Flux<Producto> findStockBajoByFranquiciaId(Long franquiciaId, int limite) {
+        return databaseClient.sql(STOCK_BAJO_SQL)
+                .bind("franquiciaId", franquiciaId)
+                .bind("limite", limite)
+                .map((row, metadata) -> Producto.builder()
+                        .id(row.get("id", Long.class))
+                        .sucursalId(row.get("sucursal_id", Long.class))
+                        .nombre(row.get("nombre", String.class))
+                        .stock(row.get("stock", Integer.class))
+                        .version(row.get("version", Long.class))
+                        .build())
+                .all()
+                .doOnSubscribe(s -> log.debug("findStockBajoByFranquiciaId(franquiciaId={}, limite={})", franquiciaId, limite));
+    }
+
+    private Mono<UmbralStock> consultarUmbral(Long sucursalId) {
+        return databaseClient.sql(UMBRAL_SQL)
+                .bind("sucursalId", sucursalId)
+                .map((row, metadata) -> toUmbral(row))
+                .one()
+                .doOnSubscribe(s -> log.debug("consultarUmbral(sucursalId={})", sucursalId));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindUmbral(DatabaseClient.GenericExecuteSpec spec, Integer umbral) {
+        return umbral == null ? spec.bindNull("umbral", Integer.class) : spec.bind("umbral", umbral);
+    }
+
+    private static UmbralStock toUmbral(Row row) {
+        return UmbralStock.builder()
+                .sucursalId(row.get("sucursal_id", Long.class))
+                .franquiciaId(row.get("franquicia_id", Long.class))
+                .umbral(row.get("umbral", Integer.class))
+                .build();
+    }
+}
@@ -0,0 +1,356 @@
+package ms.seti.r2dbc.producto.view;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import ms.seti.model.franquicia.gateways.FranquiciaRepository;
+import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.events.ProductoCambiado;
+import ms.seti.model.producto.gateways.ProductoTopPorSucursalQueryRepository;
+import ms.seti.model.producto.projections.ProductoTopPorSucursal;
+import ms.seti.model.sucursal.gateways.SucursalRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en proceso del producto con más stock por sucursal.
+ * - Por sucursal: productos ordenados por stock desc, nombre asc, id asc; el primero se publica en un campo volatile.
+ * - Se alimenta de los eventos ProductoCambiado del adapter de escritura y se carga al arranque recorriendo la tabla.
+ * - Cada cambio se aplica solo si su versión es mayor que la conocida (eventos fuera de orden, carga concurrente);
+ *   los eliminados quedan como marca con su versión para que un evento tardío no los reviva.
+ * - Terminada la carga, un barrido periódico purga las marcas más antiguas que marcasEliminadoTtl:
+ *   pasado ese tiempo ya no queda un evento tardío ni una carga en curso que pueda revivirlas.
+ * - Mientras no termina la carga, responde la estrategia SQL configurada.
+ * - Memoria por producto: la Entrada, su nodo del TreeSet y una celda en dos arreglos paralelos (EntradasPorProducto,
+ *   claves long primitivas), sin Long en caja ni nodo de HashMap. El monitor es por sucursal: las escrituras solo
+ *   compiten con las de su misma sucursal y la lectura del top (n = 1) no lo toma.
+ * Solo es exacto si todas las escrituras de productos pasan por esta instancia: con varias instancias cada una
+ * solo ve sus propios eventos (al arrancar se registra una advertencia).
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "adapters.r2dbc.top-por-sucursal", name = "en-memoria", havingValue = "true")
+public class ProductoTopPorSucursalMemoryIndex implements ProductoTopPorSucursalQueryRepository {
+    private static final String CARGA_SQL = """
+            SELECT p.id, p.sucursal_id, p.nombre, p.stock, p.version, s.franquicia_id
+            FROM dbo.producto p
+                     JOIN dbo.sucursal s ON s.id = p.sucursal_id
+            """;
+
+    private static final Comparator<Entrada> ORDEN = Comparator
+            .comparingInt((Entrada e) -> e.stock).reversed()
+            .thenComparing(e -> e.nombre)
+            .thenComparingLong(e -> e.productoId);
+
+    private final ProductoTopPorSucursalViewR2dbcAdapter respaldo;
+    private final FranquiciaRepository franquiciaRepository;
+    private final SucursalRepository sucursalRepository;
+    private final DatabaseClient databaseClient;
+    private final TopPorSucursalProperties properties;
+
+    private final Map<Long, SucursalTop> sucursales = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> sucursalesPorFranquicia = new ConcurrentHashMap<>();
+    private volatile boolean listo;
+    private volatile Disposable barrido;
+
+    public ProductoTopPorSucursalMemoryIndex(ProductoTopPorSucursalViewR2dbcAdapter respaldo,
+                                             FranquiciaRepository franquiciaRepository,
+                                             SucursalRepository sucursalRepository,
+                                             DatabaseClient databaseClient,
+                                             TopPorSucursalProperties properties) {
+        this.respaldo = respaldo;
+        this.franquiciaRepository = franquiciaRepository;
+        this.sucursalRepository = sucursalRepository;
+        this.databaseClient = databaseClient;
+        this.properties = properties;
+        log.warn("Top por sucursal en memoria activo: solo es exacto con una única instancia que reciba todas "
+                + "las escrituras de productos; con varias instancias usar una estrategia SQL");
+    }
+
+    @Override
+    public Flux<ProductoTopPorSucursal> findByFranquiciaId(Long franquiciaId) {
+        if (!listo) {
+            return respaldo.findByFranquiciaId(franquiciaId);
+        }
+        return desdeIndice(franquiciaId, 1);
+    }
+
+    @Override
+    public Flux<ProductoTopPorSucursal> findByFranquiciaId(Long franquiciaId, int n) {
+        if (!listo) {
+            return respaldo.findByFranquiciaId(franquiciaId, n);
+        }
+        return desdeIndice(franquiciaId, n);
+    }
+
+    private Flux<ProductoTopPorSucursal> desdeIndice(Long franquiciaId, int n) {
+        Set<Long> ids = sucursalesPorFranquicia.get(franquiciaId);
+        if (ids == null) {
+            return Flux.empty();
+        }
+        // Nombres de franquicia y sucursal: lookups por id (cacheados en LookupCache)
+        return franquiciaRepository.findById(franquiciaId)
+                .flatMapMany(franquicia -> Flux.fromStream(ids.stream().sorted())
+                        .concatMap(sucursalId -> {
+                            SucursalTop sucursalTop = sucursales.get(sucursalId);
+                            List<Entrada> primeros = sucursalTop == null ? List.of() : sucursalTop.primeros(n);
+                            if (primeros.isEmpty()) {
+                                return Flux.empty();
+                            }
+                            return sucursalRepository.findById(sucursalId)
+                                    .flatMapMany(sucursal -> Flux.fromIterable(primeros)
+                                            .map(entrada -> ProductoTopPorSucursal.builder()
+                                                    .franquiciaId(franquicia.id())
+                                                    .franquiciaNombre(franquicia.nombre())
+                                                    .sucursalId(sucursal.id())
+                                                    .sucursalNombre(sucursal.nombre())
+                                                    .productoId(entrada.productoId)
+                                                    .productoNombre(entrada.nombre)
+                                                    .stock(entrada.stock)
+                                                    .build()));
+                        }))
+                .doOnSubscribe(s -> log.debug("Top por sucursal en memoria para franquiciaId={}", franquiciaId));
+    }
+
+    @EventListener
+    public void onProductoCambiado(ProductoCambiado evento) {
+        Producto producto = evento.producto();
+        if (producto == null || producto.id() == null || producto.sucursalId() == null || producto.version() == null) {
+            return;
+        }
+        SucursalTop sucursalTop = sucursales.computeIfAbsent(producto.sucursalId(), id -> new SucursalTop());
+        if (evento.tipo() == ProductoCambiado.Tipo.ELIMINADO) {
+            sucursalTop.eliminar(producto.id(), producto.version());
+        } else {
+            sucursalTop.aplicar(new Entrada(producto.id(), producto.nombre(), producto.stock(), producto.version()));
+        }
+        if (sucursalTop.franquiciaId == null && evento.franquiciaId() != null) {
+            // Sucursal creada después de la carga: el evento ya trae su franquicia
+            registrarFranquicia(producto.sucursalId(), evento.franquiciaId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        databaseClient.sql(CARGA_SQL)
+                .filter(statement -> statement.fetchSize(properties.fetchSize()))
+                .map((row, metadata) -> {
+                    Long sucursalId = row.get("sucursal_id", Long.class);
+                    registrarFranquicia(sucursalId, row.get("franquicia_id", Long.class));
+                    sucursales.computeIfAbsent(sucursalId, id -> new SucursalTop())
+                            .aplicar(new Entrada(
+                                    row.get("id", Long.class),
+                                    row.get("nombre", String.class),
+                                    row.get("stock", Integer.class),
+                                    row.get("version", Long.class)));
+                    return sucursalId;
+                })
+                .all()
+                .count()
+                .doOnSubscribe(s -> log.info("Cargando índice en memoria de top por sucursal"))
+                // Reintentar es seguro: las filas ya aplicadas se descartan por versión
+                .retryWhen(Retry.backoff(5, Duration.ofSeconds(1)))
+                .subscribe(filas -> {
+                            listo = true;
+                            programarBarrido();
+                            log.info("Índice top por sucursal listo: {} productos en {} sucursales", filas, sucursales.size());
+                        },
+                        e -> log.error("No se pudo cargar el índice top por sucursal; se mantiene la consulta SQL", e));
+    }
+
+    private void programarBarrido() {
+        long ttlNanos = properties.marcasEliminadoTtl().toNanos();
+        barrido = Flux.interval(properties.marcasEliminadoTtl())
+                .subscribe(tick -> {
+                    long limite = System.nanoTime() - ttlNanos;
+                    sucursales.values().forEach(sucursalTop -> sucursalTop.purgarMarcas(limite));
+                });
+    }
+
+    @PreDestroy
+    void detener() {
+        if (barrido != null) {
+            barrido.dispose();
+        }
+    }
+
+    private void registrarFranquicia(Long sucursalId, Long franquiciaId) {
+        sucursales.computeIfAbsent(sucursalId, id -> new SucursalTop()).franquiciaId = franquiciaId;
+        sucursalesPorFranquicia.computeIfAbsent(franquiciaId, id -> ConcurrentHashMap.newKeySet()).add(sucursalId);
+    }
+
+    /** Estado de un producto; eliminado = marca que conserva la versión del borrado y cuándo se creó. */
+    private static final class Entrada {
+        private final long productoId;
+        private final String nombre;
+        private final int stock;
+        private final long version;
+        private final boolean eliminado;
+        private final long marcadaEn;
+
+        private Entrada(long productoId, String nombre, int stock, long version) {
+            this(productoId, nombre, stock, version, false, 0L);
+        }
+
+        private Entrada(long productoId, String nombre, int stock, long version, boolean eliminado, long marcadaEn) {
+            this.productoId = productoId;
+            this.nombre = nombre;
+            this.stock = stock;
+            this.version = version;
+            this.eliminado = eliminado;
+            this.marcadaEn = marcadaEn;
+        }
+    }
+
+    private static final class SucursalTop {
+        private final TreeSet<Entrada> orden = new TreeSet<>(ORDEN);
+        private final EntradasPorProducto porProducto = new EntradasPorProducto();
+        /** Marcas de eliminado en orden de creación: la purga solo mira la cabeza. */
+        private final ArrayDeque<Entrada> marcas = new ArrayDeque<>();
+        private volatile Entrada top;
+        private volatile Long franquiciaId;
+
+        synchronized void aplicar(Entrada nueva) {
+            Entrada actual = porProducto.get(nueva.productoId);
+            if (actual != null && actual.version >= nueva.version) {
+                return;
+            }
+            if (actual != null && !actual.eliminado) {
+                orden.remove(actual);
+            }
+            porProducto.put(nueva.productoId, nueva);
+            orden.add(nueva);
+            top = orden.first();
+        }
+
+        /** n = 1 lee el campo volatile sin tomar el monitor. */
+        List<Entrada> primeros(int n) {
+            if (n == 1) {
+                Entrada actual = top;
+                return actual == null ? List.of() : List.of(actual);
+            }
+            synchronized (this) {
+                return orden.stream().limit(n).toList();
+            }
+        }
+
+        synchronized void eliminar(long productoId, long version) {
+            Entrada actual = porProducto.get(productoId);
+            if (actual != null && actual.version > version) {
+                return;
+            }
+            if (actual != null && !actual.eliminado) {
+                orden.remove(actual);
+            }
+            Entrada marca = new Entrada(productoId, null, 0, version, true, System.nanoTime());
+            porProducto.put(productoId, marca);
+            marcas.addLast(marca);
+            top = orden.isEmpty() ? null : orden.first();
+        }
+
+        /** Quita las marcas creadas antes de limite (System.nanoTime) que sigan vigentes para su producto. */
+        synchronized void purgarMarcas(long limite) {
+            while (!marcas.isEmpty() && marcas.peekFirst().marcadaEn - limite <= 0) {
+                Entrada marca = marcas.pollFirst();
+                porProducto.remove(marca.productoId, marca);
+            }
+        }
+    }
+
+    /**
+     * Mapa productoId → Entrada con claves long primitivas: direccionamiento abierto con sondeo lineal y borrado
+     * por desplazamiento hacia atrás (sin lápidas). No hay librería de colecciones primitivas en el proyecto y
+     * solo se necesitan get, put y remove condicional. Sin sincronización propia: se usa bajo el monitor de SucursalTop.
+     */
+    private static final class EntradasPorProducto {
+        private long[] claves = new long[16];
+        private Entrada[] valores = new Entrada[16];
+        private int tamano;
+
+        Entrada get(long clave) {
+            int mascara = valores.length - 1;
+            for (int i = indice(clave, mascara); valores[i] != null; i = (i + 1) & mascara) {
+                if (claves[i] == clave) {
+                    return valores[i];
+                }
+            }
+            return null;
+        }
+
+        void put(long clave, Entrada valor) {
+            // Factor de carga máximo 0,75
+            if ((tamano + 1) * 4L > valores.length * 3L) {
+                crecer();
+            }
+            int mascara = valores.length - 1;
+            int i = indice(clave, mascara);
+            while (valores[i] != null) {
+                if (claves[i] == clave) {
+                    valores[i] = valor;
+                    return;
+                }
+                i = (i + 1) & mascara;
+            }
+            claves[i] = clave;
+            valores[i] = valor;
+            tamano++;
+        }
+
+        /** Quita la clave solo si sigue asociada a valor (misma instancia). */
+        void remove(long clave, Entrada valor) {
+            int mascara = valores.length - 1;
+            int hueco = indice(clave, mascara);
+            while (valores[hueco] != null && claves[hueco] != clave) {
+                hueco = (hueco + 1) & mascara;
+            }
+            if (valores[hueco] != valor) {
+                return;
+            }
+            // Cada celda siguiente del grupo vuelve al hueco si este queda dentro de su recorrido de sondeo
+            for (int j = (hueco + 1) & mascara; valores[j] != null; j = (j + 1) & mascara) {
+                int ideal = indice(claves[j], mascara);
+                if (((j - ideal) & mascara) >= ((j - hueco) & mascara)) {
+                    claves[hueco] = claves[j];
+                    valores[hueco] = valores[j];
+                    hueco = j;
+                }
+            }
+            valores[hueco] = null;
+            tamano--;
+        }
+
+        private void crecer() {
+            long[] clavesAnteriores = claves;
+            Entrada[] valoresAnteriores = valores;
+            claves = new long[clavesAnteriores.length * 2];
+            valores = new Entrada[valoresAnteriores.length * 2];
+            tamano = 0;
+            for (int i = 0; i < valoresAnteriores.length; i++) {
+                if (valoresAnteriores[i] != null) {
+                    put(clavesAnteriores[i], valoresAnteriores[i]);
+                }
+            }
+        }
+
+        private static int indice(long clave, int mascara) {
+            // Fibonacci hashing: los ids consecutivos quedan repartidos por toda la tabla
+            return (int) ((clave * 0x9E3779B97F4A7C15L) >>> 32) & mascara;
+        }
+    }
+}
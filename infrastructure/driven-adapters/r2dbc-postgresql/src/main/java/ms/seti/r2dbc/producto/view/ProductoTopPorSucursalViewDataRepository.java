@@ -8,6 +8,9 @@ import reactor.core.publisher.Flux;
 /**
  * Es una vista, se ejecutar @Query SELECT.
  * No se usan operaciones de escritura.
+ * La vista lee la proyección dbo.producto_top_por_sucursal (mantenida por triggers):
+ * el filtro por franquicia usa idx_producto_top_por_sucursal_franquicia y el costo crece con
+ * las sucursales de la franquicia, no con el total de productos.
  */
 @Repository
 public interface ProductoTopPorSucursalViewDataRepository extends ReactiveCrudRepository<ProductoTopPorSucursalViewData, Long> {
@@ -20,4 +23,45 @@ public interface ProductoTopPorSucursalViewDataRepository extends ReactiveCrudRe
             WHERE franquicia_id = :franquiciaId
             """)
     Flux<ProductoTopPorSucursalViewData> findByFranquiciaId(Long franquiciaId);
+
+    /**
+     * Estrategia sin proyección: recorre las sucursales de la franquicia (idx_sucursal_franquicia) y toma
+     * el primero de idx_producto_sucursal_stock por cada una (LIMIT 1, index-only scan).
+     */
+    @Query("""
+            SELECT f.id     AS franquicia_id, f.nombre AS franquicia_nombre,
+                   s.id     AS sucursal_id,   s.nombre AS sucursal_nombre,
+                   t.id     AS producto_id,   t.nombre AS producto_nombre,
+                   t.stock  AS stock
+            FROM dbo.sucursal s
+                     JOIN dbo.franquicia f ON f.id = s.franquicia_id
+                     CROSS JOIN LATERAL (SELECT p.id, p.nombre, p.stock
+                                         FROM dbo.producto p
+                                         WHERE p.sucursal_id = s.id
+                                         ORDER BY p.stock DESC, p.nombre ASC
+                                         LIMIT 1) t
+            WHERE s.franquicia_id = :franquiciaId
+            """)
+    Flux<ProductoTopPorSucursalViewData> findByFranquiciaIdLateral(Long franquiciaId);
+
+    /**
+     * Top-N: mismo recorrido que la estrategia LATERAL con LIMIT :n; cada sucursal lee a lo sumo n entradas
+     * de idx_producto_sucursal_stock, sin ordenar su catálogo completo.
+     */
+    @Query("""
+            SELECT f.id     AS franquicia_id, f.nombre AS franquicia_nombre,
+                   s.id     AS sucursal_id,   s.nombre AS sucursal_nombre,
+                   t.id     AS producto_id,   t.nombre AS producto_nombre,
+                   t.stock  AS stock
+            FROM dbo.sucursal s
+                     JOIN dbo.franquicia f ON f.id = s.franquicia_id
+                     CROSS JOIN LATERAL (SELECT p.id, p.nombre, p.stock
+                                         FROM dbo.producto p
+                                         WHERE p.sucursal_id = s.id
+                                         ORDER BY p.stock DESC, p.nombre ASC
+                                         LIMIT :n) t
+            WHERE s.franquicia_id = :franquiciaId
+            ORDER BY s.id, t.stock DESC, t.nombre ASC
+            """)
+    Flux<ProductoTopPorSucursalViewData> findTopNByFranquiciaId(Long franquiciaId, int n);
 }
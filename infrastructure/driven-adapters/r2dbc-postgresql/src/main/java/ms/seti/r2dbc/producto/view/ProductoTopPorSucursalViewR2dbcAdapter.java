@@ -13,11 +13,24 @@ import reactor.core.publisher.Flux;
 public class ProductoTopPorSucursalViewR2dbcAdapter implements ProductoTopPorSucursalQueryRepository {
 
     private final ProductoTopPorSucursalViewDataRepository reactiveRepository;
+    private final TopPorSucursalProperties properties;
 
     @Override
     public Flux<ProductoTopPorSucursal> findByFranquiciaId(Long franquiciaId) {
-        return reactiveRepository.findByFranquiciaId(franquiciaId)
-                .doOnSubscribe(s -> log.info("Consultando productos top por sucursal para franquiciaId={}", franquiciaId))
+        var filas = properties.estrategia() == TopPorSucursalProperties.Estrategia.LATERAL
+                ? reactiveRepository.findByFranquiciaIdLateral(franquiciaId)
+                : reactiveRepository.findByFranquiciaId(franquiciaId);
+        return filas
+                .doOnSubscribe(s -> log.info("Consultando productos top por sucursal para franquiciaId={} ({})",
+                        franquiciaId, properties.estrategia()))
+                .map(ProductoTopPorSucursalViewR2dbcAdapter::toDomain)
+                .doOnComplete(() -> log.info("Consulta finalizada para franquiciaId={}", franquiciaId));
+    }
+
+    @Override
+    public Flux<ProductoTopPorSucursal> findByFranquiciaId(Long franquiciaId, int n) {
+        return reactiveRepository.findTopNByFranquiciaId(franquiciaId, n)
+                .doOnSubscribe(s -> log.info("Consultando top {} productos por sucursal para franquiciaId={}", n, franquiciaId))
                 .map(ProductoTopPorSucursalViewR2dbcAdapter::toDomain)
                 .doOnComplete(() -> log.info("Consulta finalizada para franquiciaId={}", franquiciaId));
     }
@@ -0,0 +1,23 @@
+package ms.seti.r2dbc.producto.view;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Estrategia de consulta del top por sucursal:
+ * - PROYECCION: lee dbo.producto_top_por_sucursal (mantenida por triggers).
+ * - LATERAL: calcula al vuelo por sucursal de la franquicia con el índice cubriente (sin depender de la proyección).
+ * enMemoria: sirve la consulta desde ProductoTopPorSucursalMemoryIndex; la estrategia SQL queda como respaldo
+ * mientras el índice se carga; marcasEliminadoTtl: vida de las marcas de productos eliminados del índice.
+ */
+@ConfigurationProperties(prefix = "adapters.r2dbc.top-por-sucursal")
+public record TopPorSucursalProperties(
+        @DefaultValue("PROYECCION") Estrategia estrategia,
+        @DefaultValue("false") boolean enMemoria,
+        @DefaultValue("1000") int fetchSize,
+        @DefaultValue("1m") Duration marcasEliminadoTtl
+) {
+    public enum Estrategia { PROYECCION, LATERAL }
+}
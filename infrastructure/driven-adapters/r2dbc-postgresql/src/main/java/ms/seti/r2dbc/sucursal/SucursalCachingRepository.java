@@ -0,0 +1,48 @@
+package ms.seti.r2dbc.sucursal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ms.seti.model.sucursal.Sucursal;
+import ms.seti.model.sucursal.gateways.SucursalRepository;
+import ms.seti.r2dbc.helper.LookupCache;
+import ms.seti.r2dbc.helper.LookupCacheProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/** Decorador con caché de findById; mismo esquema que FranquiciaCachingRepository. */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "adapters.r2dbc.lookup-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SucursalCachingRepository implements SucursalRepository {
+    private final SucursalR2dbcAdapter delegate;
+    private final LookupCache<Sucursal> cache;
+
+    public SucursalCachingRepository(SucursalR2dbcAdapter delegate,
+                                     LookupCacheProperties properties,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        this.delegate = delegate;
+        this.cache = new LookupCache<>("sucursal", properties, delegate::findById,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Override
+    public Mono<Sucursal> findById(Long id) {
+        return cache.get(id);
+    }
+
+    @Override
+    public Mono<Sucursal> create(Sucursal sucursal) {
+        return delegate.create(sucursal)
+                .doOnNext(creada -> cache.put(creada.id(), creada));
+    }
+
+    @Override
+    public Mono<Sucursal> updateNombre(Long id, String nuevoNombre) {
+        return delegate.updateNombre(id, nuevoNombre)
+                .doOnNext(actualizada -> cache.put(id, actualizada))
+                .doOnError(e -> cache.invalidate(id));
+    }
+}
@@ -1,8 +1,28 @@
 package ms.seti.r2dbc.sucursal;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Mono;
 
 public interface SucursalDataRepository extends ReactiveCrudRepository<SucursalData, Long> {
-    Mono<Boolean> existsByFranquiciaIdAndNombre(Long franquiciaId, String nombre);
+    /**
+     * Inserción create-only en un único round-trip: vacío si el nombre ya existe en la franquicia;
+     * si la franquicia no existe falla la FK (23503).
+     */
+    @Query("""
+            INSERT INTO dbo.sucursal (franquicia_id, nombre)
+            VALUES (:franquiciaId, :nombre)
+            ON CONFLICT ON CONSTRAINT uq_sucursal_por_franquicia DO NOTHING
+            RETURNING id, franquicia_id, nombre
+            """)
+    Mono<SucursalData> insertIfAbsent(Long franquiciaId, String nombre);
+
+    /** Renombra en un único round-trip; vacío si el id no existe (unicidad: uq_sucursal_por_franquicia). */
+    @Query("""
+            UPDATE dbo.sucursal
+            SET nombre = :nombre
+            WHERE id = :id
+            RETURNING id, franquicia_id, nombre
+            """)
+    Mono<SucursalData> updateNombre(Long id, String nombre);
 }
@@ -3,7 +3,10 @@ package ms.seti.r2dbc.sucursal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ms.seti.model.sucursal.Sucursal;
+import ms.seti.model.sucursal.events.SucursalCambiada;
 import ms.seti.model.sucursal.gateways.SucursalRepository;
+import ms.seti.r2dbc.helper.PostgresErrors;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -16,23 +19,19 @@ import java.util.NoSuchElementException;
 public class SucursalR2dbcAdapter  implements SucursalRepository {
 
     private final SucursalDataRepository reactiveRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Mono<Sucursal> create(Sucursal s) {
-        var data = toData(s);
-        return reactiveRepo.save(data)
-                .doOnSubscribe(sub -> log.info("Insertando sucursal '{}'", data.nombre))
+        // INSERT ... ON CONFLICT DO NOTHING RETURNING: vacío => nombre repetido (409); FK => franquicia inexistente (404)
+        return reactiveRepo.insertIfAbsent(s.franquiciaId(), s.nombre())
+                .switchIfEmpty(Mono.error(new IllegalStateException("El nombre de la sucursal ya existe para esta franquicia")))
+                .doOnSubscribe(sub -> log.info("Insertando sucursal '{}'", s.nombre()))
                 .map(SucursalR2dbcAdapter::toDomain)
                 .doOnSuccess(x -> log.info("Persistida sucursal id={}", x.id()))
-                .onErrorMap(DuplicateKeyException.class,
-                        e -> new IllegalStateException("El nombre de la sucursal ya existe para esta franquicia", e));
-    }
-
-    @Override
-    public Mono<Boolean> existsByFranquiciaIdAndNombre(Long franquiciaId, String nombre) {
-        return reactiveRepo.existsByFranquiciaIdAndNombre(franquiciaId, nombre)
-                .doOnSubscribe(sub -> log.debug("existsByFranquiciaIdAndNombre(fid={}, nombre={})", franquiciaId, nombre))
-                .doOnNext(exists -> log.debug("exists -> {}", exists));
+                .doOnNext(x -> eventPublisher.publishEvent(new SucursalCambiada(SucursalCambiada.Tipo.CREADA, x)))
+                .onErrorMap(PostgresErrors::isForeignKeyViolation,
+                        e -> new NoSuchElementException("Franquicia no encontrada"));
     }
 
     @Override
@@ -45,15 +44,13 @@ public class SucursalR2dbcAdapter  implements SucursalRepository {
 
     @Override
     public Mono<Sucursal> updateNombre(Long id, String nuevoNombre) {
-        return reactiveRepo.findById(id)
+        // UPDATE ... RETURNING: 0 filas => no existe; el choque de nombre lo detecta uq_sucursal_por_franquicia
+        return reactiveRepo.updateNombre(id, nuevoNombre)
                 .switchIfEmpty(Mono.error(new NoSuchElementException("Sucursal no encontrada")))
-                .flatMap(entity -> {
-                    entity.nombre = nuevoNombre;
-                    return reactiveRepo.save(entity);
-                })
                 .doOnSubscribe(sub -> log.info("Actualizando nombre de sucursal id={} -> '{}'", id, nuevoNombre))
                 .map(SucursalR2dbcAdapter::toDomain)
                 .doOnSuccess(updated -> log.info("Actualizada sucursal id={} nombre='{}'", updated.id(), updated.nombre()))
+                .doOnNext(updated -> eventPublisher.publishEvent(new SucursalCambiada(SucursalCambiada.Tipo.ACTUALIZADA, updated)))
                 .onErrorMap(DuplicateKeyException.class,
                         e -> new IllegalStateException("El nombre de la sucursal ya existe para esta franquicia", e));
     }
@@ -61,5 +58,4 @@ public class SucursalR2dbcAdapter  implements SucursalRepository {
     private static Sucursal toDomain(SucursalData d) {
         return Sucursal.builder().id(d.id).franquiciaId(d.franquiciaId).nombre(d.nombre).build();
     }
-    private static SucursalData toData(Sucursal s) { return new SucursalData(s.id(), s.franquiciaId(), s.nombre()); }
 }
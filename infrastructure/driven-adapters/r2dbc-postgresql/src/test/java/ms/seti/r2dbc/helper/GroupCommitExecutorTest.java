@@ -0,0 +1,136 @@
+package ms.seti.r2dbc.helper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class GroupCommitExecutorTest {
+
+    private static final Duration ESPERA = Duration.ofSeconds(2);
+    private static final Duration COMMIT_LENTO = Duration.ofMillis(100);
+    private static final String SQL = "UPDATE dbo.producto SET stock = $1 WHERE id = $2 RETURNING id";
+
+    private final DatabaseClient databaseClient = Mockito.mock(DatabaseClient.class);
+    private final Connection connection = Mockito.mock(Connection.class);
+    private final Statement statement = Mockito.mock(Statement.class);
+    private final Result result = Mockito.mock(Result.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<MeterRegistry> meterRegistry = Mockito.mock(ObjectProvider.class);
+    private GroupCommitExecutor executor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+        doReturn(Mono.empty()).when(connection).beginTransaction();
+        doReturn(Mono.empty()).when(connection).rollbackTransaction();
+        // El COMMIT tarda: mientras un grupo está en vuelo se llena el siguiente (por tope o por ventana)
+        doAnswer(inv -> Mono.delay(COMMIT_LENTO).then()).when(connection).commitTransaction();
+        when(connection.createStatement(anyString())).thenReturn(statement);
+        when(statement.bind(anyInt(), any())).thenReturn(statement);
+        doAnswer(inv -> Flux.just(result)).when(statement).execute();
+        doAnswer(inv -> Mono.just(inv.<BiFunction<Row, RowMetadata, ?>>getArgument(0)
+                .apply(Mockito.mock(Row.class), null)))
+                .when(result).map(any(BiFunction.class));
+        when(databaseClient.inConnection(any())).thenAnswer(enConexion());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.detener();
+        }
+    }
+
+    private Answer<Mono<?>> enConexion() {
+        return inv -> inv.<Function<Connection, Mono<?>>>getArgument(0).apply(connection);
+    }
+
+    private GroupCommitExecutor executor(Duration window, int maxBatch) {
+        executor = new GroupCommitExecutor(new GroupCommitProperties(true, window, maxBatch, 1),
+                databaseClient, meterRegistry);
+        return executor;
+    }
+
+    private Mono<Long> submit(long id) {
+        return executor.submit(id, SQL, List.of(10, id), row -> id);
+    }
+
+    @Test
+    void grupos_llenos_con_un_commit_en_vuelo_esperan_en_lugar_de_fallar() {
+        // given: tope de 2 y un solo grupo en vuelo; la ventana es tan larga que solo el tope cierra grupos
+        executor(Duration.ofHours(1), 2);
+
+        // when + then: los grupos 2 y 3 se llenan mientras el 1 hace COMMIT
+        StepVerifier.create(Flux.range(1, 6).flatMap(i -> submit(i)).collectList())
+                .assertNext(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L))
+                .expectComplete()
+                .verify(ESPERA);
+    }
+
+    @Test
+    void ventana_vencida_con_un_commit_en_vuelo_espera_en_lugar_de_fallar() {
+        // given
+        executor(Duration.ofMillis(20), 100);
+
+        // when: la ventana del segundo grupo vence mientras el primero sigue haciendo COMMIT
+        Mono<Long> segundo = Mono.delay(Duration.ofMillis(40)).then(Mono.defer(() -> submit(2L)));
+
+        // then
+        StepVerifier.create(Mono.zip(submit(1L), segundo))
+                .assertNext(t -> {
+                    assertThat(t.getT1()).isEqualTo(1L);
+                    assertThat(t.getT2()).isEqualTo(2L);
+                })
+                .expectComplete()
+                .verify(ESPERA);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void procesador_caido_falla_a_sus_pendientes_y_se_reinicia() {
+        // given: el primer grupo rompe el procesador (excepción fuera del Mono); los siguientes funcionan
+        doThrow(new IllegalArgumentException("fallo inesperado"))
+                .doAnswer(enConexion())
+                .when(databaseClient).inConnection(any(Function.class));
+        executor(Duration.ofHours(1), 1);
+
+        // when + then: el llamador afectado recibe un error en lugar de quedar colgado
+        StepVerifier.create(submit(1L))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("reiniciado"))
+                .verify(ESPERA);
+
+        // y las escrituras posteriores vuelven a pasar por un procesador nuevo
+        StepVerifier.create(submit(2L))
+                .expectNext(2L)
+                .expectComplete()
+                .verify(ESPERA);
+    }
+}
@@ -0,0 +1,194 @@
+package ms.seti.r2dbc.producto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ms.seti.model.producto.ActualizacionStock;
+import ms.seti.model.producto.Producto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class StockWriteBehindBufferTest {
+
+    private static final Duration ESPERA = Duration.ofSeconds(2);
+
+    private final ProductoBatchOperations batchOperations = Mockito.mock(ProductoBatchOperations.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<MeterRegistry> meterRegistry = Mockito.mock(ObjectProvider.class);
+
+    @BeforeEach
+    void setUp() {
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+    }
+
+    private StockWriteBehindBuffer buffer(Duration window, int maxBatch) {
+        return new StockWriteBehindBuffer(new StockWriteBehindProperties(true, window, maxBatch),
+                batchOperations, meterRegistry);
+    }
+
+    private static Producto producto(Long id, Integer stock) {
+        return Producto.builder().id(id).sucursalId(1L).nombre("P" + id).stock(stock).version(2L).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<ActualizacionStock>> lotesEnviados(int veces) {
+        ArgumentCaptor<List<ActualizacionStock>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchOperations, times(veces)).updateStock(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    void fusiona_escrituras_del_mismo_producto_gana_la_ultima() {
+        // given
+        when(batchOperations.updateStock(anyList())).thenReturn(Flux.just(producto(1L, 7)));
+        StockWriteBehindBuffer buffer = buffer(Duration.ofMillis(50), 100);
+
+        // when + then
+        StepVerifier.create(Mono.zip(buffer.submit(1L, 5), buffer.submit(1L, 7)))
+                .assertNext(t -> {
+                    assertThat(t.getT1().stock()).isEqualTo(7);
+                    assertThat(t.getT2().stock()).isEqualTo(7);
+                })
+                .expectComplete()
+                .verify(ESPERA);
+
+        assertThat(lotesEnviados(1)).containsExactly(List.of(new ActualizacionStock(1L, 7)));
+    }
+
+    @Test
+    void solo_el_ultimo_escritor_fusionado_recibe_la_transicion_de_stock() {
+        // given: la fila pasó de 10 a 7; la escritura intermedia (5) nunca llegó a la base de datos
+        Producto escrito = producto(1L, 7).toBuilder().stockAnterior(10).build();
+        when(batchOperations.updateStock(anyList())).thenReturn(Flux.just(escrito));
+        StockWriteBehindBuffer buffer = buffer(Duration.ofMillis(50), 100);
+
+        // when + then: un solo llamador ve el cruce, así la vigilancia de stock bajo alerta una sola vez
+        StepVerifier.create(Mono.zip(buffer.submit(1L, 5), buffer.submit(1L, 7)))
+                .assertNext(t -> {
+                    assertThat(t.getT1().stockAnterior()).isEqualTo(7);
+                    assertThat(t.getT2().stockAnterior()).isEqualTo(10);
+                })
+                .expectComplete()
+                .verify(ESPERA);
+    }
+
+    @Test
+    void flush_inmediato_al_llegar_a_max_batch() {
+        // given: la ventana es tan larga que solo el tope de lote puede disparar el flush
+        when(batchOperations.updateStock(anyList())).thenReturn(Flux.just(producto(1L, 5), producto(2L, 6)));
+        StockWriteBehindBuffer buffer = buffer(Duration.ofHours(1), 2);
+
+        // when + then
+        StepVerifier.create(Mono.zip(buffer.submit(1L, 5), buffer.submit(2L, 6)))
+                .assertNext(t -> {
+                    assertThat(t.getT1().id()).isEqualTo(1L);
+                    assertThat(t.getT2().id()).isEqualTo(2L);
+                })
+                .expectComplete()
+                .verify(ESPERA);
+
+        assertThat(lotesEnviados(1).get(0)).hasSize(2);
+    }
+
+    @Test
+    void flush_al_vencer_la_ventana() {
+        // given
+        when(batchOperations.updateStock(anyList())).thenReturn(Flux.just(producto(1L, 5)));
+        StockWriteBehindBuffer buffer = buffer(Duration.ofMillis(20), 100);
+
+        // when + then
+        StepVerifier.create(buffer.submit(1L, 5))
+                .assertNext(p -> assertThat(p.stock()).isEqualTo(5))
+                .expectComplete()
+                .verify(ESPERA);
+
+        verify(batchOperations, times(1)).updateStock(anyList());
+    }
+
+    @Test
+    void producto_inexistente_falla_solo_a_su_llamador() {
+        // given
+        when(batchOperations.updateStock(anyList())).thenReturn(Flux.just(producto(1L, 5)));
+        StockWriteBehindBuffer buffer = buffer(Duration.ofHours(1), 2);
+        Mono<Producto> existente = buffer.submit(1L, 5).cache();
+        Mono<Producto> inexistente = buffer.submit(99L, 5).cache();
+
+        // when: el segundo submit llena el lote y dispara el flush
+        existente.subscribe();
+        inexistente.subscribe(p -> { }, e -> { });
+
+        // then
+        StepVerifier.create(existente)
+                .assertNext(p -> assertThat(p.id()).isEqualTo(1L))
+                .expectComplete()
+                .verify(ESPERA);
+        StepVerifier.create(inexistente)
+                .expectError(NoSuchElementException.class)
+                .verify(ESPERA);
+    }
+
+    @Test
+    void error_del_lote_se_reintenta_producto_a_producto() {
+        // given: el UPDATE del lote falla; por separado, el producto 1 se aplica y el 2 vuelve a fallar
+        RuntimeException fallaFk = new IllegalStateException("violación de FK");
+        when(batchOperations.updateStock(anyList())).thenAnswer(inv -> {
+            List<ActualizacionStock> lote = inv.getArgument(0);
+            if (lote.size() > 1) {
+                return Flux.error(new RuntimeException("deadlock detectado"));
+            }
+            return lote.get(0).productoId() == 1L
+                    ? Flux.just(producto(1L, 5))
+                    : Flux.error(fallaFk);
+        });
+        StockWriteBehindBuffer buffer = buffer(Duration.ofHours(1), 2);
+        Mono<Producto> sano = buffer.submit(1L, 5).cache();
+        Mono<Producto> conError = buffer.submit(2L, 6).cache();
+
+        // when
+        sano.subscribe();
+        conError.subscribe(p -> { }, e -> { });
+
+        // then
+        StepVerifier.create(sano)
+                .assertNext(p -> assertThat(p.stock()).isEqualTo(5))
+                .expectComplete()
+                .verify(ESPERA);
+        StepVerifier.create(conError)
+                .expectErrorMatches(e -> e == fallaFk)
+                .verify(ESPERA);
+
+        List<List<ActualizacionStock>> lotes = lotesEnviados(3);
+        assertThat(lotes.get(0)).hasSize(2);
+        assertThat(lotes.subList(1, 3)).containsExactlyInAnyOrder(
+                List.of(new ActualizacionStock(1L, 5)),
+                List.of(new ActualizacionStock(2L, 6)));
+    }
+
+    @Test
+    void error_de_un_lote_unitario_no_se_reintenta() {
+        // given
+        when(batchOperations.updateStock(anyList())).thenReturn(Flux.error(new IllegalStateException("boom")));
+        StockWriteBehindBuffer buffer = buffer(Duration.ofMillis(10), 100);
+
+        // when + then
+        StepVerifier.create(buffer.submit(1L, 5))
+                .expectError(IllegalStateException.class)
+                .verify(ESPERA);
+
+        verify(batchOperations, times(1)).updateStock(anyList());
+    }
+}
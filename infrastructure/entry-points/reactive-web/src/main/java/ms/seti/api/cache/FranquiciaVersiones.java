@@ -0,0 +1,71 @@
+package ms.seti.api.cache;
+
+import ms.seti.model.franquicia.events.FranquiciaCambiada;
+import ms.seti.model.producto.events.ProductoCambiado;
+import ms.seti.model.sucursal.events.SucursalCambiada;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión de cambios por franquicia para GET condicional de sus lecturas.
+ * - Se incrementa con cada escritura confirmada de productos, sucursales o de la propia franquicia.
+ * - ETag débil "<epoch>-<versión>": el epoch (arranque del proceso) evita repetir etiquetas tras un reinicio.
+ * Solo ve las escrituras de esta instancia: otra instancia, SQL directo o un trigger cambian los datos sin cambiar
+ * la versión y el GET condicional respondería 304 indefinidamente. Por eso conditional-get.enabled es false por
+ * defecto y solo debe activarse en despliegues de una única instancia.
+ */
+@Component
+public class FranquiciaVersiones {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, AtomicLong> versiones = new ConcurrentHashMap<>();
+    private final boolean enabled;
+
+    public FranquiciaVersiones(@Value("${conditional-get.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /** ETag de las lecturas de la franquicia; null si el GET condicional está deshabilitado. */
+    public String etag(Long franquiciaId) {
+        if (!enabled) {
+            return null;
+        }
+        return "W/\"" + epoch + "-" + version(franquiciaId) + "\"";
+    }
+
+    /** Versión vigente de la franquicia (0 si no hubo escrituras desde el arranque). */
+    public long version(Long franquiciaId) {
+        AtomicLong version = versiones.get(franquiciaId);
+        return version == null ? 0 : version.get();
+    }
+
+    /** Se ejecuta en el hilo del adapter antes de que la escritura llegue al llamador (read-your-writes). */
+    @EventListener
+    public void onProductoCambiado(ProductoCambiado evento) {
+        if (evento.franquiciaId() != null) {
+            incrementar(evento.franquiciaId());
+        }
+    }
+
+    @EventListener
+    public void onSucursalCambiada(SucursalCambiada evento) {
+        if (evento.sucursal() != null && evento.sucursal().franquiciaId() != null) {
+            incrementar(evento.sucursal().franquiciaId());
+        }
+    }
+
+    @EventListener
+    public void onFranquiciaCambiada(FranquiciaCambiada evento) {
+        if (evento.franquicia() != null && evento.franquicia().id() != null) {
+            incrementar(evento.franquicia().id());
+        }
+    }
+
+    private void incrementar(Long franquiciaId) {
+        versiones.computeIfAbsent(franquiciaId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
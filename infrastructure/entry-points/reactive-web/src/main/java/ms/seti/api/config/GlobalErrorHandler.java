@@ -15,6 +15,7 @@ import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.ServerWebInputException;
 import reactor.core.publisher.Mono;
 
+import java.util.ConcurrentModificationException;
 import java.util.NoSuchElementException;
 
 /**
@@ -66,6 +67,7 @@ public class GlobalErrorHandler implements ErrorWebExceptionHandler {
         if (ex instanceof IllegalArgumentException) return HttpStatus.BAD_REQUEST;   // 400
         if (ex instanceof IllegalStateException) return HttpStatus.CONFLICT;      // 409
         if (ex instanceof NoSuchElementException) return HttpStatus.NOT_FOUND;     // 404
+        if (ex instanceof ConcurrentModificationException) return HttpStatus.PRECONDITION_FAILED; // 412
         if (ex instanceof DecodingException
                 || ex instanceof ServerWebInputException) return HttpStatus.BAD_REQUEST;  // 400
         return HttpStatus.INTERNAL_SERVER_ERROR;                                        // 500
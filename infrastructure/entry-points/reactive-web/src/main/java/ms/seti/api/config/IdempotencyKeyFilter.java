@@ -0,0 +1,207 @@
+package ms.seti.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ms.seti.api.dto.response.ErrorResponseDto;
+import ms.seti.api.idempotency.IdempotencyStore;
+import ms.seti.api.idempotency.IdempotencyStore.RespuestaAlmacenada;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.InetSocketAddress;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Idempotency-Key para los POST no idempotentes (creaciones y movimientos de stock).
+ * - Primera solicitud con la clave: se ejecuta y, si responde 2xx, se guarda la respuesta serializada.
+ * - Reintentos con la misma clave (mismo método, ruta y body): se repite la respuesta guardada sin tocar los casos de uso.
+ * - Reintento mientras la primera sigue en curso: 409; misma clave con otro body: 422.
+ * - Respuestas no exitosas no se guardan; el cliente puede reintentar con la misma clave.
+ * - La clave se guarda por cliente (X-Client-Id o, si falta, la dirección remota): dos clientes que elijan
+ *   la misma Idempotency-Key no comparten respuestas ni se bloquean entre sí.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyFilter implements WebFilter {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    public static final String CLIENT_ID = "X-Client-Id";
+    private static final String CLIENTE_ANONIMO = "anonimo";
+    private static final int LONGITUD_MAXIMA_CLAVE = 255;
+    /** Mismo tope que los codecs de WebFlux (256 KiB): el body se lee completo para calcular su digest. */
+    private static final int LONGITUD_MAXIMA_BODY = 256 * 1024;
+    private static final List<String> CABECERAS_GUARDADAS =
+            List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.LOCATION, HttpHeaders.ETAG);
+    private static final List<PathPattern> RUTAS = List.of(
+            PathPatternParser.defaultInstance.parse("/api/v1/franquicias"),
+            PathPatternParser.defaultInstance.parse("/api/v1/sucursales"),
+            PathPatternParser.defaultInstance.parse("/api/v1/productos"),
+            PathPatternParser.defaultInstance.parse("/api/v1/productos/{id}/stock/movimientos"));
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public @NonNull Mono<Void> filter(ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        var request = exchange.getRequest();
+        String clave = request.getHeaders().getFirst(IDEMPOTENCY_KEY);
+        if (clave == null || request.getMethod() != HttpMethod.POST
+                || RUTAS.stream().noneMatch(ruta -> ruta.matches(request.getPath().pathWithinApplication()))) {
+            return chain.filter(exchange);
+        }
+        if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            return escribirError(exchange.getResponse(), HttpStatus.BAD_REQUEST, "Idempotency-Key inválida");
+        }
+
+        String claveCompleta = identidadCliente(request) + "|" + request.getPath().value() + "|" + clave;
+        return DataBufferUtils.join(request.getBody(), LONGITUD_MAXIMA_BODY)
+                .map(IdempotencyKeyFilter::leer)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(body -> {
+                    byte[] digest = digest(body);
+                    var reserva = store.reservar(claveCompleta, digest);
+                    return switch (reserva.estado()) {
+                        case COMPLETADA -> repetir(exchange.getResponse(), reserva.respuesta());
+                        case EN_CURSO -> escribirError(exchange.getResponse(), HttpStatus.CONFLICT,
+                                "Solicitud con la misma Idempotency-Key en curso");
+                        case DISTINTA -> escribirError(exchange.getResponse(), HttpStatus.UNPROCESSABLE_ENTITY,
+                                "Idempotency-Key ya usada con un body distinto");
+                        case NUEVA -> ejecutarYGuardar(conBody(exchange, body), chain, claveCompleta, digest);
+                    };
+                })
+                .onErrorResume(DataBufferLimitException.class, e -> escribirError(exchange.getResponse(),
+                        HttpStatus.PAYLOAD_TOO_LARGE, "Body demasiado grande"));
+    }
+
+    /**
+     * La ejecución no se cancela si el cliente se desconecta: la escritura puede haberse confirmado ya,
+     * así que se deja terminar y se guarda su resultado para que el reintento lo repita en vez de re-ejecutarlo.
+     */
+    private Mono<Void> ejecutarYGuardar(ServerWebExchange exchange, WebFilterChain chain, String clave, byte[] digest) {
+        var response = new CapturingResponse(exchange.getResponse());
+        Mono<Void> ejecucion = chain.filter(exchange.mutate().response(response).build())
+                .doOnSuccess(v -> guardarOLiberar(response, clave, digest))
+                .doOnError(e -> guardarOLiberar(response, clave, digest));
+        return Mono.deferContextual(contexto -> {
+            Sinks.Empty<Void> fin = Sinks.empty();
+            ejecucion.contextWrite(contexto)
+                    .subscribe(v -> { }, fin::tryEmitError, fin::tryEmitEmpty);
+            return fin.asMono();
+        });
+    }
+
+    /** Un 2xx ya serializado se guarda aunque no haya podido entregarse (cliente desconectado). */
+    private void guardarOLiberar(CapturingResponse response, String clave, byte[] digest) {
+        HttpStatusCode status = response.getStatusCode();
+        if (status != null && status.is2xxSuccessful() && response.body != null) {
+            store.completar(clave, digest, new RespuestaAlmacenada(status.value(), response.cabecerasGuardadas(), response.body));
+        } else {
+            store.liberar(clave);
+        }
+    }
+
+    private static String identidadCliente(ServerHttpRequest request) {
+        String clienteId = request.getHeaders().getFirst(CLIENT_ID);
+        if (clienteId != null && !clienteId.isBlank() && clienteId.length() <= LONGITUD_MAXIMA_CLAVE) {
+            return "id:" + clienteId;
+        }
+        InetSocketAddress remota = request.getRemoteAddress();
+        return remota != null ? "ip:" + remota.getHostString() : CLIENTE_ANONIMO;
+    }
+
+    /** El body ya se consumió para calcular el digest: se vuelve a ofrecer a los handlers. */
+    private static ServerWebExchange conBody(ServerWebExchange exchange, byte[] body) {
+        var request = new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public @NonNull Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }
+        };
+        return exchange.mutate().request(request).build();
+    }
+
+    private static byte[] leer(DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    private static byte[] digest(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private Mono<Void> repetir(ServerHttpResponse response, RespuestaAlmacenada guardada) {
+        log.info("Idempotency-Key repetida: se devuelve la respuesta guardada ({})", guardada.status());
+        response.setStatusCode(HttpStatusCode.valueOf(guardada.status()));
+        response.getHeaders().addAll(guardada.headers());
+        response.getHeaders().set(IDEMPOTENT_REPLAYED, "true");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(guardada.body())));
+    }
+
+    private Mono<Void> escribirError(ServerHttpResponse response, HttpStatus status, String mensaje) {
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return Mono.fromCallable(() -> objectMapper.writeValueAsBytes(new ErrorResponseDto(mensaje)))
+                .flatMap(bytes -> response.writeWith(Mono.just(response.bufferFactory().wrap(bytes))));
+    }
+
+    /** Copia el body escrito (respuestas pequeñas de creación) para poder repetirlo. */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+        private byte[] body;
+
+        CapturingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public @NonNull Mono<Void> writeWith(@NonNull Publisher<? extends DataBuffer> publisher) {
+            return DataBufferUtils.join(publisher)
+                    .flatMap(joined -> {
+                        byte[] bytes = leer(joined);
+                        body = bytes;
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        HttpHeaders cabecerasGuardadas() {
+            HttpHeaders headers = new HttpHeaders();
+            CABECERAS_GUARDADAS.forEach(nombre -> {
+                List<String> valores = getHeaders().get(nombre);
+                if (valores != null) {
+                    headers.put(nombre, valores);
+                }
+            });
+            return headers;
+        }
+    }
+}
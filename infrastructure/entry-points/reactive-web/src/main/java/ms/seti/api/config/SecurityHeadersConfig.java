@@ -1,6 +1,7 @@
 package ms.seti.api.config;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
@@ -20,6 +21,13 @@ public class SecurityHeadersConfig implements WebFilter {
         headers.set("Cache-Control", "no-store");
         headers.set("Pragma", "no-cache");
         headers.set("Referrer-Policy", "strict-origin-when-cross-origin");
+        // GET con ETag (condicional): el cliente puede guardarlo, pero siempre revalida con If-None-Match
+        exchange.getResponse().beforeCommit(() -> {
+            if (exchange.getRequest().getMethod() == HttpMethod.GET && headers.getETag() != null) {
+                headers.setCacheControl("no-cache");
+            }
+            return Mono.empty();
+        });
         return chain.filter(exchange);
     }
 }
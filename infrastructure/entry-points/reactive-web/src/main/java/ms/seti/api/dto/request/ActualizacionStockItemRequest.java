@@ -0,0 +1,5 @@
+package ms.seti.api.dto.request;
+
+/** Item de la actualización masiva de stock (valor absoluto, stock null -> 0). */
+public record ActualizacionStockItemRequest(Long productoId, Integer stock) {
+}
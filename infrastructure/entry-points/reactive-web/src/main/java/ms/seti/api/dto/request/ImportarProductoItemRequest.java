@@ -0,0 +1,5 @@
+package ms.seti.api.dto.request;
+
+/** Item de la importación masiva (JSON array o NDJSON). stock es opcional, default 0. */
+public record ImportarProductoItemRequest(String nombre, Integer stock) {
+}
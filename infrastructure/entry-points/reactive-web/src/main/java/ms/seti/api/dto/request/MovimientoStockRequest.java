@@ -0,0 +1,5 @@
+package ms.seti.api.dto.request;
+
+/** Movimiento relativo de stock: positivo = entrada, negativo = salida. */
+public record MovimientoStockRequest(Integer cantidad) {
+}
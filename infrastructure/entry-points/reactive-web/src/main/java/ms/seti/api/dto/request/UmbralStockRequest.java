@@ -0,0 +1,8 @@
+package ms.seti.api.dto.request;
+
+import jakarta.validation.constraints.Min;
+
+/** Payload para fijar el umbral de stock bajo; umbral null lo quita. */
+public record UmbralStockRequest(
+        @Min(1) Integer umbral
+) {}
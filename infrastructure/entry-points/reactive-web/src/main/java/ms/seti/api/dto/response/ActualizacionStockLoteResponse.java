@@ -0,0 +1,7 @@
+package ms.seti.api.dto.response;
+
+import java.util.List;
+
+/** Resumen de la actualización masiva: total aplicado y detalle solo de los items rechazados. */
+public record ActualizacionStockLoteResponse(long actualizados, List<ResultadoStockItemResponse> rechazados) {
+}
@@ -0,0 +1,13 @@
+package ms.seti.api.dto.response;
+
+public record AlertaStockBajoResponse(
+        Long franquiciaId,
+        Long sucursalId,
+        Long productoId,
+        String productoNombre,
+        Integer stockAnterior,
+        Integer stock,
+        Integer umbral,
+        Long version
+) {
+}
@@ -0,0 +1,12 @@
+package ms.seti.api.dto.response;
+
+/** tipo: CREADO | ACTUALIZADO | ELIMINADO. */
+public record CambioStockResponse(
+        String tipo,
+        Long franquiciaId,
+        Long sucursalId,
+        Long productoId,
+        Integer stock,
+        Long version
+) {
+}
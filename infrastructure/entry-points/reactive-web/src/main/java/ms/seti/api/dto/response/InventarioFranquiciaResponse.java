@@ -0,0 +1,13 @@
+package ms.seti.api.dto.response;
+
+import java.util.List;
+
+/** Inventario de una franquicia: totales y detalle por sucursal. */
+public record InventarioFranquiciaResponse(
+        Long franquiciaId,
+        String franquiciaNombre,
+        long productos,
+        long stockTotal,
+        List<InventarioSucursalResponse> sucursales
+) {
+}
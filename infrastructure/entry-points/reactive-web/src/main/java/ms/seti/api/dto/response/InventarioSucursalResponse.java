@@ -0,0 +1,4 @@
+package ms.seti.api.dto.response;
+
+public record InventarioSucursalResponse(Long sucursalId, String sucursalNombre, long productos, long stockTotal) {
+}
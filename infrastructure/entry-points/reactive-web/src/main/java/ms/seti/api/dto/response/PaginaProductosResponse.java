@@ -0,0 +1,7 @@
+package ms.seti.api.dto.response;
+
+import java.util.List;
+
+/** Página del listado de productos; siguienteCursor es null en la última página. */
+public record PaginaProductosResponse(List<ProductoResponse> productos, String siguienteCursor) {
+}
@@ -0,0 +1,4 @@
+package ms.seti.api.dto.response;
+
+public record ResultadoImportacionResponse(long creados, long duplicados, long invalidos) {
+}
@@ -0,0 +1,4 @@
+package ms.seti.api.dto.response;
+
+public record ResultadoStockItemResponse(Long productoId, Integer stock, String estado, String detalle) {
+}
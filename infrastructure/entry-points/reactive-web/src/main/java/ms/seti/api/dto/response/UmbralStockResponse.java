@@ -0,0 +1,5 @@
+package ms.seti.api.dto.response;
+
+/** Umbral vigente de la sucursal (propio o heredado de la franquicia); null: sin vigilancia. */
+public record UmbralStockResponse(Long sucursalId, Long franquiciaId, Integer umbral) {
+}
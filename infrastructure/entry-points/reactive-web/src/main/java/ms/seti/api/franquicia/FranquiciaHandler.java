@@ -2,33 +2,72 @@ package ms.seti.api.franquicia;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ms.seti.api.cache.FranquiciaVersiones;
 import ms.seti.api.dto.request.ActualizarFranquiciaRequest;
 import ms.seti.api.dto.request.CrearFranquiciaRequest;
+import ms.seti.api.dto.request.UmbralStockRequest;
+import ms.seti.api.dto.response.AlertaStockBajoResponse;
+import ms.seti.api.dto.response.CambioStockResponse;
 import ms.seti.api.dto.response.ErrorResponseDto;
+import ms.seti.api.dto.response.InventarioFranquiciaResponse;
+import ms.seti.api.dto.response.InventarioSucursalResponse;
+import ms.seti.api.dto.response.PaginaProductosResponse;
+import ms.seti.api.dto.response.ProductoResponse;
 import ms.seti.api.dto.response.ResponseDto;
+import ms.seti.api.support.ETags;
 import ms.seti.model.franquicia.Franquicia;
+import ms.seti.model.franquicia.projections.InventarioFranquicia;
+import ms.seti.model.producto.events.AlertaStockBajo;
+import ms.seti.model.producto.events.CambioStock;
 import ms.seti.usecase.ActualizarNombreFranquiciaUseCase;
+import ms.seti.usecase.BuscarProductosFranquiciaUseCase;
+import ms.seti.usecase.ConfigurarUmbralStockFranquiciaUseCase;
 import ms.seti.usecase.CrearFranquiciaUseCase;
+import ms.seti.usecase.ListarProductosStockBajoUseCase;
+import ms.seti.usecase.ObtenerArbolFranquiciaUseCase;
+import ms.seti.usecase.ObtenerInventarioFranquiciaUseCase;
+import ms.seti.usecase.SuscribirAlertasStockBajoUseCase;
+import ms.seti.usecase.SuscribirCambiosStockUseCase;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 
 import java.net.URI;
+import java.time.Duration;
 
 import static ms.seti.api.support.BaseHandler.createdJson;
 import static ms.seti.api.support.BaseHandler.readRequiredBody;
 import static ms.seti.api.support.HttpErrors.selectOnErrorResponse;
 import static ms.seti.api.support.PathVars.validateLongId;
+import static ms.seti.api.support.QueryParams.optionalInt;
+import static ms.seti.api.support.QueryParams.optionalLong;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class FranquiciaHandler {
+    private static final int LIMITE_BUSQUEDA_POR_DEFECTO = 20;
+    private static final int LIMITE_STOCK_BAJO_POR_DEFECTO = 100;
+    /** Comentario SSE periódico: mantiene viva la conexión ante proxies con timeout de inactividad. */
+    private static final Duration KEEPALIVE_SSE = Duration.ofSeconds(15);
+
     private final CrearFranquiciaUseCase crearUseCase;
     private final ActualizarNombreFranquiciaUseCase actualizarNombreUseCase;
+    private final ObtenerInventarioFranquiciaUseCase inventarioUseCase;
+    private final FranquiciaVersiones franquiciaVersiones;
+    private final BuscarProductosFranquiciaUseCase buscarProductosUseCase;
+    private final ConfigurarUmbralStockFranquiciaUseCase configurarUmbralStockUseCase;
+    private final ListarProductosStockBajoUseCase listarProductosStockBajoUseCase;
+    private final SuscribirAlertasStockBajoUseCase alertasStockBajoUseCase;
+    private final ObtenerArbolFranquiciaUseCase arbolUseCase;
+    private final SuscribirCambiosStockUseCase cambiosStockUseCase;
 
     public Mono<ServerResponse> crear(ServerRequest req) {
         return readRequiredBody(req, CrearFranquiciaRequest.class)
@@ -54,6 +93,184 @@ public class FranquiciaHandler {
                 .onErrorResume(selectOnErrorResponse());
     }
 
+    /** GET /api/v1/franquicias/{id}/inventario (If-None-Match con la versión vigente => 304 sin consultar) */
+    public Mono<ServerResponse> inventario(ServerRequest request) {
+        return validateLongId(request, "id")
+                .flatMap(franquiciaId -> {
+                    String etag = franquiciaVersiones.etag(franquiciaId);
+                    if (etag != null && ETags.ifNoneMatch(request, etag)) {
+                        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    ServerResponse.BodyBuilder ok = ServerResponse.ok();
+                    if (etag != null) {
+                        ok.eTag(etag);
+                    }
+                    return inventarioUseCase.execute(franquiciaId)
+                            .flatMap(inventario -> ok
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .bodyValue(toResponse(inventario)));
+                })
+                .doOnSubscribe(sub -> log.info("GET /api/v1/franquicias/{}/inventario", request.pathVariable("id")))
+                .doOnError(e -> log.error("Error GET /franquicias/{}/inventario", request.pathVariable("id"), e))
+                .onErrorResume(selectOnErrorResponse());
+    }
+
+    /**
+     * GET /api/v1/franquicias/{id}/arbol (franquicia con sus sucursales y productos)
+     * El JSON lo arma la base de datos y sus bytes se escriben tal cual; If-None-Match como en inventario.
+     */
+    public Mono<ServerResponse> arbol(ServerRequest request) {
+        return validateLongId(request, "id")
+                .flatMap(franquiciaId -> {
+                    String etag = franquiciaVersiones.etag(franquiciaId);
+                    if (etag != null && ETags.ifNoneMatch(request, etag)) {
+                        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    ServerResponse.BodyBuilder ok = ServerResponse.ok();
+                    if (etag != null) {
+                        ok.eTag(etag);
+                    }
+                    return arbolUseCase.execute(franquiciaId)
+                            .flatMap(json -> ok
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .bodyValue(json));
+                })
+                .doOnSubscribe(sub -> log.info("GET /api/v1/franquicias/{}/arbol", request.pathVariable("id")))
+                .doOnError(e -> log.error("Error GET /franquicias/{}/arbol", request.pathVariable("id"), e))
+                .onErrorResume(selectOnErrorResponse());
+    }
+
+    /** GET /api/v1/franquicias/{id}/productos?q=&limite= */
+    public Mono<ServerResponse> buscarProductos(ServerRequest request) {
+        String q = request.queryParam("q").orElse("");
+        return validateLongId(request, "id")
+                .zipWith(optionalInt(request, "limite", LIMITE_BUSQUEDA_POR_DEFECTO))
+                .flatMap(tuple -> buscarProductosUseCase.execute(tuple.getT1(), q, tuple.getT2())
+                        .map(p -> new ProductoResponse(p.id(), p.sucursalId(), p.nombre(), p.stock()))
+                        .collectList())
+                .flatMap(productos -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new PaginaProductosResponse(productos, null)))
+                .doOnSubscribe(sub -> log.info("GET /api/v1/franquicias/{}/productos?q={}", request.pathVariable("id"), q))
+                .doOnError(e -> log.error("Error GET /franquicias/{}/productos?q=", request.pathVariable("id"), e))
+                .onErrorResume(selectOnErrorResponse());
+    }
+
+    /** PUT /api/v1/franquicias/{id}/umbral-stock-bajo (umbral por defecto de sus sucursales; null lo quita) */
+    public Mono<ServerResponse> umbralStockBajo(ServerRequest request) {
+        return validateLongId(request, "id")
+                .zipWith(readRequiredBody(request, UmbralStockRequest.class))
+                .flatMap(tuple -> configurarUmbralStockUseCase.execute(tuple.getT1(), tuple.getT2().umbral()))
+                .then(ServerResponse.noContent().build())
+                .doOnSubscribe(sub -> log.info("PUT /api/v1/franquicias/{}/umbral-stock-bajo", request.pathVariable("id")))
+                .doOnError(e -> log.error("Error PUT /franquicias/{}/umbral-stock-bajo", request.pathVariable("id"), e))
+                .onErrorResume(selectOnErrorResponse());
+    }
+
+    /** GET /api/v1/franquicias/{id}/productos/stock-bajo?limite= (productos actualmente bajo su umbral) */
+    public Mono<ServerResponse> productosStockBajo(ServerRequest request) {
+        return validateLongId(request, "id")
+                .zipWith(optionalInt(request, "limite", LIMITE_STOCK_BAJO_POR_DEFECTO))
+                .flatMap(tuple -> listarProductosStockBajoUseCase.execute(tuple.getT1(), tuple.getT2())
+                        .map(p -> new ProductoResponse(p.id(), p.sucursalId(), p.nombre(), p.stock()))
+                        .collectList())
+                .flatMap(productos -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new PaginaProductosResponse(productos, null)))
+                .doOnSubscribe(sub -> log.info("GET /api/v1/franquicias/{}/productos/stock-bajo", request.pathVariable("id")))
+                .doOnError(e -> log.error("Error GET /franquicias/{}/productos/stock-bajo", request.pathVariable("id"), e))
+                .onErrorResume(selectOnErrorResponse());
+    }
+
+    /**
+     * GET /api/v1/franquicias/{id}/alertas/stock-bajo?sucursalId= (SSE)
+     * Emite un evento "stock-bajo" por cada escritura de stock que cruza el umbral desde la suscripción;
+     * el id del evento (productoId:version) permite descartar repetidos.
+     */
+    public Mono<ServerResponse> alertasStockBajo(ServerRequest request) {
+        return validateLongId(request, "id")
+                .zipWith(optionalLong(request, "sucursalId"))
+                .flatMap(tuple -> {
+                    // El 404 de la franquicia llega antes del primer evento: todavía se responde con su status
+                    Flux<ServerSentEvent<AlertaStockBajoResponse>> alertas = alertasStockBajoUseCase
+                            .execute(tuple.getT1(), tuple.getT2().orElse(null))
+                            .map(alerta -> ServerSentEvent.builder(toResponse(alerta))
+                                    .id(alerta.productoId() + ":" + alerta.version())
+                                    .event("stock-bajo")
+                                    .build());
+                    Flux<ServerSentEvent<AlertaStockBajoResponse>> keepalive = Flux.interval(KEEPALIVE_SSE)
+                            .map(tick -> ServerSentEvent.<AlertaStockBajoResponse>builder().comment("keepalive").build());
+                    return ServerResponse.ok()
+                            .contentType(MediaType.TEXT_EVENT_STREAM)
+                            .body(BodyInserters.fromServerSentEvents(Flux.merge(alertas, keepalive)));
+                })
+                .doOnSubscribe(sub -> log.info("GET /api/v1/franquicias/{}/alertas/stock-bajo", request.pathVariable("id")))
+                .doOnError(e -> log.error("Error GET /franquicias/{}/alertas/stock-bajo", request.pathVariable("id"), e))
+                .onErrorResume(selectOnErrorResponse());
+    }
+
+    /**
+     * GET /api/v1/franquicias/{id}/productos/cambios?sucursalId= (SSE)
+     * Un evento "stock" por cada producto creado, eliminado o con cambio de stock, confirmado en la base de datos.
+     * Un cliente que no consume al ritmo de los cambios es desconectado (debe reconectar y releer el estado).
+     */
+    public Mono<ServerResponse> cambiosStock(ServerRequest request) {
+        return validateLongId(request, "id")
+                .zipWith(optionalLong(request, "sucursalId"))
+                .flatMap(tuple -> {
+                    // El 404 de la franquicia llega antes del primer evento: todavía se responde con su status
+                    Flux<ServerSentEvent<CambioStockResponse>> cambios = cambiosStockUseCase
+                            .execute(tuple.getT1(), tuple.getT2().orElse(null))
+                            .map(cambio -> ServerSentEvent.builder(toResponse(cambio))
+                                    .id(cambio.productoId() + ":" + cambio.version())
+                                    .event("stock")
+                                    .build())
+                            .doOnError(e -> log.warn("Fin del feed de stock /franquicias/{}/productos/cambios: {}",
+                                    tuple.getT1(), e.toString()));
+                    Flux<ServerSentEvent<CambioStockResponse>> keepalive = Flux.interval(KEEPALIVE_SSE)
+                            .map(tick -> ServerSentEvent.<CambioStockResponse>builder().comment("keepalive").build());
+                    return ServerResponse.ok()
+                            .contentType(MediaType.TEXT_EVENT_STREAM)
+                            .body(BodyInserters.fromServerSentEvents(Flux.merge(cambios, keepalive)));
+                })
+                .doOnSubscribe(sub -> log.info("GET /api/v1/franquicias/{}/productos/cambios", request.pathVariable("id")))
+                .doOnError(e -> log.error("Error GET /franquicias/{}/productos/cambios", request.pathVariable("id"), e))
+                .onErrorResume(selectOnErrorResponse());
+    }
+
+    private static CambioStockResponse toResponse(CambioStock cambio) {
+        return new CambioStockResponse(
+                cambio.tipo().name(),
+                cambio.franquiciaId(),
+                cambio.sucursalId(),
+                cambio.productoId(),
+                cambio.stock(),
+                cambio.version());
+    }
+
+    private static AlertaStockBajoResponse toResponse(AlertaStockBajo alerta) {
+        return new AlertaStockBajoResponse(
+                alerta.franquiciaId(),
+                alerta.sucursalId(),
+                alerta.productoId(),
+                alerta.productoNombre(),
+                alerta.stockAnterior(),
+                alerta.stock(),
+                alerta.umbral(),
+                alerta.version());
+    }
+
+    private static InventarioFranquiciaResponse toResponse(InventarioFranquicia inventario) {
+        return new InventarioFranquiciaResponse(
+                inventario.franquiciaId(),
+                inventario.franquiciaNombre(),
+                inventario.productos(),
+                inventario.stockTotal(),
+                inventario.sucursales().stream()
+                        .map(s -> new InventarioSucursalResponse(s.sucursalId(), s.sucursalNombre(), s.productos(), s.stockTotal()))
+                        .toList());
+    }
+
     private Mono<Franquicia> createFranquicia(CrearFranquiciaRequest franquiciaRequest) {
         return crearUseCase.execute(franquiciaRequest.nombre());
     }
@@ -9,6 +9,11 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import ms.seti.api.dto.request.ActualizarFranquiciaRequest;
 import ms.seti.api.dto.request.CrearFranquiciaRequest;
+import ms.seti.api.dto.request.UmbralStockRequest;
+import ms.seti.api.dto.response.AlertaStockBajoResponse;
+import ms.seti.api.dto.response.CambioStockResponse;
+import ms.seti.api.dto.response.InventarioFranquiciaResponse;
+import ms.seti.api.dto.response.PaginaProductosResponse;
 import ms.seti.api.dto.response.ResponseDto;
 import org.springdoc.core.annotations.RouterOperation;
 import org.springdoc.core.annotations.RouterOperations;
@@ -17,6 +22,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
 import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
 import static org.springframework.web.reactive.function.server.RequestPredicates.PUT;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
@@ -48,4 +54,111 @@ public class FranquiciaRouter {
     public RouterFunction<ServerResponse> franquiciaUpdateRoutes(FranquiciaHandler handler) {
         return route(PUT("/api/v1/franquicias/{id}"), handler::actualizarNombre);
     }
+
+    @Bean
+    @RouterOperation(
+            path = "/api/v1/franquicias/{id}/inventario",
+            beanClass = FranquiciaHandler.class, beanMethod = "inventario",
+            operation = @Operation(operationId = "inventarioFranquicia", summary = "Cantidad de productos y stock total de la franquicia, por sucursal",
+                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Id de la franquicia", schema = @Schema(type = "integer", format = "int64"), example = "1"),
+                            @Parameter(name = "If-None-Match", in = ParameterIn.HEADER, required = false,
+                                    description = "ETag de una respuesta previa; si la franquicia no cambió responde 304 sin consultar", schema = @Schema(type = "string"))},
+                    responses = {@ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = InventarioFranquiciaResponse.class))),
+                            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado"),
+                            @ApiResponse(responseCode = "400", description = "Id inválido"),
+                            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")}))
+    public RouterFunction<ServerResponse> franquiciaInventarioRoutes(FranquiciaHandler handler) {
+        return route(GET("/api/v1/franquicias/{id}/inventario"), handler::inventario);
+    }
+
+    @Bean
+    @RouterOperation(
+            path = "/api/v1/franquicias/{id}/productos",
+            beanClass = FranquiciaHandler.class, beanMethod = "buscarProductos",
+            operation = @Operation(operationId = "buscarProductosFranquicia", summary = "Busca productos por nombre en todas las sucursales de la franquicia",
+                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Id de la franquicia", schema = @Schema(type = "integer", format = "int64"), example = "1"),
+                            @Parameter(name = "q", in = ParameterIn.QUERY, required = true, description = "Texto a buscar (al menos 3 caracteres; parcial o aproximado)", schema = @Schema(type = "string"), example = "pizza"),
+                            @Parameter(name = "limite", in = ParameterIn.QUERY, description = "Resultados (1 a 50)", schema = @Schema(type = "integer", minimum = "1", maximum = "50", defaultValue = "20"))},
+                    responses = {@ApiResponse(responseCode = "200", description = "OK (ordenados por relevancia)", content = @Content(schema = @Schema(implementation = PaginaProductosResponse.class))),
+                            @ApiResponse(responseCode = "400", description = "Id, q o limite inválido"),
+                            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")}))
+    public RouterFunction<ServerResponse> franquiciaProductosRoutes(FranquiciaHandler handler) {
+        return route(GET("/api/v1/franquicias/{id}/productos"), handler::buscarProductos);
+    }
+
+    @Bean
+    @RouterOperation(
+            path = "/api/v1/franquicias/{id}/umbral-stock-bajo",
+            beanClass = FranquiciaHandler.class, beanMethod = "umbralStockBajo",
+            operation = @Operation(operationId = "umbralStockBajoFranquicia", summary = "Fija el umbral de stock bajo por defecto de las sucursales de la franquicia",
+                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Id de la franquicia", schema = @Schema(type = "integer", format = "int64"), example = "1")},
+                    requestBody = @RequestBody(required = true, description = "umbral >= 1; null lo quita. Las sucursales con umbral propio lo conservan",
+                            content = @Content(schema = @Schema(implementation = UmbralStockRequest.class))),
+                    responses = {@ApiResponse(responseCode = "204", description = "Actualizado"),
+                            @ApiResponse(responseCode = "400", description = "Id o umbral inválido"),
+                            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")}))
+    public RouterFunction<ServerResponse> franquiciaUmbralStockBajoRoutes(FranquiciaHandler handler) {
+        return route(PUT("/api/v1/franquicias/{id}/umbral-stock-bajo"), handler::umbralStockBajo);
+    }
+
+    @Bean
+    @RouterOperation(
+            path = "/api/v1/franquicias/{id}/productos/stock-bajo",
+            beanClass = FranquiciaHandler.class, beanMethod = "productosStockBajo",
+            operation = @Operation(operationId = "productosStockBajoFranquicia", summary = "Productos de la franquicia actualmente bajo su umbral de stock",
+                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Id de la franquicia", schema = @Schema(type = "integer", format = "int64"), example = "1"),
+                            @Parameter(name = "limite", in = ParameterIn.QUERY, description = "Resultados (1 a 500)", schema = @Schema(type = "integer", minimum = "1", maximum = "500", defaultValue = "100"))},
+                    responses = {@ApiResponse(responseCode = "200", description = "OK (de menor a mayor stock)", content = @Content(schema = @Schema(implementation = PaginaProductosResponse.class))),
+                            @ApiResponse(responseCode = "400", description = "Id o limite inválido"),
+                            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")}))
+    public RouterFunction<ServerResponse> franquiciaProductosStockBajoRoutes(FranquiciaHandler handler) {
+        return route(GET("/api/v1/franquicias/{id}/productos/stock-bajo"), handler::productosStockBajo);
+    }
+
+    @Bean
+    @RouterOperation(
+            path = "/api/v1/franquicias/{id}/alertas/stock-bajo",
+            beanClass = FranquiciaHandler.class, beanMethod = "alertasStockBajo",
+            operation = @Operation(operationId = "alertasStockBajoFranquicia", summary = "Alertas en vivo (SSE) cuando una escritura de stock cruza el umbral",
+                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Id de la franquicia", schema = @Schema(type = "integer", format = "int64"), example = "1"),
+                            @Parameter(name = "sucursalId", in = ParameterIn.QUERY, description = "Solo alertas de esta sucursal", schema = @Schema(type = "integer", format = "int64"))},
+                    responses = {@ApiResponse(responseCode = "200", description = "Flujo text/event-stream; eventos \"stock-bajo\" con id productoId:version",
+                            content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = AlertaStockBajoResponse.class))),
+                            @ApiResponse(responseCode = "400", description = "Id o sucursalId inválido")}))
+    public RouterFunction<ServerResponse> franquiciaAlertasStockBajoRoutes(FranquiciaHandler handler) {
+        return route(GET("/api/v1/franquicias/{id}/alertas/stock-bajo"), handler::alertasStockBajo);
+    }
+
+    @Bean
+    @RouterOperation(
+            path = "/api/v1/franquicias/{id}/arbol",
+            beanClass = FranquiciaHandler.class, beanMethod = "arbol",
+            operation = @Operation(operationId = "arbolFranquicia", summary = "Franquicia con todas sus sucursales y productos (una sola consulta)",
+                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Id de la franquicia", schema = @Schema(type = "integer", format = "int64"), example = "1"),
+                            @Parameter(name = "If-None-Match", in = ParameterIn.HEADER, required = false,
+                                    description = "ETag de una respuesta previa; si la franquicia no cambió responde 304 sin consultar", schema = @Schema(type = "string"))},
+                    responses = {@ApiResponse(responseCode = "200",
+                                    description = "{id, nombre, sucursales: [{id, nombre, productos: [{id, nombre, stock}]}]}; sucursales por id, productos por nombre",
+                                    content = @Content(mediaType = "application/json")),
+                            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado"),
+                            @ApiResponse(responseCode = "400", description = "Id inválido"),
+                            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")}))
+    public RouterFunction<ServerResponse> franquiciaArbolRoutes(FranquiciaHandler handler) {
+        return route(GET("/api/v1/franquicias/{id}/arbol"), handler::arbol);
+    }
+
+    @Bean
+    @RouterOperation(
+            path = "/api/v1/franquicias/{id}/productos/cambios",
+            beanClass = FranquiciaHandler.class, beanMethod = "cambiosStock",
+            operation = @Operation(operationId = "cambiosStockFranquicia", summary = "Feed en vivo (SSE) de cambios de stock de la franquicia",
+                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Id de la franquicia", schema = @Schema(type = "integer", format = "int64"), example = "1"),
+                            @Parameter(name = "sucursalId", in = ParameterIn.QUERY, description = "Solo cambios de esta sucursal", schema = @Schema(type = "integer", format = "int64"))},
+                    responses = {@ApiResponse(responseCode = "200", description = "Flujo text/event-stream; eventos \"stock\" con id productoId:version. Un cliente lento es desconectado",
+                            content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = CambioStockResponse.class))),
+                            @ApiResponse(responseCode = "400", description = "Id o sucursalId inválido"),
+                            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")}))
+    public RouterFunction<ServerResponse> franquiciaCambiosStockRoutes(FranquiciaHandler handler) {
+        return route(GET("/api/v1/franquicias/{id}/productos/cambios"), handler::cambiosStock);
+    }
 }
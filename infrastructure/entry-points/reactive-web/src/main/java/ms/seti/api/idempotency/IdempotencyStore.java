@@ -0,0 +1,76 @@
+package ms.seti.api.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+
+/**
+ * Almacén en memoria de respuestas por Idempotency-Key (la clave ya llega acotada por cliente y ruta).
+ * - Cada clave pasa por EN_CURSO (reservada) y COMPLETADA (respuesta guardada) hasta vencer su TTL.
+ * - Cada clave queda ligada al digest del body de la primera solicitud: reutilizarla con otro body es DISTINTA.
+ * - Caché Caffeine acotada a maxEntradas respuestas guardadas; al llenarse desaloja las menos usadas.
+ *   Las reservas en curso pesan 0 y nunca se desalojan: ninguna solicitud se procesa sin protección.
+ */
+@Component
+public class IdempotencyStore {
+    public enum Estado { NUEVA, EN_CURSO, COMPLETADA, DISTINTA }
+
+    /** Lo mínimo para repetir la respuesta: estado, cabeceras relevantes y body ya serializado. */
+    public record RespuestaAlmacenada(int status, HttpHeaders headers, byte[] body) {}
+
+    public record Reserva(Estado estado, RespuestaAlmacenada respuesta) {}
+
+    private record Entrada(byte[] digest, RespuestaAlmacenada respuesta) {
+        boolean mismoBody(byte[] otro) {
+            return MessageDigest.isEqual(digest, otro);
+        }
+    }
+
+    private static final Reserva NUEVA = new Reserva(Estado.NUEVA, null);
+    private static final Reserva EN_CURSO = new Reserva(Estado.EN_CURSO, null);
+    private static final Reserva DISTINTA = new Reserva(Estado.DISTINTA, null);
+
+    private final Cache<String, Entrada> entradas;
+
+    public IdempotencyStore(@Value("${idempotency.ttl:24h}") Duration ttl,
+                            @Value("${idempotency.max-entries:10000}") int maxEntradas) {
+        this.entradas = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxEntradas)
+                .<String, Entrada>weigher((clave, entrada) -> entrada.respuesta() == null ? 0 : 1)
+                .build();
+    }
+
+    /** Reserva la clave de forma atómica; si ya existe (vigente) devuelve su estado actual. */
+    public Reserva reservar(String clave, byte[] digest) {
+        Reserva[] resultado = {NUEVA};
+        entradas.asMap().compute(clave, (k, actual) -> {
+            if (actual == null) {
+                return new Entrada(digest, null);
+            }
+            if (!actual.mismoBody(digest)) {
+                resultado[0] = DISTINTA;
+            } else if (actual.respuesta() != null) {
+                resultado[0] = new Reserva(Estado.COMPLETADA, actual.respuesta());
+            } else {
+                resultado[0] = EN_CURSO;
+            }
+            return actual;
+        });
+        return resultado[0];
+    }
+
+    public void completar(String clave, byte[] digest, RespuestaAlmacenada respuesta) {
+        entradas.put(clave, new Entrada(digest, respuesta));
+    }
+
+    /** Libera una reserva sin respuesta exitosa: un reintento con la misma clave vuelve a ejecutarse. */
+    public void liberar(String clave) {
+        entradas.asMap().computeIfPresent(clave, (k, actual) -> actual.respuesta() == null ? null : actual);
+    }
+}
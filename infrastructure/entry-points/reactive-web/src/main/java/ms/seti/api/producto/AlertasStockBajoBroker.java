@@ -0,0 +1,53 @@
+package ms.seti.api.producto;
+
+import lombok.extern.slf4j.Slf4j;
+import ms.seti.model.producto.events.AlertaStockBajo;
+import ms.seti.model.producto.gateways.AlertaStockBajoPublisher;
+import ms.seti.model.producto.gateways.AlertasStockBajoFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Canal en memoria de alertas de stock bajo hacia los suscriptores SSE de esta instancia.
+ * - directBestEffort: publicar nunca espera a un suscriptor; el camino de escritura no se frena.
+ * - Cada suscriptor tiene su propio buffer acotado; si se llena se descartan sus alertas más viejas.
+ * Solo ve las escrituras hechas en esta instancia.
+ */
+@Slf4j
+@Component
+public class AlertasStockBajoBroker implements AlertaStockBajoPublisher, AlertasStockBajoFeed {
+    private final Sinks.Many<AlertaStockBajo> sink = Sinks.many().multicast().directBestEffort();
+    private final int bufferPorSuscriptor;
+
+    public AlertasStockBajoBroker(@Value("${alertas.stock-bajo.buffer-por-suscriptor:256}") int bufferPorSuscriptor) {
+        this.bufferPorSuscriptor = bufferPorSuscriptor;
+    }
+
+    @Override
+    public Mono<Void> publicar(AlertaStockBajo alerta) {
+        return Mono.fromRunnable(() -> {
+            Sinks.EmitResult resultado;
+            // Las escrituras concurrentes publican desde varios hilos: el sink exige emisiones serializadas
+            synchronized (sink) {
+                resultado = sink.tryEmitNext(alerta);
+            }
+            if (resultado.isFailure() && resultado != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+                log.warn("Alerta de stock bajo no entregada (producto id={}): {}", alerta.productoId(), resultado);
+            }
+        });
+    }
+
+    @Override
+    public Flux<AlertaStockBajo> suscribir(Long franquiciaId, Long sucursalId) {
+        return sink.asFlux()
+                .filter(alerta -> franquiciaId.equals(alerta.franquiciaId())
+                        && (sucursalId == null || sucursalId.equals(alerta.sucursalId())))
+                .onBackpressureBuffer(bufferPorSuscriptor,
+                        descartada -> log.debug("Suscriptor lento: se descarta la alerta del producto id={}", descartada.productoId()),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+}
@@ -2,15 +2,27 @@ package ms.seti.api.producto;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ms.seti.api.dto.request.ActualizacionStockItemRequest;
 import ms.seti.api.dto.request.ActualizarProductoRequest;
 import ms.seti.api.dto.request.CrearProductoRequest;
+import ms.seti.api.dto.request.ImportarProductoItemRequest;
 import ms.seti.api.dto.request.ModificarStockRequest;
+import ms.seti.api.dto.request.MovimientoStockRequest;
+import ms.seti.api.dto.response.ActualizacionStockLoteResponse;
 import ms.seti.api.dto.response.ProductoResponse;
+import ms.seti.api.dto.response.ResultadoImportacionResponse;
+import ms.seti.api.dto.response.ResultadoStockItemResponse;
+import ms.seti.api.support.ETags;
+import ms.seti.model.producto.ActualizacionStock;
 import ms.seti.model.producto.Producto;
+import ms.seti.model.producto.ResultadoActualizacionStock;
 import ms.seti.usecase.ActualizarNombreProductoUseCase;
+import ms.seti.usecase.ActualizarStockMasivoUseCase;
 import ms.seti.usecase.CrearProductoUseCase;
 import ms.seti.usecase.EliminarProductoUseCase;
+import ms.seti.usecase.ImportarProductosUseCase;
 import ms.seti.usecase.ModificarStockProductoUseCase;
+import ms.seti.usecase.RegistrarMovimientoStockUseCase;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
@@ -18,7 +30,8 @@ import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
-import static ms.seti.api.support.BaseHandler.createdJson;
+import java.util.stream.Collectors;
+
 import static ms.seti.api.support.BaseHandler.readRequiredBody;
 import static ms.seti.api.support.HttpErrors.selectOnErrorResponse;
 import static ms.seti.api.support.PathVars.validateLongId;
@@ -31,6 +44,9 @@ public class ProductoHandler {
     private final EliminarProductoUseCase eliminarProductoUseCase;
     private final ModificarStockProductoUseCase modificarStockProductoUseCase;
     private final ActualizarNombreProductoUseCase actualizarNombreProductoUseCase;
+    private final RegistrarMovimientoStockUseCase registrarMovimientoStockUseCase;
+    private final ActualizarStockMasivoUseCase actualizarStockMasivoUseCase;
+    private final ImportarProductosUseCase importarProductosUseCase;
 
 
     /** POST /api/v1/productos */
@@ -43,6 +59,21 @@ public class ProductoHandler {
                 .onErrorResume(selectOnErrorResponse()); // 400/404/409 aquí; ó 500 lo maneja GlobalErrorHandler
     }
 
+    /** POST /api/v1/sucursales/{id}/productos/importacion (JSON array o NDJSON, decodificado en streaming) */
+    public Mono<ServerResponse> importar(ServerRequest request) {
+        return validateLongId(request, "id")
+                .flatMap(sucursalId -> importarProductosUseCase.execute(sucursalId,
+                        request.bodyToFlux(ImportarProductoItemRequest.class)
+                                .map(item -> Producto.builder().nombre(item.nombre()).stock(item.stock()).build())))
+                .flatMap(resultado -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new ResultadoImportacionResponse(
+                                resultado.creados(), resultado.duplicados(), resultado.invalidos())))
+                .doOnSubscribe(s -> log.info("POST /api/v1/sucursales/{}/productos/importacion", request.pathVariable("id")))
+                .doOnError(e -> log.error("Error POST /sucursales/{}/productos/importacion", request.pathVariable("id"), e))
+                .onErrorResume(selectOnErrorResponse()); // 400/404 aquí
+    }
+
     /** DELETE /api/v1/productos/{id} */
     public Mono<ServerResponse> eliminar(ServerRequest request) {
         return validateLongId(request, "id")
@@ -53,14 +84,14 @@ public class ProductoHandler {
                 .onErrorResume(selectOnErrorResponse()); // 400/404 aquí; 500 vía GlobalErrorHandler
     }
 
-    /** PUT /api/v1/productos/{id}/stock */
+    /** PUT /api/v1/productos/{id}/stock (If-Match opcional: escritura condicional, 412 si la versión cambió) */
     public Mono<ServerResponse> modificarStock(ServerRequest request) {
         return validateLongId(request, "id")
                 .zipWith(readRequiredBody(request, ModificarStockRequest.class))
                 .flatMap(tuple -> {
                     Long productoId = tuple.getT1();
                     Integer nuevoStock = tuple.getT2().stock();
-                    return modificarStockProductoUseCase.execute(productoId, nuevoStock);
+                    return modificarStockProductoUseCase.execute(productoId, nuevoStock, ETags.ifMatchVersion(request));
                 })
                 .flatMap(this::okResponse)
                 .doOnSubscribe(sub -> log.info("PUT /api/v1/productos/{}/stock", request.pathVariable("id")))
@@ -68,12 +99,40 @@ public class ProductoHandler {
                 .onErrorResume(selectOnErrorResponse());
     }
 
-    /** PUT /api/v1/productos/{id} (actualiza nombre) */
+    /** POST /api/v1/productos/{id}/stock/movimientos (delta relativo) */
+    public Mono<ServerResponse> registrarMovimientoStock(ServerRequest request) {
+        return validateLongId(request, "id")
+                .zipWith(readRequiredBody(request, MovimientoStockRequest.class))
+                .flatMap(tuple -> registrarMovimientoStockUseCase.execute(tuple.getT1(), tuple.getT2().cantidad()))
+                .flatMap(this::okResponse)
+                .doOnSubscribe(sub -> log.info("POST /api/v1/productos/{}/stock/movimientos", request.pathVariable("id")))
+                .doOnError(e -> log.error("Error POST /productos/{}/stock/movimientos", request.pathVariable("id"), e))
+                .onErrorResume(selectOnErrorResponse()); // 400/404/409 aquí
+    }
+
+    /** POST /api/v1/productos/stock/lote (arreglo JSON decodificado como Flux a medida que llega) */
+    public Mono<ServerResponse> modificarStockLote(ServerRequest request) {
+        var actualizaciones = request.bodyToFlux(ActualizacionStockItemRequest.class)
+                .map(item -> new ActualizacionStock(item.productoId(), item.stock()));
+        return actualizarStockMasivoUseCase.execute(actualizaciones)
+                .collect(Collectors.teeing(
+                        Collectors.filtering(this::fueActualizado, Collectors.counting()),
+                        Collectors.filtering(r -> !fueActualizado(r), Collectors.mapping(this::toItemResponse, Collectors.toList())),
+                        ActualizacionStockLoteResponse::new))
+                .flatMap(body -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(body))
+                .doOnSubscribe(sub -> log.info("POST /api/v1/productos/stock/lote"))
+                .doOnError(e -> log.error("Error POST /productos/stock/lote", e))
+                .onErrorResume(selectOnErrorResponse());
+    }
+
+    /** PUT /api/v1/productos/{id} (actualiza nombre; If-Match opcional como en stock) */
     public Mono<ServerResponse> actualizarNombre(ServerRequest request) {
         return validateLongId(request, "id")
                 .zipWith(readRequiredBody(request, ActualizarProductoRequest.class))
                 .flatMap(tuple -> actualizarNombreProductoUseCase.execute(
-                        tuple.getT1(), tuple.getT2().nombre()))
+                        tuple.getT1(), tuple.getT2().nombre(), ETags.ifMatchVersion(request)))
                 .flatMap(this::okResponse)
                 .doOnSubscribe(sub -> log.info("PUT /api/v1/productos/{}", request.pathVariable("id")))
                 .doOnError(e -> log.error("Error PUT /productos/{}", request.pathVariable("id"), e))
@@ -82,15 +141,27 @@ public class ProductoHandler {
 
     private Mono<ServerResponse> createdResponse(Producto producto) {
         URI location = URI.create("/api/v1/productos/" + producto.id());
-        return createdJson(location, new ProductoResponse(
-                producto.id(), producto.sucursalId(), producto.nombre(), producto.stock()
-        ));
+        return withETag(ServerResponse.created(location), producto)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(toResponse(producto));
     }
     private Mono<ServerResponse> okResponse(Producto producto) {
-        return ServerResponse.ok()
+        return withETag(ServerResponse.ok(), producto)
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(toResponse(producto));
     }
+    private ServerResponse.BodyBuilder withETag(ServerResponse.BodyBuilder builder, Producto producto) {
+        return producto.version() != null ? builder.eTag(ETags.of(producto.version())) : builder;
+    }
+    private boolean fueActualizado(ResultadoActualizacionStock resultado) {
+        return resultado.estado() == ResultadoActualizacionStock.Estado.ACTUALIZADO;
+    }
+
+    private ResultadoStockItemResponse toItemResponse(ResultadoActualizacionStock resultado) {
+        return new ResultadoStockItemResponse(resultado.productoId(), resultado.stock(),
+                resultado.estado().name(), resultado.detalle());
+    }
+
     private ProductoResponse toResponse(Producto producto) {
         return new ProductoResponse(producto.id(), producto.sucursalId(), producto.nombre(), producto.stock());
     }
@@ -2,39 +2,120 @@ package ms.seti.api.producto;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ms.seti.api.cache.FranquiciaVersiones;
 import ms.seti.api.dto.response.ProductoTopPorSucursalResponse;
+import ms.seti.api.support.ETags;
 import ms.seti.model.producto.projections.ProductoTopPorSucursal;
 import ms.seti.usecase.ObtenerTopProductoPorSucursalUseCase;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
 
 import static ms.seti.api.support.HttpErrors.selectOnErrorResponse;
 import static ms.seti.api.support.PathVars.validateLongId;
+import static ms.seti.api.support.QueryParams.optionalInt;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ProductoQueryHandler {
+    private static final List<MediaType> STREAMING_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM);
+
     private final ObtenerTopProductoPorSucursalUseCase obtenerTopProductoPorSucursalUseCase;
+    private final TopPorSucursalResponseCache responseCache;
+    private final FranquiciaVersiones franquiciaVersiones;
 
-    /** GET /api/v1/franquicias/{id}/productos/top-por-sucursal */
+    /**
+     * GET /api/v1/franquicias/{id}/productos/top-por-sucursal?n=
+     * If-None-Match con la versión vigente de la franquicia => 304 sin ejecutar el caso de uso.
+     * Accept: application/x-ndjson o text/event-stream => cada ítem se escribe al llegar de R2DBC (con backpressure);
+     * cualquier otro => arreglo JSON (por defecto), servido desde TopPorSucursalResponseCache si está habilitada.
+     */
     public Mono<ServerResponse> topPorSucursal(ServerRequest request) {
+        MediaType streaming = streamingMediaType(request);
         return validateLongId(request, "id")
-                .flatMapMany(obtenerTopProductoPorSucursalUseCase::execute)
-                .map(this::toResponse)
-                .collectList()
-                .flatMap(this::okJson)
+                .zipWith(optionalInt(request, "n", 1))
+                .flatMap(t -> {
+                    // La versión se lee antes de consultar: una escritura concurrente cambia la etiqueta siguiente
+                    String etag = franquiciaVersiones.etag(t.getT1());
+                    if (etag != null && ETags.ifNoneMatch(request, etag)) {
+                        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    if (streaming != null) {
+                        return topPorSucursalStream(t.getT1(), t.getT2(), streaming, etag);
+                    }
+                    return responseCache.isEnabled()
+                            ? topPorSucursalCacheado(t.getT1(), t.getT2(), etag)
+                            : topPorSucursalJson(t.getT1(), t.getT2(), etag);
+                })
                 .doOnSubscribe(s -> log.info("GET /api/v1/franquicias/{}/productos/top-por-sucursal", request.pathVariable("id")))
                 .doOnError(e -> log.error("Error GET /franquicias/{}/productos/top-por-sucursal", request.pathVariable("id"), e))
                 .onErrorResume(selectOnErrorResponse()); // 400/404 aquí; 500 via GlobalErrorHandler
     }
 
-    private ProductoTopPorSucursalResponse toResponse(ProductoTopPorSucursal item) {
+    private Mono<ServerResponse> topPorSucursalJson(Long franquiciaId, int n, String etag) {
+        return obtenerTopProductoPorSucursalUseCase.execute(franquiciaId, n)
+                .map(ProductoQueryHandler::toResponse)
+                .collectList()
+                .flatMap(body -> ok(etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(body));
+    }
+
+    private Mono<ServerResponse> topPorSucursalCacheado(Long franquiciaId, int n, String etag) {
+        return responseCache.get(franquiciaId, n)
+                // bytes ya codificados: se escriben tal cual (sin mapear ni serializar de nuevo)
+                .flatMap(body -> ok(etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(body));
+    }
+
+    private Mono<ServerResponse> topPorSucursalStream(Long franquiciaId, int n, MediaType mediaType, String etag) {
+        // El cuerpo se compromete con el primer ítem: un error previo (p. ej. 404) aún llega
+        // a GlobalErrorHandler con el status correspondiente
+        Flux<ProductoTopPorSucursalResponse> items = obtenerTopProductoPorSucursalUseCase.execute(franquiciaId, n)
+                .map(ProductoQueryHandler::toResponse)
+                .doOnError(e -> log.error("Error en stream /franquicias/{}/productos/top-por-sucursal ({})", franquiciaId, mediaType, e));
+        if (MediaType.TEXT_EVENT_STREAM.equalsTypeAndSubtype(mediaType)) {
+            return ok(etag)
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(BodyInserters.fromServerSentEvents(items.map(item -> ServerSentEvent.builder(item)
+                            .id(item.sucursalId() + ":" + item.productoId())
+                            .event("top-por-sucursal")
+                            .build())));
+        }
+        return ok(etag)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(items, ProductoTopPorSucursalResponse.class);
+    }
+
+    private static ServerResponse.BodyBuilder ok(String etag) {
+        ServerResponse.BodyBuilder builder = ServerResponse.ok();
+        return etag == null ? builder : builder.eTag(etag);
+    }
+
+    /** Primer tipo de streaming pedido explícitamente en Accept (los comodines no cuentan); null => JSON. */
+    private static MediaType streamingMediaType(ServerRequest request) {
+        for (MediaType accepted : request.headers().accept()) {
+            for (MediaType streaming : STREAMING_MEDIA_TYPES) {
+                if (streaming.equalsTypeAndSubtype(accepted) && accepted.getQualityValue() > 0) {
+                    return streaming;
+                }
+            }
+        }
+        return null;
+    }
+
+    static ProductoTopPorSucursalResponse toResponse(ProductoTopPorSucursal item) {
         return new ProductoTopPorSucursalResponse(
                 item.franquiciaId(),
                 item.franquiciaNombre(),
@@ -45,10 +126,4 @@ public class ProductoQueryHandler {
                 item.stock()
         );
     }
-
-    private Mono<ServerResponse> okJson(List<ProductoTopPorSucursalResponse> body) {
-        return ServerResponse.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(body);
-    }
 }
@@ -21,10 +21,17 @@ public class ProductoQueryRouter {
 
     @Bean
     @RouterOperation(path = "/api/v1/franquicias/{id}/productos/top-por-sucursal", beanClass = ProductoQueryHandler.class, beanMethod = "topPorSucursal",
-            operation = @Operation(operationId = "topProductoPorSucursal", summary = "Lista, para cada sucursal de la franquicia, el producto con mayor stock",
-                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, description = "Id de la franquicia", required = true, schema = @Schema(type = "integer", format = "int64"), example = "1")},
-                    responses = {@ApiResponse(responseCode = "200", description = "OK", content = @io.swagger.v3.oas.annotations.media.Content(array = @ArraySchema(schema = @Schema(implementation = ProductoTopPorSucursalResponse.class)))),
-                            @ApiResponse(responseCode = "400", description = "Id inválido"),
+            operation = @Operation(operationId = "topProductoPorSucursal", summary = "Lista, para cada sucursal de la franquicia, los n productos con mayor stock",
+                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, description = "Id de la franquicia", required = true, schema = @Schema(type = "integer", format = "int64"), example = "1"),
+                            @Parameter(name = "n", in = ParameterIn.QUERY, description = "Productos por sucursal (1 a 20)", schema = @Schema(type = "integer", minimum = "1", maximum = "20", defaultValue = "1"), example = "5"),
+                            @Parameter(name = "If-None-Match", in = ParameterIn.HEADER, required = false,
+                                    description = "ETag de una respuesta previa; si la franquicia no cambió responde 304 sin consultar", schema = @Schema(type = "string"))},
+                    responses = {@ApiResponse(responseCode = "200", description = "OK (arreglo JSON; con Accept application/x-ndjson o text/event-stream, un ítem por línea/evento)", content = {
+                            @io.swagger.v3.oas.annotations.media.Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ProductoTopPorSucursalResponse.class))),
+                            @io.swagger.v3.oas.annotations.media.Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = ProductoTopPorSucursalResponse.class)),
+                            @io.swagger.v3.oas.annotations.media.Content(mediaType = "text/event-stream", schema = @Schema(implementation = ProductoTopPorSucursalResponse.class))}),
+                            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado"),
+                            @ApiResponse(responseCode = "400", description = "Id o n inválido"),
                             @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")}))
     public RouterFunction<ServerResponse> productoQueryRoutes(ProductoQueryHandler handler) {
         return route(GET("/api/v1/franquicias/{id}/productos/top-por-sucursal"), handler::topPorSucursal);
@@ -3,13 +3,19 @@ package ms.seti.api.producto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import ms.seti.api.dto.request.ActualizacionStockItemRequest;
 import ms.seti.api.dto.request.ActualizarProductoRequest;
 import ms.seti.api.dto.request.CrearProductoRequest;
+import ms.seti.api.dto.request.ImportarProductoItemRequest;
 import ms.seti.api.dto.request.ModificarStockRequest;
+import ms.seti.api.dto.request.MovimientoStockRequest;
+import ms.seti.api.dto.response.ActualizacionStockLoteResponse;
+import ms.seti.api.dto.response.ResultadoImportacionResponse;
 import org.springdoc.core.annotations.RouterOperation;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -34,6 +40,23 @@ public class ProductoRouter {
         return route(POST("/api/v1/productos"), handler::crear);
     }
 
+    @Bean
+    @RouterOperation(path = "/api/v1/sucursales/{id}/productos/importacion", beanClass = ProductoHandler.class, beanMethod = "importar",
+            operation = @Operation(operationId = "importarProductos", summary = "Importa el catálogo de una sucursal en streaming (JSON array o NDJSON)",
+                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true,
+                            description = "ID de la sucursal",
+                            schema = @Schema(type = "integer", format = "int64", minimum = "1"))},
+                    requestBody = @RequestBody(required = true, content = {
+                            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ImportarProductoItemRequest.class))),
+                            @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = ImportarProductoItemRequest.class))}),
+                    responses = {@ApiResponse(responseCode = "200", description = "Importado",
+                                    content = @Content(schema = @Schema(implementation = ResultadoImportacionResponse.class))),
+                            @ApiResponse(responseCode = "400", description = "Id o body inválido"),
+                            @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")}))
+    public RouterFunction<ServerResponse> productoImportarRoute(ProductoHandler handler) {
+        return route(POST("/api/v1/sucursales/{id}/productos/importacion"), handler::importar);
+    }
+
     @Bean
     @RouterOperation(path = "/api/v1/productos/{id}", beanClass = ProductoHandler.class, beanMethod = "eliminar",
             operation = @Operation(operationId = "eliminarProducto", summary = "Elimina un producto por id",
@@ -54,28 +77,63 @@ public class ProductoRouter {
             operation = @Operation(operationId = "modificarStockProducto", summary = "Modifica el stock de un producto por id",
                     parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true,
                                     description = "ID del producto",
-                                    schema = @Schema(type = "integer", format = "int64", minimum = "1"))
+                                    schema = @Schema(type = "integer", format = "int64", minimum = "1")),
+                            @Parameter(name = "If-Match", in = ParameterIn.HEADER, required = false,
+                                    description = "ETag (versión) esperado; si no coincide responde 412")
                     },
                     requestBody = @RequestBody(required = true, content = @Content(schema = @Schema(implementation = ModificarStockRequest.class))),
                     responses = {
-                            @ApiResponse(responseCode = "200", description = "Actualizado"),
+                            @ApiResponse(responseCode = "200", description = "Actualizado (ETag con la nueva versión)"),
                             @ApiResponse(responseCode = "400", description = "Solicitud inválida"),
-                            @ApiResponse(responseCode = "404", description = "Producto no encontrado")}))
+                            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+                            @ApiResponse(responseCode = "412", description = "La versión no coincide con If-Match")}))
     public RouterFunction<ServerResponse> productoUpdateStockRoute(ProductoHandler handler) {
         return route(PUT("/api/v1/productos/{id}/stock"), handler::modificarStock);
     }
 
+    @Bean
+    @RouterOperation(path = "/api/v1/productos/{id}/stock/movimientos", beanClass = ProductoHandler.class, beanMethod = "registrarMovimientoStock",
+            operation = @Operation(operationId = "registrarMovimientoStockProducto", summary = "Aplica un movimiento relativo de stock (positivo = entrada, negativo = salida)",
+                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true,
+                                    description = "ID del producto",
+                                    schema = @Schema(type = "integer", format = "int64", minimum = "1"))
+                    },
+                    requestBody = @RequestBody(required = true, content = @Content(schema = @Schema(implementation = MovimientoStockRequest.class))),
+                    responses = {
+                            @ApiResponse(responseCode = "200", description = "Aplicado"),
+                            @ApiResponse(responseCode = "400", description = "Solicitud inválida"),
+                            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+                            @ApiResponse(responseCode = "409", description = "Stock insuficiente para el movimiento")}))
+    public RouterFunction<ServerResponse> productoMovimientoStockRoute(ProductoHandler handler) {
+        return route(POST("/api/v1/productos/{id}/stock/movimientos"), handler::registrarMovimientoStock);
+    }
+
+    @Bean
+    @RouterOperation(path = "/api/v1/productos/stock/lote", beanClass = ProductoHandler.class, beanMethod = "modificarStockLote",
+            operation = @Operation(operationId = "modificarStockProductosLote", summary = "Actualiza el stock de muchos productos en lotes set-based",
+                    requestBody = @RequestBody(required = true, content = @Content(array = @ArraySchema(schema = @Schema(implementation = ActualizacionStockItemRequest.class)))),
+                    responses = {
+                            @ApiResponse(responseCode = "200", description = "Procesado; detalla los items no encontrados o inválidos",
+                                    content = @Content(schema = @Schema(implementation = ActualizacionStockLoteResponse.class))),
+                            @ApiResponse(responseCode = "400", description = "Body inválido")}))
+    public RouterFunction<ServerResponse> productoUpdateStockLoteRoute(ProductoHandler handler) {
+        return route(POST("/api/v1/productos/stock/lote"), handler::modificarStockLote);
+    }
+
     @Bean
     @RouterOperation(path = "/api/v1/productos/{id}", beanClass = ProductoHandler.class, beanMethod = "actualizarNombre",
             operation = @Operation(operationId = "actualizarNombreProducto", summary = "Actualiza el nombre de un producto por id",
                     parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true,
                             description = "ID del producto",
-                            schema = @Schema(type = "integer", format = "int64", minimum = "1"))},
+                            schema = @Schema(type = "integer", format = "int64", minimum = "1")),
+                            @Parameter(name = "If-Match", in = ParameterIn.HEADER, required = false,
+                                    description = "ETag (versión) esperado; si no coincide responde 412")},
                     requestBody = @RequestBody(required = true, content = @Content(schema = @Schema(implementation = ActualizarProductoRequest.class))),
-                    responses = {@ApiResponse(responseCode = "200", description = "Actualizado"),
+                    responses = {@ApiResponse(responseCode = "200", description = "Actualizado (ETag con la nueva versión)"),
                             @ApiResponse(responseCode = "400", description = "Solicitud inválida"),
                             @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
-                            @ApiResponse(responseCode = "409", description = "Ya existe en la sucursal")}))
+                            @ApiResponse(responseCode = "409", description = "Ya existe en la sucursal"),
+                            @ApiResponse(responseCode = "412", description = "La versión no coincide con If-Match")}))
     public RouterFunction<ServerResponse> productoUpdateNombreRoute(ProductoHandler handler) {
         return route(PUT("/api/v1/productos/{id}"), handler::actualizarNombre);
     }
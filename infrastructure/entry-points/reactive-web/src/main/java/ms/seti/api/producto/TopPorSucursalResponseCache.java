@@ -0,0 +1,82 @@
+package ms.seti.api.producto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ms.seti.api.cache.FranquiciaVersiones;
+import ms.seti.api.dto.response.ProductoTopPorSucursalResponse;
+import ms.seti.usecase.ObtenerTopProductoPorSucursalUseCase;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caché del top por sucursal ya serializado (arreglo JSON en bytes) por (franquiciaId, n).
+ * - Acotada por bytes (weigher = tamaño del body); las cargas concurrentes de la misma clave comparten una consulta.
+ * - Stale-while-revalidate: pasado refreshAfter se sirve el valor vigente y se recalcula en segundo plano;
+ *   expireAfter acota lo viejo que puede llegar a estar.
+ * - La clave incluye la versión de la franquicia (FranquiciaVersiones) leída antes de cargar: una carga iniciada
+ *   antes de una escritura queda bajo la versión anterior y nunca se sirve con la etiqueta nueva.
+ * - Un cambio de versión deja inalcanzables las entradas anteriores de la franquicia; no se recorren en la
+ *   escritura (sería O(tamaño de la caché) por cada cambio de producto): las reclaman expireAfter y el tope de bytes.
+ */
+@Component
+public class TopPorSucursalResponseCache {
+    private record Clave(long franquiciaId, int n, long version) {}
+
+    private final boolean enabled;
+    private final FranquiciaVersiones franquiciaVersiones;
+    private final AsyncLoadingCache<Clave, byte[]> cache;
+
+    public TopPorSucursalResponseCache(ObtenerTopProductoPorSucursalUseCase useCase,
+                                       FranquiciaVersiones franquiciaVersiones,
+                                       ObjectMapper objectMapper,
+                                       ObjectProvider<MeterRegistry> meterRegistry,
+                                       @Value("${top-por-sucursal.cache.enabled:true}") boolean enabled,
+                                       @Value("${top-por-sucursal.cache.max-bytes:33554432}") long maxBytes,
+                                       @Value("${top-por-sucursal.cache.refresh-after:5s}") Duration refreshAfter,
+                                       @Value("${top-por-sucursal.cache.expire-after:60s}") Duration expireAfter) {
+        this.enabled = enabled;
+        this.franquiciaVersiones = franquiciaVersiones;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Clave clave, byte[] body) -> body.length)
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .recordStats()
+                .buildAsync((clave, executor) -> useCase.execute(clave.franquiciaId(), clave.n())
+                        .map(ProductoQueryHandler::toResponse)
+                        .collectList()
+                        .map(body -> serializar(objectMapper, body))
+                        .toFuture());
+        CaffeineCacheMetrics.monitor(meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                cache.synchronous(), "top_por_sucursal_json");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Body JSON listo para escribir; los errores del caso de uso (400/404) se propagan y no se cachean. */
+    public Mono<byte[]> get(Long franquiciaId, int n) {
+        // suppressCancel: cancelar un suscriptor no debe cancelar la carga compartida
+        return Mono.fromFuture(cache.get(new Clave(franquiciaId, n, franquiciaVersiones.version(franquiciaId))), true);
+    }
+
+    private static byte[] serializar(ObjectMapper objectMapper, List<ProductoTopPorSucursalResponse> body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -4,10 +4,21 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ms.seti.api.dto.request.ActualizarSucursalRequest;
 import ms.seti.api.dto.request.CrearSucursalRequest;
+import ms.seti.api.dto.request.UmbralStockRequest;
+import ms.seti.api.dto.response.PaginaProductosResponse;
+import ms.seti.api.dto.response.ProductoResponse;
 import ms.seti.api.dto.response.SucursalResponse;
+import ms.seti.api.dto.response.UmbralStockResponse;
+import ms.seti.api.support.CursorProductos;
+import ms.seti.model.producto.OrdenProductos;
+import ms.seti.model.producto.PaginaProductos;
+import ms.seti.model.producto.Producto;
 import ms.seti.model.sucursal.Sucursal;
 import ms.seti.usecase.ActualizarNombreSucursalUseCase;
+import ms.seti.usecase.BuscarProductosSucursalUseCase;
+import ms.seti.usecase.ConfigurarUmbralStockSucursalUseCase;
 import ms.seti.usecase.CrearSucursalUseCase;
+import ms.seti.usecase.ListarProductosSucursalUseCase;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
@@ -15,19 +26,26 @@ import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.util.List;
 
 import static ms.seti.api.support.BaseHandler.createdJson;
 import static ms.seti.api.support.BaseHandler.readRequiredBody;
 import static ms.seti.api.support.HttpErrors.selectOnErrorResponse;
 import static ms.seti.api.support.PathVars.validateLongId;
+import static ms.seti.api.support.QueryParams.optionalInt;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SucursalHandler {
+    private static final int LIMITE_POR_DEFECTO = 50;
+    private static final int LIMITE_BUSQUEDA_POR_DEFECTO = 20;
+
     private final CrearSucursalUseCase crearUseCase;
     private final ActualizarNombreSucursalUseCase actualizarNombreUseCase;
-
+    private final ListarProductosSucursalUseCase listarProductosUseCase;
+    private final BuscarProductosSucursalUseCase buscarProductosUseCase;
+    private final ConfigurarUmbralStockSucursalUseCase configurarUmbralStockUseCase;
 
     public Mono<ServerResponse> crear(ServerRequest req) {
         return readRequiredBody(req, CrearSucursalRequest.class)
@@ -53,6 +71,80 @@ public class SucursalHandler {
                 .onErrorResume(selectOnErrorResponse());
     }
 
+    /** PUT /api/v1/sucursales/{id}/umbral-stock-bajo (null quita el propio y vuelve al de la franquicia) */
+    public Mono<ServerResponse> umbralStockBajo(ServerRequest request) {
+        return validateLongId(request, "id")
+                .zipWith(readRequiredBody(request, UmbralStockRequest.class))
+                .flatMap(tuple -> configurarUmbralStockUseCase.execute(tuple.getT1(), tuple.getT2().umbral()))
+                .flatMap(vigente -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new UmbralStockResponse(vigente.sucursalId(), vigente.franquiciaId(), vigente.umbral())))
+                .doOnSubscribe(sub -> log.info("PUT /api/v1/sucursales/{}/umbral-stock-bajo", request.pathVariable("id")))
+                .doOnError(e -> log.error("Error PUT /sucursales/{}/umbral-stock-bajo", request.pathVariable("id"), e))
+                .onErrorResume(selectOnErrorResponse());
+    }
+
+    /**
+     * GET /api/v1/sucursales/{id}/productos?orden=nombre|stock&limite=&cursor=
+     * Con q= busca por nombre (parcial o aproximado) y devuelve los más relevantes, sin cursor.
+     */
+    public Mono<ServerResponse> listarProductos(ServerRequest request) {
+        if (request.queryParam("q").isPresent()) {
+            return buscarProductos(request);
+        }
+        return validateLongId(request, "id")
+                .zipWith(optionalInt(request, "limite", LIMITE_POR_DEFECTO))
+                .flatMap(tuple -> {
+                    OrdenProductos orden = ordenProductos(request);
+                    Producto despuesDe = request.queryParam("cursor")
+                            .filter(cursor -> !cursor.isBlank())
+                            .map(cursor -> CursorProductos.decode(orden, cursor))
+                            .orElse(null);
+                    return listarProductosUseCase.execute(tuple.getT1(), orden, despuesDe, tuple.getT2())
+                            .map(pagina -> toResponse(orden, pagina));
+                })
+                .flatMap(body -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(body))
+                .doOnSubscribe(sub -> log.info("GET /api/v1/sucursales/{}/productos", request.pathVariable("id")))
+                .doOnError(e -> log.error("Error GET /sucursales/{}/productos", request.pathVariable("id"), e))
+                .onErrorResume(selectOnErrorResponse());
+    }
+
+    private Mono<ServerResponse> buscarProductos(ServerRequest request) {
+        String q = request.queryParam("q").orElse("");
+        return validateLongId(request, "id")
+                .zipWith(optionalInt(request, "limite", LIMITE_BUSQUEDA_POR_DEFECTO))
+                .flatMap(tuple -> buscarProductosUseCase.execute(tuple.getT1(), q, tuple.getT2())
+                        .map(p -> new ProductoResponse(p.id(), p.sucursalId(), p.nombre(), p.stock()))
+                        .collectList())
+                .flatMap(productos -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new PaginaProductosResponse(productos, null)))
+                .doOnSubscribe(sub -> log.info("GET /api/v1/sucursales/{}/productos?q={}", request.pathVariable("id"), q))
+                .doOnError(e -> log.error("Error GET /sucursales/{}/productos?q=", request.pathVariable("id"), e))
+                .onErrorResume(selectOnErrorResponse());
+    }
+
+    private static OrdenProductos ordenProductos(ServerRequest request) {
+        String orden = request.queryParam("orden").map(String::trim).orElse("nombre");
+        return switch (orden.toLowerCase()) {
+            case "nombre" -> OrdenProductos.NOMBRE;
+            case "stock" -> OrdenProductos.STOCK;
+            default -> throw new IllegalArgumentException("orden inválido (nombre | stock)");
+        };
+    }
+
+    private static PaginaProductosResponse toResponse(OrdenProductos orden, PaginaProductos pagina) {
+        List<ProductoResponse> productos = pagina.productos().stream()
+                .map(p -> new ProductoResponse(p.id(), p.sucursalId(), p.nombre(), p.stock()))
+                .toList();
+        String siguiente = pagina.hayMas()
+                ? CursorProductos.encode(orden, pagina.productos().get(pagina.productos().size() - 1))
+                : null;
+        return new PaginaProductosResponse(productos, siguiente);
+    }
+
     private Mono<ServerResponse> createdResponse(Sucursal sucursal) {
         var location = URI.create("/api/v1/sucursales/" + sucursal.id());
         return createdJson(location, new SucursalResponse(
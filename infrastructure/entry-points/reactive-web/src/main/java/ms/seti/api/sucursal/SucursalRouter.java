@@ -10,13 +10,17 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import ms.seti.api.dto.request.ActualizarSucursalRequest;
 import ms.seti.api.dto.request.CrearSucursalRequest;
+import ms.seti.api.dto.request.UmbralStockRequest;
+import ms.seti.api.dto.response.PaginaProductosResponse;
 import ms.seti.api.dto.response.SucursalResponse;
+import ms.seti.api.dto.response.UmbralStockResponse;
 import org.springdoc.core.annotations.RouterOperation;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
 import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
 import static org.springframework.web.reactive.function.server.RequestPredicates.PUT;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
@@ -50,4 +54,34 @@ public class SucursalRouter {
     public RouterFunction<ServerResponse> sucursalUpdateRoutes(SucursalHandler handler) {
         return route(PUT("/api/v1/sucursales/{id}"), handler::actualizarNombre);
     }
+
+    @Bean
+    @RouterOperation(path = "/api/v1/sucursales/{id}/productos", beanClass = SucursalHandler.class, beanMethod = "listarProductos",
+            operation = @Operation(operationId = "listarProductosSucursal", summary = "Lista los productos de una sucursal (paginación por cursor) o los busca por nombre (q)",
+                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Id de la sucursal", schema = @Schema(type = "integer", format = "int64"), example = "1"),
+                            @Parameter(name = "orden", in = ParameterIn.QUERY, description = "nombre (asc) o stock (desc)", schema = @Schema(type = "string", allowableValues = {"nombre", "stock"}, defaultValue = "nombre")),
+                            @Parameter(name = "limite", in = ParameterIn.QUERY, description = "Productos por página (1 a 200)", schema = @Schema(type = "integer", minimum = "1", maximum = "200", defaultValue = "50")),
+                            @Parameter(name = "cursor", in = ParameterIn.QUERY, description = "siguienteCursor de la página anterior (opaco, ligado al orden)", schema = @Schema(type = "string")),
+                            @Parameter(name = "q", in = ParameterIn.QUERY, description = "Texto a buscar en el nombre (parcial o aproximado); ignora orden y cursor, limite 1 a 50 (20 por defecto)", schema = @Schema(type = "string"), example = "piz")
+                    },
+                    responses = {
+                            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = PaginaProductosResponse.class))),
+                            @ApiResponse(responseCode = "400", description = "Id, orden, limite, cursor o q inválido"),
+                            @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")}))
+    public RouterFunction<ServerResponse> sucursalProductosRoutes(SucursalHandler handler) {
+        return route(GET("/api/v1/sucursales/{id}/productos"), handler::listarProductos);
+    }
+
+    @Bean
+    @RouterOperation(path = "/api/v1/sucursales/{id}/umbral-stock-bajo", beanClass = SucursalHandler.class, beanMethod = "umbralStockBajo",
+            operation = @Operation(operationId = "umbralStockBajoSucursal", summary = "Fija el umbral de stock bajo propio de la sucursal (prioridad sobre el de la franquicia)",
+                    parameters = {@Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Id de la sucursal", schema = @Schema(type = "integer", format = "int64"), example = "1")},
+                    requestBody = @RequestBody(required = true, description = "umbral >= 1; null quita el propio y aplica el de la franquicia",
+                            content = @Content(schema = @Schema(implementation = UmbralStockRequest.class))),
+                    responses = {@ApiResponse(responseCode = "200", description = "Umbral vigente", content = @Content(schema = @Schema(implementation = UmbralStockResponse.class))),
+                            @ApiResponse(responseCode = "400", description = "Id o umbral inválido"),
+                            @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")}))
+    public RouterFunction<ServerResponse> sucursalUmbralStockBajoRoutes(SucursalHandler handler) {
+        return route(PUT("/api/v1/sucursales/{id}/umbral-stock-bajo"), handler::umbralStockBajo);
+    }
 }
@@ -0,0 +1,49 @@
+package ms.seti.api.support;
+
+import ms.seti.model.producto.OrdenProductos;
+import ms.seti.model.producto.Producto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco del listado keyset de productos (base64url): guarda el orden y las columnas de la clave
+ * del último producto entregado.
+ * - NOMBRE -> "n:<nombre>"
+ * - STOCK  -> "s:<stock>:<id>"
+ */
+public class CursorProductos {
+    private CursorProductos() {}
+
+    public static String encode(OrdenProductos orden, Producto ultimo) {
+        String valor = orden == OrdenProductos.STOCK
+                ? "s:" + ultimo.stock() + ":" + ultimo.id()
+                : "n:" + ultimo.nombre();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Producto con solo las columnas de la clave; IllegalArgumentException si es inválido o de otro orden. */
+    public static Producto decode(OrdenProductos orden, String cursor) {
+        String valor;
+        try {
+            valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("cursor inválido");
+        }
+        if (orden == OrdenProductos.NOMBRE && valor.startsWith("n:")) {
+            return Producto.builder().nombre(valor.substring(2)).build();
+        }
+        String[] partes = valor.split(":", -1);
+        if (orden == OrdenProductos.STOCK && partes.length == 3 && "s".equals(partes[0])) {
+            try {
+                return Producto.builder()
+                        .stock(Integer.valueOf(partes[1]))
+                        .id(Long.valueOf(partes[2]))
+                        .build();
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("cursor inválido");
+            }
+        }
+        throw new IllegalArgumentException("cursor inválido para orden " + orden.name().toLowerCase());
+    }
+}
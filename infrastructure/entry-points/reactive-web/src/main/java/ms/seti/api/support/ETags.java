@@ -0,0 +1,44 @@
+package ms.seti.api.support;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+/**
+ * ETag fuerte a partir de la versión del recurso:
+ * - of(version) -> "\"<version>\"".
+ * - ifMatchVersion(request) -> versión pedida en If-Match (null si no viene o es "*").
+ * - ifNoneMatch(request, etag) -> true si If-None-Match incluye la etiqueta (comparación débil) o "*".
+ */
+public class ETags {
+    private ETags() {}
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static boolean ifNoneMatch(ServerRequest request, String etag) {
+        List<String> ifNoneMatch = request.headers().asHttpHeaders().getIfNoneMatch();
+        String opaca = sinPrefijoDebil(etag);
+        return ifNoneMatch.stream().anyMatch(candidata -> "*".equals(candidata) || opaca.equals(sinPrefijoDebil(candidata)));
+    }
+
+    private static String sinPrefijoDebil(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /** Una etiqueta que no es una versión nunca puede coincidir: 412. */
+    public static Long ifMatchVersion(ServerRequest request) {
+        List<String> ifMatch = request.headers().asHttpHeaders().getIfMatch();
+        if (ifMatch.isEmpty() || ifMatch.contains("*")) {
+            return null;
+        }
+        String etag = ifMatch.get(0);
+        try {
+            return Long.valueOf(etag.substring(1, etag.length() - 1));
+        } catch (RuntimeException e) {
+            throw new ConcurrentModificationException("If-Match no coincide con la versión actual");
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.web.server.ServerWebInputException;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 
+import java.util.ConcurrentModificationException;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
 
@@ -26,6 +27,9 @@ public class HttpErrors {
         if (ex instanceof IllegalStateException) {
             return Responses.conflict(new ErrorResponseDto(ex.getMessage()));
         }
+        if (ex instanceof ConcurrentModificationException) {
+            return Responses.preconditionFailed(new ErrorResponseDto(ex.getMessage()));
+        }
         return Mono.error(ex); // que lo maneje el GlobalErrorHandler (500)
     }
 
@@ -0,0 +1,31 @@
+package ms.seti.api.support;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+public class QueryParams {
+    private QueryParams() {}
+
+    /** Lee un query param entero opcional (valor por defecto si falta) o emite IllegalArgumentException. */
+    public static Mono<Integer> optionalInt(ServerRequest request, String name, int defaultValue) {
+        return Mono.fromCallable(() -> request.queryParam(name)
+                        .map(String::trim)
+                        .filter(value -> !value.isEmpty())
+                        .map(Integer::parseInt)
+                        .orElse(defaultValue))
+                .onErrorMap(NumberFormatException.class,
+                        e -> new IllegalArgumentException(name + " inválido"));
+    }
+
+    /** Lee un query param Long opcional (Optional.empty si falta) o emite IllegalArgumentException. */
+    public static Mono<Optional<Long>> optionalLong(ServerRequest request, String name) {
+        return Mono.fromCallable(() -> request.queryParam(name)
+                        .map(String::trim)
+                        .filter(value -> !value.isEmpty())
+                        .map(Long::parseLong))
+                .onErrorMap(NumberFormatException.class,
+                        e -> new IllegalArgumentException(name + " inválido"));
+    }
+}
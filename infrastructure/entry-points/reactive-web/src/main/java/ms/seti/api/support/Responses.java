@@ -23,6 +23,10 @@ public class Responses {
         return json(HttpStatus.CONFLICT, body);
     }
 
+    public static Mono<ServerResponse> preconditionFailed(Object body) {
+        return json(HttpStatus.PRECONDITION_FAILED, body);
+    }
+
     public static Mono<ServerResponse> notFound() {
         return ServerResponse.status(HttpStatus.NOT_FOUND).build();
     }